@@ -3,6 +3,7 @@ package lib.homies.framework;
 import lib.homies.framework.config.ConfigManager;
 import lib.homies.framework.cooldown.CooldownService;
 import lib.homies.framework.database.DatabaseService;
+import lib.homies.framework.database.metrics.DatabaseMetrics;
 import lib.homies.framework.events.EventBus;
 import lib.homies.framework.events.Listener;
 import lib.homies.framework.menu.MenuManager;
@@ -23,6 +24,7 @@ public final class HomiesLib {
     private static MenuManager menuManager;
     private static SchedulerService schedulerService;
     private static DatabaseService databaseService;
+    private static DatabaseMetrics databaseMetrics;
     private static ConfigManager configManager;
     private static EventBus eventBus;
     private static MiniGameManager miniGameManager;
@@ -101,6 +103,22 @@ public final class HomiesLib {
         HomiesLib.databaseService = databaseService;
     }
 
+    /**
+     * Retrieves the DatabaseMetrics recorded for every {@link DatabaseService} call.
+     * @return The DatabaseMetrics instance, or {@code null} if metrics are disabled.
+     */
+    public static DatabaseMetrics getDatabaseMetrics() {
+        return databaseMetrics;
+    }
+
+    /**
+     * Sets the DatabaseMetrics. Intended for internal framework use during initialization.
+     * @param databaseMetrics The DatabaseMetrics instance to set.
+     */
+    public static void setDatabaseMetrics(DatabaseMetrics databaseMetrics) {
+        HomiesLib.databaseMetrics = databaseMetrics;
+    }
+
     /**
      * Retrieves the ConfigManager service.
      * @return The ConfigManager instance.
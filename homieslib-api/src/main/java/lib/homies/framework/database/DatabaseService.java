@@ -2,8 +2,12 @@ package lib.homies.framework.database;
 
 import lib.homies.framework.database.annotations.DbEntity;
 import lib.homies.framework.database.annotations.DbField;
+import lib.homies.framework.database.exceptions.DatabaseException;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -21,6 +25,27 @@ public interface DatabaseService {
 
     <T> List<T> findAll(Class<T> entityType);
 
+    /**
+     * Finds the entity with the given ID in each of several entity types at once.
+     * This is intended for loading everything stored under one key (e.g. a player's UUID) in a single
+     * round trip. Backends that support batching override this; the default performs one lookup per type.
+     * <p>
+     * Unlike {@link #findById(Class, String)}, a failed lookup is never reported as a missing entity: a type is only
+     * absent from the result if it is known not to be stored, so callers may safely create fresh entities for it.
+     *
+     * @param entityTypes The classes of the entities to find. Each must be annotated with {@link DbEntity}.
+     * @param id          The ID shared by the entities.
+     * @return A {@link Map} from entity type to the found entity. Types with no stored entity are absent.
+     * @throws DatabaseException if the lookup fails, e.g. because the database is unreachable.
+     */
+    default Map<Class<?>, Object> findAllById(Collection<Class<?>> entityTypes, String id) {
+        Map<Class<?>, Object> found = new HashMap<>();
+        for (Class<?> entityType : entityTypes) {
+            findById(entityType, id).ifPresent(entity -> found.put(entityType, entity));
+        }
+        return found;
+    }
+
     /**
      * Finds and retrieves all entities that match a specific field-value pair.
      *
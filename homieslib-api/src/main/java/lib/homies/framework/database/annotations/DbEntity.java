@@ -20,4 +20,12 @@ public @interface DbEntity {
      * @return The table or collection name.
      */
     String tableName() default "";
+
+    /**
+     * Whether all stored entities of this type should be loaded into the cache when the server starts.
+     * Only has an effect when a caching database backend is in use and warm-up is enabled in the HomiesLib config.
+     * Intended for small, frequently read tables; large tables should rely on on-demand caching instead.
+     * @return true if the entity type is preloaded on startup.
+     */
+    boolean preload() default false;
 }
@@ -0,0 +1,24 @@
+package lib.homies.framework.database.exceptions;
+
+/**
+ * Thrown when a database operation fails, as opposed to finding nothing.
+ * Callers that would otherwise treat a missing entity as "create a fresh one" must not do so after this exception.
+ */
+public class DatabaseException extends RuntimeException {
+    /**
+     * Constructs a new DatabaseException with the specified detail message.
+     * @param message The detail message.
+     */
+    public DatabaseException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new DatabaseException with the specified detail message and cause.
+     * @param message The detail message.
+     * @param cause The cause of the exception.
+     */
+    public DatabaseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
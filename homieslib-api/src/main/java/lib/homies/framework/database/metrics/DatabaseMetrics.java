@@ -0,0 +1,42 @@
+package lib.homies.framework.database.metrics;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-only view of the statistics recorded for every {@link lib.homies.framework.database.DatabaseService} call.
+ * Statistics are kept per entity type and operation (e.g. {@code PlayerData} / {@code findById}).
+ */
+public interface DatabaseMetrics {
+
+    /**
+     * Retrieves a snapshot of the statistics of every entity type and operation seen so far.
+     * @return A {@link List} of {@link OperationStats}, ordered by total time spent, highest first.
+     */
+    List<OperationStats> getOperationStats();
+
+    /**
+     * Retrieves a snapshot of the statistics of one operation on one entity type.
+     * @param entityType The entity class.
+     * @param operation The name of the {@link lib.homies.framework.database.DatabaseService} method (e.g. "saveEntity").
+     * @return An {@link Optional} containing the statistics, or {@link Optional#empty()} if the operation was never recorded.
+     */
+    Optional<OperationStats> getOperationStats(Class<?> entityType, String operation);
+
+    /**
+     * Retrieves the most recent operations that took longer than the configured slow-operation threshold.
+     * @return A {@link List} of {@link SlowOperation}s, newest first.
+     */
+    List<SlowOperation> getSlowOperations();
+
+    /**
+     * Retrieves the slow-operation threshold.
+     * @return The threshold in milliseconds.
+     */
+    long getSlowThresholdMillis();
+
+    /**
+     * Clears all recorded statistics and slow operations.
+     */
+    void reset();
+}
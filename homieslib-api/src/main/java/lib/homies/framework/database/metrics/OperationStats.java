@@ -0,0 +1,99 @@
+package lib.homies.framework.database.metrics;
+
+import lombok.Value;
+
+/**
+ * An immutable snapshot of the statistics recorded for one operation on one entity type.
+ * Percentiles are estimated from a fixed-bucket latency histogram, so they are reported as the
+ * upper bound of the bucket they fall into.
+ */
+@Value
+public class OperationStats {
+
+    /**
+     * The simple name of the entity class, or {@code "batch"} for lookups spanning several entity types.
+     */
+    String entityType;
+
+    /**
+     * The name of the {@link lib.homies.framework.database.DatabaseService} method.
+     */
+    String operation;
+
+    /**
+     * The number of completed calls, including failed ones.
+     */
+    long count;
+
+    /**
+     * The number of calls that threw an exception or reported an error they handled themselves.
+     */
+    long errors;
+
+    /**
+     * The total number of entities returned by all calls.
+     */
+    long rowsReturned;
+
+    /**
+     * The number of lookups served by the cache. Only recorded by caching backends.
+     */
+    long cacheHits;
+
+    /**
+     * The number of lookups that missed the cache. Only recorded by caching backends.
+     */
+    long cacheMisses;
+
+    /**
+     * The total time spent in all calls, in nanoseconds.
+     */
+    long totalNanos;
+
+    /**
+     * The slowest call, in nanoseconds.
+     */
+    long maxNanos;
+
+    /**
+     * The estimated median latency, in milliseconds.
+     */
+    double p50Millis;
+
+    /**
+     * The estimated 95th percentile latency, in milliseconds.
+     */
+    double p95Millis;
+
+    /**
+     * The estimated 99th percentile latency, in milliseconds.
+     */
+    double p99Millis;
+
+    /**
+     * The upper bounds of the histogram buckets, in milliseconds. The last bucket is unbounded.
+     */
+    double[] bucketBoundsMillis;
+
+    /**
+     * The number of calls in each histogram bucket.
+     */
+    long[] bucketCounts;
+
+    /**
+     * Calculates the mean latency.
+     * @return The mean latency in milliseconds, or 0 if no calls were recorded.
+     */
+    public double getMeanMillis() {
+        return count == 0 ? 0 : totalNanos / (double) count / 1_000_000.0;
+    }
+
+    /**
+     * Calculates the fraction of lookups served by the cache.
+     * @return The cache hit ratio between 0 and 1, or -1 if no cache lookups were recorded.
+     */
+    public double getCacheHitRatio() {
+        long lookups = cacheHits + cacheMisses;
+        return lookups == 0 ? -1 : cacheHits / (double) lookups;
+    }
+}
@@ -0,0 +1,48 @@
+package lib.homies.framework.database.metrics;
+
+import lombok.Value;
+
+/**
+ * An immutable record of a database operation that exceeded the slow-operation threshold.
+ */
+@Value
+public class SlowOperation {
+
+    /**
+     * The time the operation completed, in epoch milliseconds.
+     */
+    long timestamp;
+
+    /**
+     * The simple name of the entity class.
+     */
+    String entityType;
+
+    /**
+     * The name of the {@link lib.homies.framework.database.DatabaseService} method.
+     */
+    String operation;
+
+    /**
+     * The SQL statement or Redis command issued by the backend, or an empty string if the backend did not report one.
+     */
+    String command;
+
+    /**
+     * How long the operation took, in nanoseconds.
+     */
+    long durationNanos;
+
+    /**
+     * Whether the operation threw an exception.
+     */
+    boolean failed;
+
+    /**
+     * Converts the duration to milliseconds.
+     * @return The duration in milliseconds.
+     */
+    public double getDurationMillis() {
+        return durationNanos / 1_000_000.0;
+    }
+}
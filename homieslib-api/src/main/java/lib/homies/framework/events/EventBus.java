@@ -1,5 +1,8 @@
 package lib.homies.framework.events;
 
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -13,12 +16,26 @@ public interface EventBus {
      * Subscribes a handler to a custom {@link LibEvent}.
      * When an event of the specified class is {@link #call(LibEvent) called},
      * the provided handler will be executed.
+     * The handler runs with {@link EventPriority#NORMAL} priority, including for cancelled events.
      *
      * @param eventClass The class of the custom event to listen for.
      * @param handler The {@link Consumer} that will handle the event.
      * @param <E> The type of the {@link LibEvent}.
+     * @return A {@link Subscription} that removes the handler.
      */
-    <E extends LibEvent> void subscribe(Class<E> eventClass, Consumer<E> handler);
+    <E extends LibEvent> Subscription subscribe(Class<E> eventClass, Consumer<E> handler);
+
+    /**
+     * Subscribes a handler to a custom {@link LibEvent} with a priority.
+     *
+     * @param eventClass The class of the custom event to listen for.
+     * @param priority When the handler runs relative to the other handlers of the event.
+     * @param ignoreCancelled {@code true} to skip the handler once an earlier handler has cancelled the event.
+     * @param handler The {@link Consumer} that will handle the event.
+     * @param <E> The type of the {@link LibEvent}.
+     * @return A {@link Subscription} that removes the handler.
+     */
+    <E extends LibEvent> Subscription subscribe(Class<E> eventClass, EventPriority priority, boolean ignoreCancelled, Consumer<E> handler);
 
     /**
      * Calls a custom {@link LibEvent}, triggering all subscribed handlers for that event type.
@@ -27,22 +44,146 @@ public interface EventBus {
      */
     void call(LibEvent event);
 
+    /**
+     * Calls a custom {@link LibEvent} on the async executor, so expensive handlers such as logging, analytics
+     * or persistence do not block the calling thread. Handlers must be thread-safe and must not touch server state.
+     * No ordering is guaranteed between events; use {@link #callAsync(LibEvent, Object)} when order matters.
+     *
+     * @param event The {@link LibEvent} object to call.
+     * @return A future that completes once every handler has run. If a handler throws, the remaining handlers still run
+     *         and the future completes exceptionally with the first exception.
+     */
+    CompletableFuture<Void> callAsync(LibEvent event);
+
+    /**
+     * Calls a custom {@link LibEvent} on the async executor, after all events previously called with an equal key.
+     * Events of one key are dispatched one at a time and in call order, for example all events of one player,
+     * while events of different keys are dispatched in parallel.
+     *
+     * @param event The {@link LibEvent} object to call.
+     * @param key The ordering key, such as a player's UUID.
+     * @return A future that completes once every handler has run. If a handler throws, the remaining handlers still run
+     *         and the future completes exceptionally with the first exception.
+     */
+    CompletableFuture<Void> callAsync(LibEvent event, Object key);
+
     /**
      * Subscribes a handler to a native platform event (e.g., a Bukkit event, BungeeCord event).
      * The underlying implementation will handle the platform-specific registration of the listener.
      *
+     * The handler runs with {@link EventPriority#NORMAL} priority, including for cancelled events.
+     *
+     * @param platformEventClass The class of the platform event to listen for.
+     * @param handler The {@link Consumer} that will handle the event.
+     * @param <T> The type of the platform event.
+     * @return A {@link Subscription} that removes the handler.
+     */
+    <T> Subscription subscribePlatform(Class<T> platformEventClass, Consumer<T> handler);
+
+    /**
+     * Subscribes a handler to a native platform event with a priority.
+     *
      * @param platformEventClass The class of the platform event to listen for.
+     * @param priority When the handler runs relative to the other listeners of the event, including other plugins' listeners.
+     * @param ignoreCancelled {@code true} to skip the handler if the event has been cancelled by the time it runs.
      * @param handler The {@link Consumer} that will handle the event.
      * @param <T> The type of the platform event.
+     * @return A {@link Subscription} that removes the handler.
+     */
+    <T> Subscription subscribePlatform(Class<T> platformEventClass, EventPriority priority, boolean ignoreCancelled, Consumer<T> handler);
+
+    /**
+     * Subscribes a handler to the events of one key, such as the events of one player or one world.
+     * Works for both custom {@link LibEvent}s and platform events. Keyed handlers are indexed by their key value,
+     * so an event is only passed to the handlers subscribed to its own key: thousands of per-player or per-arena handlers
+     * cost one key extraction and one lookup per event, not one call each.
+     * The handler runs with {@link EventPriority#NORMAL} priority, including for cancelled events.
+     *
+     * @param eventClass The class of the events to listen for.
+     * @param key Extracts the key from the events.
+     * @param value The key value to listen for, such as a player's UUID.
+     * @param handler The {@link Consumer} that will handle the events of the key.
+     * @param <T> The event type.
+     * @param <K> The key type.
+     * @return A {@link Subscription} that removes the handler.
+     */
+    <T, K> Subscription subscribeKeyed(Class<T> eventClass, EventKey<? super T, K> key, K value, Consumer<T> handler);
+
+    /**
+     * Subscribes a handler to the events of one key with a priority.
+     *
+     * @param eventClass The class of the events to listen for.
+     * @param key Extracts the key from the events.
+     * @param value The key value to listen for, such as a player's UUID.
+     * @param priority When the handler runs relative to the other handlers of the event.
+     * @param ignoreCancelled {@code true} to skip the handler if the event has been cancelled by the time it runs.
+     * @param handler The {@link Consumer} that will handle the events of the key.
+     * @param <T> The event type.
+     * @param <K> The key type.
+     * @return A {@link Subscription} that removes the handler.
+     * @see #subscribeKeyed(Class, EventKey, Object, Consumer)
+     */
+    <T, K> Subscription subscribeKeyed(Class<T> eventClass, EventKey<? super T, K> key, K value, EventPriority priority, boolean ignoreCancelled, Consumer<T> handler);
+
+    /**
+     * Subscribes a handler that receives only the latest event of each key per server tick.
+     * Suits expensive handlers of high-frequency events, such as updating a scoreboard on {@code PlayerMoveEvent},
+     * that only need the most recent state: the handler runs once per player per tick instead of once per movement packet.
+     * <p>
+     * Events are collected at {@link EventPriority#MONITOR} priority, skipping cancelled ones, and delivered on the main server thread
+     * at the start of the next tick. By then the call that fired each event has returned, so the handler receives snapshots:
+     * cancelling or changing them no longer affects the original {@code callEvent}, and the handler should treat them as read-only.
+     *
+     * @param eventClass The class of the events to listen for, a custom or platform event.
+     * @param key Extracts the key to coalesce by, such as {@code SpigotEventKeys.PLAYER}.
+     * @param handler The {@link Consumer} that receives the latest event of each key.
+     * @param <T> The event type.
+     * @param <K> The key type.
+     * @return A {@link Subscription} that removes the handler and discards undelivered events.
+     */
+    <T, K> Subscription subscribeCoalesced(Class<T> eventClass, EventKey<? super T, K> key, Consumer<T> handler);
+
+    /**
+     * Subscribes a handler that receives all events of each key per server tick as one batch, in the order they were fired.
+     * Unlike {@link #subscribeCoalesced(Class, EventKey, Consumer)}, no event is lost, for handlers that need every change
+     * but can process them together, such as summing up the slots of a series of {@code InventoryDragEvent}s.
+     * Batches are delivered at the start of the next tick, like coalesced events, and are likewise snapshots: cancelling or
+     * changing them no longer affects the original {@code callEvent}.
+     *
+     * @param eventClass The class of the events to listen for, a custom or platform event.
+     * @param key Extracts the key to group by.
+     * @param handler The {@link Consumer} that receives the events of each key.
+     * @param <T> The event type.
+     * @param <K> The key type.
+     * @return A {@link Subscription} that removes the handler and discards undelivered events.
+     * @see #subscribeCoalesced(Class, EventKey, Consumer)
+     */
+    <T, K> Subscription subscribeBatched(Class<T> eventClass, EventKey<? super T, K> key, Consumer<List<T>> handler);
+
+    /**
+     * Registers the {@link lib.homies.framework.events.annotations.Subscribe}-annotated methods of an object as event handlers.
+     * Each method is subscribed to the class of its parameter, as a custom or platform event, with the priority of its annotation.
+     * <p>
+     * The framework cannot create direct invokers for classes loaded by another plugin's class loader, so the methods of such
+     * listeners are called through method handles, which costs more per event than a handler passed as a lambda.
+     * Use {@link #register(Object, MethodHandles.Lookup)} to have them called directly.
+     *
+     * @param listener The listener object to register.
+     * @return A {@link Subscription} that removes all handlers of the object.
      */
-    <T> void subscribePlatform(Class<T> platformEventClass, Consumer<T> handler);
+    Subscription register(Object listener);
 
     /**
-     * Registers an object containing methods that act as event listeners.
-     * Each method intended as a listener should be manually registered or follow a convention
-     * for the specific platform's event handling mechanism.
+     * Registers the {@link lib.homies.framework.events.annotations.Subscribe}-annotated methods of an object as event handlers,
+     * like {@link #register(Object)}, using the caller's access to the listener class to call the methods directly.
+     * They then cost the same per event as a handler passed as a lambda.
+     * <pre>{@code
+     * HomiesLib.getEventBus().register(new ArenaListener(), MethodHandles.lookup());
+     * }</pre>
      *
      * @param listener The listener object to register.
+     * @param lookup A lookup created with {@link MethodHandles#lookup()} in the plugin that contains the listener class.
+     * @return A {@link Subscription} that removes all handlers of the object.
      */
-    void register(Object listener);
+    Subscription register(Object listener, MethodHandles.Lookup lookup);
 }
@@ -0,0 +1,70 @@
+package lib.homies.framework.events;
+
+import java.util.function.Function;
+
+/**
+ * Extracts a key, such as a player's UUID or a world name, from events so that handlers can subscribe to the events of one key.
+ * The event bus indexes keyed handlers by their key, so an event only reaches the handlers of its own key
+ * instead of every handler checking whether the event concerns it.
+ * <p>
+ * Keys are compared by identity: create each key once, for example as a constant, and reuse it for every subscription.
+ *
+ * @param <E> The type of the events the key can be extracted from. Subscriptions may use it for any subclass.
+ * @param <K> The key type. It must implement {@link Object#equals(Object)} and {@link Object#hashCode()}.
+ * @see EventBus#subscribeKeyed(Class, EventKey, Object, java.util.function.Consumer)
+ */
+public final class EventKey<E, K> {
+
+    private final String name;
+    private final Class<E> eventClass;
+    private final Function<? super E, ? extends K> extractor;
+
+    private EventKey(String name, Class<E> eventClass, Function<? super E, ? extends K> extractor) {
+        this.name = name;
+        this.eventClass = eventClass;
+        this.extractor = extractor;
+    }
+
+    /**
+     * Creates a new event key.
+     * @param name A descriptive name, used in logs.
+     * @param eventClass The class of the events the key can be extracted from.
+     * @param extractor Extracts the key from an event. It must be cheap and must not throw; returning {@code null} matches no handler.
+     * @param <E> The event type.
+     * @param <K> The key type.
+     * @return The event key.
+     */
+    public static <E, K> EventKey<E, K> of(String name, Class<E> eventClass, Function<? super E, ? extends K> extractor) {
+        return new EventKey<>(name, eventClass, extractor);
+    }
+
+    /**
+     * Retrieves the name of the key.
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the class of the events the key can be extracted from.
+     * @return The event class.
+     */
+    public Class<E> getEventClass() {
+        return eventClass;
+    }
+
+    /**
+     * Extracts the key of an event.
+     * @param event The event.
+     * @return The key, or {@code null} if the event has none.
+     */
+    public K extract(E event) {
+        return extractor.apply(event);
+    }
+
+    @Override
+    public String toString() {
+        return "EventKey[" + name + "]";
+    }
+}
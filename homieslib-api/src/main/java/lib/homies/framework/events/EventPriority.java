@@ -0,0 +1,33 @@
+package lib.homies.framework.events;
+
+/**
+ * The order in which event handlers run. Handlers run from {@link #LOWEST} to {@link #MONITOR};
+ * handlers with the same priority run in the order they subscribed.
+ * For platform events, the priorities map to the platform's own priorities, so they interleave with other plugins' listeners.
+ */
+public enum EventPriority {
+    /**
+     * Runs first. Use for handlers whose decision later handlers may override.
+     */
+    LOWEST,
+    /**
+     * Runs after {@link #LOWEST}.
+     */
+    LOW,
+    /**
+     * The default priority.
+     */
+    NORMAL,
+    /**
+     * Runs after {@link #NORMAL}.
+     */
+    HIGH,
+    /**
+     * Runs after {@link #HIGH}. Use for handlers that must have the final say.
+     */
+    HIGHEST,
+    /**
+     * Runs last. Use for handlers that only observe the outcome and do not change the event.
+     */
+    MONITOR
+}
@@ -0,0 +1,21 @@
+package lib.homies.framework.events;
+
+/**
+ * A handle to an event handler subscribed to the {@link EventBus}.
+ * Keep it for handlers that live shorter than the plugin, such as the handlers of one minigame instance,
+ * and unsubscribe when they are no longer needed.
+ */
+public interface Subscription {
+
+    /**
+     * Removes the handler from the bus. It is not called for events dispatched after this call returns.
+     * Calling this more than once has no effect.
+     */
+    void unsubscribe();
+
+    /**
+     * Checks whether the handler is still subscribed.
+     * @return {@code true} until {@link #unsubscribe()} is called.
+     */
+    boolean isActive();
+}
@@ -0,0 +1,16 @@
+package lib.homies.framework.events.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark a platform listener class, such as an {@code org.bukkit.event.Listener}, for automatic registration.
+ * The annotation processor lists annotated classes in the plugin's generated index, and HomiesLib instantiates them
+ * through their public no-arg constructor and registers them for the plugin when it enables.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface EventListener {
+}
@@ -0,0 +1,21 @@
+package lib.homies.framework.events.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark a {@link lib.homies.framework.events.LibEvent} as networked.
+ * When the network event bus is enabled in the HomiesLib config, calling a networked event also publishes it over Redis,
+ * and every other server calls it on its own event bus, on the main thread.
+ * <p>
+ * Networked events are serialized to JSON from their fields, so they should only hold simple values such as strings,
+ * numbers, UUIDs and collections of them, never players, worlds or other server objects.
+ * A server only dispatches received events of classes it has subscribed to or called itself.
+ * Events that are cancelled locally are not published.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Networked {
+}
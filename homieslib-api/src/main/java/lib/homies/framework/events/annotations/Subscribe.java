@@ -0,0 +1,30 @@
+package lib.homies.framework.events.annotations;
+
+import lib.homies.framework.events.EventPriority;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark a method as an event handler of an object registered with {@link lib.homies.framework.events.EventBus#register(Object)}.
+ * The method must be public, not static, and take exactly one parameter: the event, either a {@link lib.homies.framework.events.LibEvent}
+ * or a platform event. It is subscribed to that event class and its subclasses.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Subscribe {
+
+    /**
+     * When the handler runs relative to the other handlers of the event.
+     * @return The priority.
+     */
+    EventPriority priority() default EventPriority.NORMAL;
+
+    /**
+     * Whether the handler is skipped for events that have been cancelled by the time it runs.
+     * @return {@code true} to skip cancelled events.
+     */
+    boolean ignoreCancelled() default false;
+}
@@ -81,10 +81,8 @@ public abstract class AbstractPaginatedHomiesMenu extends AbstractHomiesMenu {
         this.isLoading = true;
         HomiesLib.getSchedulerService().runAsync(() -> {
             itemLoader.accept(new ArrayList<>()); // Pass an empty list initially, actual items will be set by the consumer
-            HomiesLib.getSchedulerService().runLater(() -> {
-                // Re-open the menu on the main thread to refresh content with loaded items
-                HomiesLib.getMenuManager().openMenu(player, this);
-            }, 1L); // Small delay to ensure refresh
+            // Re-open the menu on the player's thread (their region thread on Folia) to refresh content with loaded items
+            HomiesLib.getSchedulerService().runFor(player, () -> HomiesLib.getMenuManager().openMenu(player, this), 0L);
         });
     }
 
@@ -3,32 +3,119 @@ package lib.homies.framework.playerdata;
 import lib.homies.framework.player.HomiesPlayer;
 
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * A platform-agnostic interface for managing player-specific data.
  * This service allows framework developers to store and retrieve {@link PlayerData} for {@link HomiesPlayer}s.
+ * <p>
+ * While a player is online, their data is held in an in-memory session that is preloaded during login
+ * and flushed back to the database on quit and periodically. Reads for online players never perform I/O,
+ * so they are safe to use from the main server thread.
+ * <p>
+ * Plugins can attach their own typed data to the session with {@link #registerSection(Class)}. All sections are
+ * loaded together with the {@link PlayerData} in one batched lookup at login, so adding plugins does not add
+ * cache round trips to a player's join.
  */
 public interface PlayerDataService {
 
     /**
      * Retrieves the {@link PlayerData} for a given {@link HomiesPlayer}.
-     * This method uses the player's unique ID to fetch data from the database.
+     * This method uses the player's unique ID to fetch data from the session cache or the database.
      * @param player The {@link HomiesPlayer} whose data is to be retrieved.
      * @return An {@link Optional} containing the {@link PlayerData} if found, otherwise {@link Optional#empty()}.
      */
     Optional<PlayerData> getPlayerData(HomiesPlayer player);
 
     /**
-     * Saves the provided {@link PlayerData} object to the database.
-     * This will either create new data or update existing data based on the player's UUID.
+     * Saves the provided {@link PlayerData} object.
+     * If the player has a loaded session, the session is updated and marked dirty so it is written on the
+     * next flush. Otherwise the data is written to the database immediately.
      * @param playerData The {@link PlayerData} object to save.
      */
     void savePlayerData(PlayerData playerData);
 
     /**
      * Retrieves the {@link PlayerData} for a given player UUID.
+     * If the player has a loaded session, the cached data is returned without any I/O.
      * @param uuid The {@link String} representation of the UUID of the player whose data is to be retrieved.
      * @return An {@link Optional} containing the {@link PlayerData} if found, otherwise {@link Optional#empty()}.
      */
     Optional<PlayerData> getPlayerData(String uuid);
+
+    /**
+     * Retrieves the {@link PlayerData} of an online player from their session, without touching the database.
+     * @param uuid The UUID of the player.
+     * @return An {@link Optional} containing the cached {@link PlayerData}, or {@link Optional#empty()} if no session is loaded.
+     */
+    Optional<PlayerData> getCachedPlayerData(UUID uuid);
+
+    /**
+     * Loads a player's session, fetching their data from the database or creating fresh data if none exists,
+     * and claims it for one login of the player. If a session is already loaded, it is claimed as-is.
+     * <p>
+     * A session stays loaded while any claim on it is held, so a player logging in again before their previous
+     * connection has quit shares the session with it. Every claim must be released once with {@link #unloadSession(UUID, long)}.
+     * <p>
+     * This method performs blocking I/O and must not be called from the main server thread.
+     * @param uuid The UUID of the player.
+     * @return The claim, to be passed to {@link #unloadSession(UUID, long)} when the login ends.
+     */
+    long loadSession(UUID uuid);
+
+    /**
+     * Releases a claim on a player's session. Once the last claim is released, the session is unloaded
+     * and, if it has unsaved changes, flushed asynchronously.
+     * Releasing a claim that is not held has no effect, so an old login can never unload the session of a newer one.
+     * @param uuid The UUID of the player.
+     * @param claim The claim returned by {@link #loadSession(UUID)}.
+     */
+    void unloadSession(UUID uuid, long claim);
+
+    /**
+     * Marks a player's {@link PlayerData} as changed so it is written to the database on the next flush.
+     * @param uuid The UUID of the player.
+     */
+    void markDirty(UUID uuid);
+
+    /**
+     * Registers a per-plugin data section that is loaded into every player session alongside {@link PlayerData}.
+     * The section type must be annotated with {@link lib.homies.framework.database.annotations.DbEntity},
+     * have a no-args constructor, and have an ID field holding the player's UUID (as a {@link String} or {@link UUID}).
+     * Players without stored data for the section receive a fresh instance.
+     * <p>
+     * Sessions that are already loaded receive the section asynchronously.
+     * @param sectionType The class of the data section.
+     * @param <T> The section type.
+     * @throws IllegalArgumentException if the class is not a valid section entity.
+     */
+    <T> void registerSection(Class<T> sectionType);
+
+    /**
+     * Retrieves a data section of an online player from their session, without touching the database.
+     * @param uuid The UUID of the player.
+     * @param sectionType The class of the data section, previously passed to {@link #registerSection(Class)}.
+     * @param <T> The section type.
+     * @return An {@link Optional} containing the section, or {@link Optional#empty()} if no session or section is loaded.
+     */
+    <T> Optional<T> getSection(UUID uuid, Class<T> sectionType);
+
+    /**
+     * Marks one data section of a player's session as changed so it is written to the database on the next flush.
+     * @param uuid The UUID of the player.
+     * @param sectionType The class of the data section.
+     */
+    void markDirty(UUID uuid, Class<?> sectionType);
+
+    /**
+     * Writes all sessions with unsaved changes to the database.
+     * This method performs blocking I/O and should be called off the main server thread.
+     */
+    void flushDirty();
+
+    /**
+     * Writes all sessions with unsaved changes to the database and unloads every session.
+     * Intended to be called once while the framework shuts down.
+     */
+    void flushAll();
 }
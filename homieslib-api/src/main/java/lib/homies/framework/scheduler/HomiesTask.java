@@ -11,4 +11,17 @@ public interface HomiesTask {
      * depending on the underlying platform's scheduler implementation.
      */
     void cancel();
+
+    /**
+     * Checks whether this task was cancelled before it completed.
+     * @return {@code true} if the task was cancelled.
+     */
+    boolean isCancelled();
+
+    /**
+     * Checks whether this task will not run again, because it completed, failed or was cancelled.
+     * A repeating task is only done once it is cancelled.
+     * @return {@code true} if the task is done.
+     */
+    boolean isDone();
 }
@@ -0,0 +1,37 @@
+package lib.homies.framework.scheduler;
+
+/**
+ * Limits how often an action runs per key, turning bursts of triggers into a bounded amount of work.
+ * Created with {@link SchedulerService#debounce(long)}, {@link SchedulerService#throttle(long)} or {@link SchedulerService#coalesce(long)}.
+ * <p>
+ * Actions run on the main server thread. Triggering is safe from any thread. When a key is triggered several times
+ * before its action runs, only the action passed to the latest trigger runs.
+ *
+ * @param <K> The key type, for example a player's UUID.
+ */
+public interface KeyedRunner<K> {
+
+    /**
+     * Requests the action to run for a key, subject to this runner's policy.
+     * @param key The key.
+     * @param action The action to run.
+     */
+    void trigger(K key, Runnable action);
+
+    /**
+     * Discards the pending action of a key, if any.
+     * @param key The key.
+     */
+    void cancel(K key);
+
+    /**
+     * Discards the pending actions of all keys.
+     */
+    void cancelAll();
+
+    /**
+     * Retrieves the number of keys with a pending action or an active throttle window.
+     * @return The number of tracked keys.
+     */
+    int getPendingCount();
+}
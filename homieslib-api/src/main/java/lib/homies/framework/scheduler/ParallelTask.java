@@ -0,0 +1,43 @@
+package lib.homies.framework.scheduler;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A collection processed by {@link SchedulerService#forkJoin(java.util.Collection, java.util.function.Function, java.util.function.Consumer)}:
+ * its items are computed in parallel on all cores, and the results are applied on the main server thread within a per-tick budget.
+ * <p>
+ * Cancelling the task skips every item that has not been computed or applied yet.
+ */
+public interface ParallelTask extends HomiesTask {
+
+    /**
+     * Retrieves the number of items in the processed collection.
+     * @return The total item count.
+     */
+    int getTotal();
+
+    /**
+     * Retrieves the number of items whose result has been computed.
+     * @return The computed item count.
+     */
+    int getComputed();
+
+    /**
+     * Retrieves the number of items whose result has been applied on the main server thread.
+     * @return The applied item count.
+     */
+    int getApplied();
+
+    /**
+     * Retrieves the fraction of items that have been applied.
+     * @return A value between 0 and 1.
+     */
+    double getProgress();
+
+    /**
+     * Retrieves a future that completes once every result has been applied. It completes exceptionally with the first
+     * exception thrown by the computation or the apply step, and is cancelled when the task is cancelled.
+     * @return The completion future.
+     */
+    CompletableFuture<Void> toFuture();
+}
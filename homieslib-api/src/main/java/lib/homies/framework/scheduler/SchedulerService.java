@@ -1,11 +1,22 @@
 package lib.homies.framework.scheduler;
 
+import lib.homies.framework.player.HomiesPlayer;
+import lib.homies.framework.world.HomiesLocation;
+
+import java.util.Collection;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * A platform-agnostic service for scheduling tasks.
  * This service allows framework developers to run tasks synchronously, asynchronously,
  * with delays, or repeatedly, abstracting away platform-specific scheduler APIs.
+ * <p>
+ * On Folia, "the main server thread" means the global region thread, which owns no world state.
+ * Use {@link #runAt(HomiesLocation, Runnable, long)} and {@link #runFor(HomiesPlayer, Runnable, long)} to touch blocks and entities.
  */
 public interface SchedulerService {
 
@@ -17,6 +28,17 @@ public interface SchedulerService {
      */
     HomiesTask runLater(Runnable task, long delay);
 
+    /**
+     * Runs a task once after a specified delay on the main server thread, using a lightweight timer.
+     * Unlike {@link #runLater(Runnable, long)}, the task does not become a platform task: it is stored in a timing wheel
+     * driven by a single repeating task, making scheduling and cancelling O(1) and cheap enough for
+     * per-slot animations, per-player timeouts and other cases with thousands of pending timers.
+     * @param task The {@link Runnable} to execute.
+     * @param delay The delay before the task runs, in server ticks.
+     * @return A {@link HomiesTask} that cancels the timer.
+     */
+    HomiesTask runLaterLightweight(Runnable task, long delay);
+
     /**
      * Runs a task repeatedly on the main server thread after an initial delay.
      * @param task The {@link Runnable} to execute.
@@ -26,6 +48,28 @@ public interface SchedulerService {
      */
     HomiesTask runRepeating(Runnable task, long delay, long period);
 
+    /**
+     * Runs a task once after a delay on the thread that owns the given location.
+     * On servers with a single main thread this is the main thread; on Folia it is the thread of the region containing the location,
+     * so the task may safely access blocks and entities near the location.
+     * @param location The location whose owning thread runs the task.
+     * @param task The {@link Runnable} to execute.
+     * @param delay The delay before the task runs, in server ticks.
+     * @return A {@link HomiesTask} representing the scheduled task.
+     */
+    HomiesTask runAt(HomiesLocation location, Runnable task, long delay);
+
+    /**
+     * Runs a task once after a delay on the thread that owns the given player.
+     * On servers with a single main thread this is the main thread; on Folia it is the thread of the region the player is in,
+     * following the player across regions. The task is skipped if the player has logged out by then.
+     * @param player The player whose owning thread runs the task.
+     * @param task The {@link Runnable} to execute.
+     * @param delay The delay before the task runs, in server ticks.
+     * @return A {@link HomiesTask} representing the scheduled task.
+     */
+    HomiesTask runFor(HomiesPlayer player, Runnable task, long delay);
+
     /**
      * Runs a task asynchronously (off the main server thread) immediately.
      * @param task The {@link Runnable} to execute.
@@ -33,6 +77,119 @@ public interface SchedulerService {
      */
     HomiesTask runAsync(Runnable task);
 
+    /**
+     * Retrieves the executor that {@link #runAsync(Runnable)} submits to, for use with
+     * {@link java.util.concurrent.CompletableFuture#supplyAsync(java.util.function.Supplier, Executor)} and similar APIs.
+     * Depending on the framework configuration this is the platform's async scheduler, a virtual thread executor,
+     * or a bounded thread pool.
+     * @return The async {@link Executor}.
+     */
+    Executor getAsyncExecutor();
+
+    /**
+     * Retrieves an executor that runs tasks on the main server thread.
+     * Tasks submitted from the main thread run immediately; tasks submitted from other threads run at the start of the next tick.
+     * @return The main-thread {@link Executor}.
+     */
+    Executor getMainThreadExecutor();
+
+    /**
+     * Starts a {@link TaskChain} by computing a value on the async executor.
+     * @param supplier Computes the value, for example by loading it from the database.
+     * @param <T> The type of the value.
+     * @return The first stage of the chain.
+     */
+    <T> TaskChain<T> supplyAsync(Supplier<T> supplier);
+
+    /**
+     * Starts a {@link TaskChain} by computing a value on the main server thread.
+     * @param supplier Computes the value, for example by reading the state of a player.
+     * @param <T> The type of the value.
+     * @return The first stage of the chain.
+     */
+    <T> TaskChain<T> supplySync(Supplier<T> supplier);
+
+    /**
+     * Retrieves the named {@link WorkQueue}, creating it with the framework's default per-tick budget if it does not exist.
+     * @param name The queue name.
+     * @return The work queue.
+     */
+    WorkQueue workQueue(String name);
+
+    /**
+     * Retrieves the named {@link WorkQueue}, creating it if it does not exist, and sets its per-tick budget.
+     * @param name The queue name.
+     * @param budget The time the queue may spend per tick.
+     * @param unit The unit of {@code budget}.
+     * @return The work queue.
+     */
+    WorkQueue workQueue(String name, long budget, TimeUnit unit);
+
+    /**
+     * Creates a runner that waits until a key has not been triggered for {@code delayTicks}, then runs the latest action once.
+     * Suits work that should only happen once a burst has ended, such as saving a file after a series of edits.
+     * @param delayTicks The quiet period in server ticks.
+     * @param <K> The key type.
+     * @return The debouncing runner.
+     */
+    <K> KeyedRunner<K> debounce(long delayTicks);
+
+    /**
+     * Creates a runner that runs a key's action at most once per {@code periodTicks}.
+     * The first trigger runs immediately (on the next tick when triggered off the main thread); triggers during the period are
+     * collapsed into one run at its end. Suits refreshes that must stay responsive, such as updating a player's open menu.
+     * @param periodTicks The minimum number of server ticks between runs.
+     * @param <K> The key type.
+     * @return The throttling runner.
+     */
+    <K> KeyedRunner<K> throttle(long periodTicks);
+
+    /**
+     * Creates a runner that runs a key's latest action {@code windowTicks} after its first trigger, however many triggers follow.
+     * Unlike {@link #debounce(long)}, a steady stream of triggers cannot postpone the run indefinitely.
+     * Suits batching, such as coalescing many save requests into one.
+     * @param windowTicks The number of server ticks to collect triggers for.
+     * @param <K> The key type.
+     * @return The coalescing runner.
+     */
+    <K> KeyedRunner<K> coalesce(long windowTicks);
+
+    /**
+     * Processes a collection on all cores and applies the results on the main server thread.
+     * The items are split into a few chunks per processor and {@code compute} runs on them in parallel, off the main thread,
+     * so it must be pure: it may read its item but must not touch worlds, entities or other server state.
+     * Each result is then passed to {@code apply} on the main thread through a shared {@link WorkQueue}, spreading
+     * large result sets over several ticks. Suits work such as diffing an arena for a reset or recomputing a leaderboard.
+     * @param items The items to process.
+     * @param compute Computes the result of an item. Returning {@code null} skips the apply step for that item.
+     * @param apply Applies a result on the main server thread.
+     * @param <T> The item type.
+     * @param <R> The result type.
+     * @return A {@link ParallelTask} that reports progress and completes once every result is applied.
+     */
+    <T, R> ParallelTask forkJoin(Collection<? extends T> items, Function<? super T, ? extends R> compute, Consumer<? super R> apply);
+
+    /**
+     * Processes a collection on all cores in chunks of a given size and applies the results on the main server thread.
+     * @param items The items to process.
+     * @param chunkSize The number of items computed together by one worker.
+     * @param compute Computes the result of an item. Returning {@code null} skips the apply step for that item.
+     * @param apply Applies a result on the main server thread.
+     * @param <T> The item type.
+     * @param <R> The result type.
+     * @return A {@link ParallelTask} that reports progress and completes once every result is applied.
+     * @see #forkJoin(Collection, Function, Consumer)
+     */
+    <T, R> ParallelTask forkJoin(Collection<? extends T> items, int chunkSize, Function<? super T, ? extends R> compute, Consumer<? super R> apply);
+
+    /**
+     * Checks whether tasks of a priority are currently being stretched or skipped because the server is behind.
+     * Optional work that is not a repeating task, such as a menu opening animation, can use this to take a cheaper path.
+     * @param priority The priority.
+     * @return {@code true} if work of this priority is being shed.
+     */
+    boolean isShedding(TaskPriority priority);
+
     /**
      * Adds a scheduled task to a named group. Tasks in a group can be cancelled together.
      * @param group The name of the task group.
@@ -95,6 +252,21 @@ public interface SchedulerService {
          */
         SchedulerTaskBuilder group(String group);
 
+        /**
+         * Names the task in task timings reports. Unnamed tasks are reported under the class that created the runnable.
+         * @param name The task name.
+         * @return The builder instance.
+         */
+        SchedulerTaskBuilder name(String name);
+
+        /**
+         * Sets how important a repeating task is when the server falls behind. Defaults to {@link TaskPriority#NORMAL}.
+         * One-shot tasks always run.
+         * @param priority The task priority.
+         * @return The builder instance.
+         */
+        SchedulerTaskBuilder priority(TaskPriority priority);
+
         /**
          * Builds and starts the scheduled task.
          * @return A {@link HomiesTask} representing the newly scheduled task.
@@ -0,0 +1,71 @@
+package lib.homies.framework.scheduler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A chain of tasks that hops between the async executor and the main server thread, started with
+ * {@link SchedulerService#supplyAsync(java.util.function.Supplier)} or {@link SchedulerService#supplySync(java.util.function.Supplier)}.
+ * <p>
+ * A sync stage runs immediately if the previous stage finished on the main thread, otherwise at the start of the next tick.
+ * An exception skips the following stages until one handles it with {@link #exceptionally(Function)} or
+ * {@link #whenCompleteSync(BiConsumer)}. Cancelling any stage cancels the whole chain: stages that have not started are skipped,
+ * and a stage that is already running finishes but its result is discarded.
+ *
+ * @param <T> The result type of this stage.
+ */
+public interface TaskChain<T> extends HomiesTask {
+
+    /**
+     * Transforms the result of this stage on the main server thread.
+     * @param function The transformation.
+     * @param <R> The result type of the new stage.
+     * @return The new stage.
+     */
+    <R> TaskChain<R> thenSync(Function<? super T, ? extends R> function);
+
+    /**
+     * Consumes the result of this stage on the main server thread.
+     * @param consumer The consumer.
+     * @return The new stage.
+     */
+    TaskChain<Void> thenAcceptSync(Consumer<? super T> consumer);
+
+    /**
+     * Transforms the result of this stage on the async executor.
+     * @param function The transformation.
+     * @param <R> The result type of the new stage.
+     * @return The new stage.
+     */
+    <R> TaskChain<R> thenAsync(Function<? super T, ? extends R> function);
+
+    /**
+     * Consumes the result of this stage on the async executor.
+     * @param consumer The consumer.
+     * @return The new stage.
+     */
+    TaskChain<Void> thenAcceptAsync(Consumer<? super T> consumer);
+
+    /**
+     * Recovers from an exception thrown by this or an earlier stage, on whichever thread the failure happened.
+     * @param handler Maps the exception (unwrapped from {@link java.util.concurrent.CompletionException}) to a replacement result.
+     * @return The new stage.
+     */
+    TaskChain<T> exceptionally(Function<Throwable, ? extends T> handler);
+
+    /**
+     * Runs an action on the main server thread when this stage completes, successfully or not.
+     * @param action Receives the result, or {@code null}, and the exception, or {@code null}.
+     * @return A new stage with the same result as this one.
+     */
+    TaskChain<T> whenCompleteSync(BiConsumer<? super T, ? super Throwable> action);
+
+    /**
+     * Retrieves this stage as a {@link CompletableFuture}, for use with APIs that expect one.
+     * Cancelling the returned future cancels only this stage; use {@link #cancel()} to cancel the chain.
+     * @return The future of this stage.
+     */
+    CompletableFuture<T> toFuture();
+}
@@ -0,0 +1,18 @@
+package lib.homies.framework.scheduler;
+
+/**
+ * How important a repeating task is when the server falls behind.
+ * Set with {@link SchedulerService.SchedulerTaskBuilder#priority(TaskPriority)}.
+ */
+public enum TaskPriority {
+    /**
+     * The task always runs at its configured rate.
+     */
+    NORMAL,
+    /**
+     * The task is optional, such as an animation, a particle loop or a title update.
+     * While the server is behind, it runs at half its rate; while the server is overloaded, it does not run at all.
+     * It resumes its normal rate once the server recovers.
+     */
+    LOW
+}
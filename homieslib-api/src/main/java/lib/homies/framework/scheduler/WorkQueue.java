@@ -0,0 +1,86 @@
+package lib.homies.framework.scheduler;
+
+import java.util.Collection;
+
+/**
+ * A queue of small units of main-thread work, such as block changes or inventory updates produced by async code.
+ * Units can be submitted from any thread. Every server tick the scheduler runs queued units in submission order
+ * until the queue's time budget is spent; whatever is left carries over to the next tick.
+ * This spreads large batches over several ticks instead of running them all in one tick and causing a lag spike.
+ * <p>
+ * Queues are obtained with {@link SchedulerService#workQueue(String)}.
+ */
+public interface WorkQueue {
+
+    /**
+     * Retrieves the name of this queue.
+     * @return The queue name.
+     */
+    String getName();
+
+    /**
+     * Adds a unit of work to the end of this queue. Safe to call from any thread.
+     * @param work The work to run on the main server thread.
+     */
+    void submit(Runnable work);
+
+    /**
+     * Adds several units of work to the end of this queue, keeping their order. Safe to call from any thread.
+     * @param work The work to run on the main server thread.
+     */
+    void submitAll(Collection<? extends Runnable> work);
+
+    /**
+     * Retrieves the time this queue may spend per tick.
+     * @return The budget in nanoseconds.
+     */
+    long getBudgetNanos();
+
+    /**
+     * Changes the time this queue may spend per tick.
+     * @param budgetNanos The new budget in nanoseconds.
+     */
+    void setBudgetNanos(long budgetNanos);
+
+    /**
+     * Retrieves the number of units waiting to run.
+     * @return The current backlog.
+     */
+    int getBacklog();
+
+    /**
+     * Retrieves the largest backlog this queue has had.
+     * @return The peak backlog.
+     */
+    int getPeakBacklog();
+
+    /**
+     * Retrieves the total number of units this queue has run.
+     * @return The processed unit count.
+     */
+    long getProcessedCount();
+
+    /**
+     * Retrieves the time this queue spent during the last tick it had work in.
+     * @return The time in nanoseconds.
+     */
+    long getLastTickNanos();
+
+    /**
+     * Retrieves the moving average of the time this queue spends per tick it has work in.
+     * @return The average time in nanoseconds.
+     */
+    long getAverageTickNanos();
+
+    /**
+     * Retrieves the longest time this queue spent in a single tick. A single slow unit can exceed the budget.
+     * @return The maximum time in nanoseconds.
+     */
+    long getMaxTickNanos();
+
+    /**
+     * Removes all units waiting to run without running them.
+     * @return The number of units removed.
+     */
+    int clear();
+}
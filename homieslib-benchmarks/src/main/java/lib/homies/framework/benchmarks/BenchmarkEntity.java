@@ -0,0 +1,44 @@
+package lib.homies.framework.benchmarks;
+
+import lib.homies.framework.database.annotations.DbEntity;
+import lib.homies.framework.database.annotations.DbField;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A representative player-profile entity used by all benchmarks.
+ */
+@Data
+@NoArgsConstructor
+@DbEntity(tableName = "bench_profiles")
+public class BenchmarkEntity {
+
+    @DbField(id = true)
+    private String uuid;
+
+    @DbField
+    private String name;
+
+    @DbField
+    private long coins;
+
+    @DbField
+    private int level;
+
+    @DbField
+    private double balance;
+
+    @DbField
+    private boolean muted;
+
+    static BenchmarkEntity create(int index) {
+        BenchmarkEntity entity = new BenchmarkEntity();
+        entity.setUuid(new java.util.UUID(0xB3AC4L, index).toString());
+        entity.setName("player" + index);
+        entity.setCoins(index * 10L);
+        entity.setLevel(index % 100);
+        entity.setBalance(index * 1.5);
+        entity.setMuted(index % 7 == 0);
+        return entity;
+    }
+}
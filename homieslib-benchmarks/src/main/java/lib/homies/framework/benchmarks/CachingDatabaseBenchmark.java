@@ -0,0 +1,85 @@
+package lib.homies.framework.benchmarks;
+
+import lib.homies.framework.database.metrics.DefaultDatabaseMetrics;
+import lib.homies.framework.database.metrics.InstrumentedDatabaseService;
+import lib.homies.framework.spigot.database.SpigotCachingDatabaseService;
+import lib.homies.framework.spigot.database.SpigotMySQLDatabaseService;
+import lib.homies.framework.spigot.database.SpigotRedisDatabaseService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures the overhead the caching service and the metrics layer add on a cache hit.
+ * Redis and MySQL are replaced by in-memory stand-ins, so the numbers contain no I/O and isolate the framework's own cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CachingDatabaseBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(CachingDatabaseBenchmark.class.getName());
+
+    @Param({"1000"})
+    public int rows;
+
+    private InMemoryRedis redis;
+    private SpigotCachingDatabaseService caching;
+    private InstrumentedDatabaseService instrumented;
+    private String[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        redis = new InMemoryRedis();
+        SpigotMySQLDatabaseService mysql = new SpigotMySQLDatabaseService(null, 0, null, null, null, List.of(), LOGGER);
+        caching = new SpigotCachingDatabaseService(redis, mysql, LOGGER);
+        instrumented = new InstrumentedDatabaseService(caching, new DefaultDatabaseMetrics(0, 1));
+
+        ids = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            BenchmarkEntity entity = BenchmarkEntity.create(i);
+            ids[i] = entity.getUuid();
+            redis.store.put(ids[i], entity);
+        }
+    }
+
+    @Benchmark
+    public Optional<BenchmarkEntity> standIn() {
+        return redis.findById(BenchmarkEntity.class, ids[next++ % rows]);
+    }
+
+    @Benchmark
+    public Optional<BenchmarkEntity> cachingHit() {
+        return caching.findById(BenchmarkEntity.class, ids[next++ % rows]);
+    }
+
+    @Benchmark
+    public Optional<BenchmarkEntity> instrumentedCachingHit() {
+        return instrumented.findById(BenchmarkEntity.class, ids[next++ % rows]);
+    }
+
+    /**
+     * A Redis service backed by a map, standing in for a Redis server with zero latency.
+     */
+    private static final class InMemoryRedis extends SpigotRedisDatabaseService {
+        private final Map<String, Object> store = new ConcurrentHashMap<>();
+
+        private InMemoryRedis() {
+            super("localhost", 0, "", 0, LOGGER);
+        }
+
+        @Override
+        public <T> Optional<T> findById(Class<T> entityType, String id) {
+            return Optional.ofNullable(entityType.cast(store.get(id)));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package lib.homies.framework.benchmarks;
+
+import lib.homies.framework.database.annotations.DbField;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of mapping a stored row (as a column -> value map) onto an entity.
+ * <ul>
+ *     <li>{@code reflection} mirrors what the database services do today: scan the declared fields and their
+ *     annotations on every call.</li>
+ *     <li>{@code cachedFields} resolves the annotated fields once and only sets them per call.</li>
+ *     <li>{@code generated} is the hand-written equivalent of an annotation-processor generated mapper, and is the
+ *     lower bound the other two are compared against.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityMappingBenchmark {
+
+    private Map<String, String> row;
+    private List<ColumnField> cachedFields;
+
+    @Setup
+    public void setup() throws IllegalAccessException {
+        BenchmarkEntity source = BenchmarkEntity.create(42);
+        row = new HashMap<>();
+        cachedFields = new ArrayList<>();
+        for (Field field : BenchmarkEntity.class.getDeclaredFields()) {
+            DbField dbField = field.getAnnotation(DbField.class);
+            if (dbField != null) {
+                field.setAccessible(true);
+                String column = dbField.columnName().isEmpty() ? field.getName() : dbField.columnName();
+                row.put(column, String.valueOf(field.get(source)));
+                cachedFields.add(new ColumnField(column, field));
+            }
+        }
+    }
+
+    @Benchmark
+    public BenchmarkEntity reflection() throws ReflectiveOperationException {
+        BenchmarkEntity entity = BenchmarkEntity.class.getDeclaredConstructor().newInstance();
+        for (Field field : BenchmarkEntity.class.getDeclaredFields()) {
+            DbField dbField = field.getAnnotation(DbField.class);
+            if (dbField != null) {
+                field.setAccessible(true);
+                String column = dbField.columnName().isEmpty() ? field.getName() : dbField.columnName();
+                String value = row.get(column);
+                if (value != null) {
+                    field.set(entity, convert(value, field.getType()));
+                }
+            }
+        }
+        return entity;
+    }
+
+    @Benchmark
+    public BenchmarkEntity cachedFields() throws ReflectiveOperationException {
+        BenchmarkEntity entity = new BenchmarkEntity();
+        for (ColumnField columnField : cachedFields) {
+            String value = row.get(columnField.column);
+            if (value != null) {
+                columnField.field.set(entity, convert(value, columnField.field.getType()));
+            }
+        }
+        return entity;
+    }
+
+    @Benchmark
+    public BenchmarkEntity generated() {
+        BenchmarkEntity entity = new BenchmarkEntity();
+        String value;
+        if ((value = row.get("uuid")) != null) entity.setUuid(value);
+        if ((value = row.get("name")) != null) entity.setName(value);
+        if ((value = row.get("coins")) != null) entity.setCoins(Long.parseLong(value));
+        if ((value = row.get("level")) != null) entity.setLevel(Integer.parseInt(value));
+        if ((value = row.get("balance")) != null) entity.setBalance(Double.parseDouble(value));
+        if ((value = row.get("muted")) != null) entity.setMuted(Boolean.parseBoolean(value));
+        return entity;
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == long.class) return Long.parseLong(value);
+        if (type == int.class) return Integer.parseInt(value);
+        if (type == double.class) return Double.parseDouble(value);
+        if (type == boolean.class) return Boolean.parseBoolean(value);
+        return value;
+    }
+
+    private static final class ColumnField {
+        private final String column;
+        private final Field field;
+
+        private ColumnField(String column, Field field) {
+            this.column = column;
+            this.field = field;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package lib.homies.framework.benchmarks;
+
+import lib.homies.framework.database.DatabaseService;
+import lib.homies.framework.spigot.database.SpigotMySQLDatabaseService;
+import lib.homies.framework.spigot.database.SpigotRedisDatabaseService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures {@code saveEntity}, {@code findById} and {@code findAll} against a real Redis or MySQL server.
+ * <p>
+ * These benchmarks need a running server and are configured through system properties:
+ * <ul>
+ *     <li>{@code homieslib.bench.redis.host} / {@code homieslib.bench.redis.port} (default port 6379)</li>
+ *     <li>{@code homieslib.bench.mysql.host} / {@code homieslib.bench.mysql.port} (default 3306),
+ *     {@code homieslib.bench.mysql.database} (default "homieslib_bench"), {@code homieslib.bench.mysql.user}
+ *     (default "root") and {@code homieslib.bench.mysql.password}</li>
+ * </ul>
+ * A backend whose host is not set fails its setup, so run e.g. {@code -p backend=redis} to select only the available one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RemoteDatabaseBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(RemoteDatabaseBenchmark.class.getName());
+
+    @Param({"redis", "mysql"})
+    public String backend;
+
+    @Param({"1000"})
+    public int rows;
+
+    private DatabaseService service;
+    private Runnable shutdown;
+    private BenchmarkEntity[] entities;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if ("redis".equals(backend)) {
+            SpigotRedisDatabaseService redis = new SpigotRedisDatabaseService(
+                    requireProperty("homieslib.bench.redis.host"),
+                    Integer.getInteger("homieslib.bench.redis.port", 6379),
+                    System.getProperty("homieslib.bench.redis.password", ""), 0, LOGGER);
+            if (!redis.init()) {
+                throw new IllegalStateException("Could not connect to Redis.");
+            }
+            service = redis;
+            shutdown = redis::onDisable;
+        } else {
+            SpigotMySQLDatabaseService mysql = new SpigotMySQLDatabaseService(
+                    requireProperty("homieslib.bench.mysql.host"),
+                    Integer.getInteger("homieslib.bench.mysql.port", 3306),
+                    System.getProperty("homieslib.bench.mysql.database", "homieslib_bench"),
+                    System.getProperty("homieslib.bench.mysql.user", "root"),
+                    System.getProperty("homieslib.bench.mysql.password", ""),
+                    List.of(BenchmarkEntity.class), LOGGER);
+            if (!mysql.init()) {
+                throw new IllegalStateException("Could not connect to MySQL.");
+            }
+            service = mysql;
+            shutdown = mysql::onDisable;
+        }
+
+        entities = new BenchmarkEntity[rows];
+        for (int i = 0; i < rows; i++) {
+            entities[i] = BenchmarkEntity.create(i);
+            service.saveEntity(entities[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (BenchmarkEntity entity : entities) {
+            service.deleteEntity(entity);
+        }
+        shutdown.run();
+    }
+
+    @Benchmark
+    public void saveEntity() {
+        BenchmarkEntity entity = entities[next++ % rows];
+        entity.setCoins(entity.getCoins() + 1);
+        service.saveEntity(entity);
+    }
+
+    @Benchmark
+    public Optional<BenchmarkEntity> findById() {
+        return service.findById(BenchmarkEntity.class, entities[next++ % rows].getUuid());
+    }
+
+    @Benchmark
+    public List<BenchmarkEntity> findAll() {
+        return service.findAll(BenchmarkEntity.class);
+    }
+
+    private static String requireProperty(String key) {
+        String value = System.getProperty(key);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalStateException("System property '" + key + "' is not set; skipping this backend.");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,88 @@
+package lib.homies.framework.benchmarks;
+
+import lib.homies.framework.spigot.database.SpigotSQLiteDatabaseService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures {@code saveEntity}, {@code findById} and {@code findAll} on the SQLite service,
+ * both against a database file and fully in memory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SQLiteDatabaseBenchmark {
+
+    @Param({"memory", "file"})
+    public String storage;
+
+    @Param({"1000"})
+    public int rows;
+
+    private File dataFolder;
+    private SpigotSQLiteDatabaseService service;
+    private BenchmarkEntity[] entities;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        String url;
+        if ("file".equals(storage)) {
+            dataFolder = Files.createTempDirectory("homieslib-bench").toFile();
+            url = "jdbc:sqlite:" + new File(dataFolder, "database.db").getAbsolutePath();
+        } else {
+            url = "jdbc:sqlite::memory:";
+        }
+        service = new SpigotSQLiteDatabaseService(url, List.of(BenchmarkEntity.class), Logger.getLogger("SQLiteDatabaseBenchmark"));
+        if (!service.init()) {
+            throw new IllegalStateException("Failed to open SQLite database at " + url);
+        }
+
+        entities = new BenchmarkEntity[rows];
+        for (int i = 0; i < rows; i++) {
+            entities[i] = BenchmarkEntity.create(i);
+            service.saveEntity(entities[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.onDisable();
+        if (dataFolder != null) {
+            File[] files = dataFolder.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            dataFolder.delete();
+        }
+    }
+
+    @Benchmark
+    public void saveEntity() {
+        BenchmarkEntity entity = entities[next++ % rows];
+        entity.setCoins(entity.getCoins() + 1);
+        service.saveEntity(entity);
+    }
+
+    @Benchmark
+    public Optional<BenchmarkEntity> findById() {
+        return service.findById(BenchmarkEntity.class, entities[next++ % rows].getUuid());
+    }
+
+    @Benchmark
+    public List<BenchmarkEntity> findAll() {
+        return service.findAll(BenchmarkEntity.class);
+    }
+}
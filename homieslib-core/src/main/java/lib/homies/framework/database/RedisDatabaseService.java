@@ -2,8 +2,12 @@ package lib.homies.framework.database;
 
 import lib.homies.framework.database.annotations.DbEntity;
 import lib.homies.framework.database.annotations.DbField;
+import lib.homies.framework.database.exceptions.DatabaseException;
+import lib.homies.framework.database.metrics.DatabaseTrace;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 
 import java.lang.reflect.Field;
 import java.time.LocalDateTime;
@@ -13,6 +17,9 @@ import java.util.logging.Logger;
 public abstract class RedisDatabaseService implements DatabaseService {
 
     private static final Logger LOGGER = Logger.getLogger(RedisDatabaseService.class.getName());
+    // Writes the hash in ARGV (field, value, ...) to KEYS[1] only if the key does not exist, in one atomic step
+    private static final String HSET_IF_ABSENT_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then redis.call('HSET', KEYS[1], unpack(ARGV)) return 1 end return 0";
     protected final String host;
     protected final int port;
     protected final String password;
@@ -30,6 +37,14 @@ public abstract class RedisDatabaseService implements DatabaseService {
 
     public abstract void onDisable();
 
+    /**
+     * Retrieves the connection pool, so other features such as the network event bus can share the connection.
+     * @return The pool, or {@code null} if the service is not connected.
+     */
+    public JedisPool getJedisPool() {
+        return jedisPool;
+    }
+
     protected Jedis getResource() {
         if (jedisPool == null || jedisPool.isClosed()) {
             throw new IllegalStateException("JedisPool is not initialized or is closed.");
@@ -45,56 +60,101 @@ public abstract class RedisDatabaseService implements DatabaseService {
     @Override
     public <T> void saveEntity(T entity) {
         if (jedisPool == null) return;
-        Class<?> entityClass = entity.getClass();
-        DbEntity dbEntity = entityClass.getAnnotation(DbEntity.class);
-        if (dbEntity == null) {
-            throw new IllegalArgumentException("Class " + entityClass.getName() + " is not annotated with @DbEntity.");
+        try (Jedis jedis = getResource()) {
+            String key = getKey(entity);
+            DatabaseTrace.command("HSET " + key);
+            jedis.hset(key, toHash(entity));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Failed to save entity due to reflection error.", e);
         }
+    }
 
-        String tableName = dbEntity.tableName().isEmpty() ? entity.getClass().getSimpleName() : dbEntity.tableName();
-        String id = null;
+    /**
+     * Saves several entities in one pipelined round trip.
+     * Intended for bulk loads such as cache warm-up, where issuing one command per entity would dominate the cost.
+     *
+     * @param entities The entities to save. Each class must be annotated with {@link DbEntity}.
+     */
+    public void saveAll(Collection<?> entities) {
+        if (jedisPool == null || entities.isEmpty()) return;
         try (Jedis jedis = getResource()) {
-            String key = null;
-            for (Field field : entity.getClass().getDeclaredFields()) {
-                DbField dbField = field.getAnnotation(DbField.class);
-                if (dbField != null) {
-                    field.setAccessible(true);
-                    if (dbField.id()) {
-                        Object idValue = field.get(entity);
-                        if (idValue == null) {
-                            throw new IllegalStateException("ID field for entity " + entityClass.getName() + " cannot be null during save.");
-                        }
-                        id = String.valueOf(idValue);
-                        key = tableName + ":" + id;
-                        break;
-                    }
-                }
+            DatabaseTrace.command("PIPELINE " + entities.size() + "x HSET");
+            Pipeline pipeline = jedis.pipelined();
+            for (Object entity : entities) {
+                pipeline.hset(getKey(entity), toHash(entity));
             }
+            pipeline.sync();
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Failed to save entities due to reflection error.", e);
+        }
+    }
 
-            if (id == null) {
-                throw new IllegalStateException("Entity " + entity.getClass().getName() + " does not have an ID field annotated with @DbField(id=true).");
+    /**
+     * Saves several entities in one pipelined round trip, skipping every entity whose key already exists.
+     * Each check and write is a single atomic script, so an entity written concurrently by {@link #saveEntity(Object)}
+     * is never overwritten. Intended for filling the cache with data read earlier, which may be older than what the cache holds.
+     *
+     * @param entities The entities to save. Each class must be annotated with {@link DbEntity}.
+     */
+    public void saveAllIfAbsent(Collection<?> entities) {
+        if (jedisPool == null || entities.isEmpty()) return;
+        try (Jedis jedis = getResource()) {
+            DatabaseTrace.command("PIPELINE " + entities.size() + "x HSET if absent");
+            Pipeline pipeline = jedis.pipelined();
+            for (Object entity : entities) {
+                Map<String, String> hash = toHash(entity);
+                if (hash.isEmpty()) {
+                    continue;
+                }
+                List<String> args = new ArrayList<>(hash.size() * 2);
+                hash.forEach((field, value) -> {
+                    args.add(field);
+                    args.add(value);
+                });
+                pipeline.eval(HSET_IF_ABSENT_SCRIPT, Collections.singletonList(getKey(entity)), args);
             }
+            pipeline.sync();
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Failed to save entities due to reflection error.", e);
+        }
+    }
 
-            if (key == null) {
-                throw new IllegalStateException("Could not construct Redis key for entity " + entity.getClass().getName());
+    private String getKey(Object entity) throws IllegalAccessException {
+        Class<?> entityClass = entity.getClass();
+        DbEntity dbEntity = entityClass.getAnnotation(DbEntity.class);
+        if (dbEntity == null) {
+            throw new IllegalArgumentException("Class " + entityClass.getName() + " is not annotated with @DbEntity.");
+        }
+
+        String tableName = dbEntity.tableName().isEmpty() ? entityClass.getSimpleName() : dbEntity.tableName();
+        for (Field field : entityClass.getDeclaredFields()) {
+            DbField dbField = field.getAnnotation(DbField.class);
+            if (dbField != null && dbField.id()) {
+                field.setAccessible(true);
+                Object idValue = field.get(entity);
+                if (idValue == null) {
+                    throw new IllegalStateException("ID field for entity " + entityClass.getName() + " cannot be null during save.");
+                }
+                return tableName + ":" + idValue;
             }
+        }
+        throw new IllegalStateException("Entity " + entityClass.getName() + " does not have an ID field annotated with @DbField(id=true).");
+    }
 
-            Map<String, String> hash = new HashMap<>();
-            for (Field field : entity.getClass().getDeclaredFields()) {
-                DbField dbField = field.getAnnotation(DbField.class);
-                if (dbField != null) {
-                    field.setAccessible(true);
-                    String fieldName = dbField.columnName().isEmpty() ? field.getName() : dbField.columnName();
-                    Object value = field.get(entity);
-                    if (value != null) {
-                        hash.put(fieldName, value.toString());
-                    }
+    private Map<String, String> toHash(Object entity) throws IllegalAccessException {
+        Map<String, String> hash = new HashMap<>();
+        for (Field field : entity.getClass().getDeclaredFields()) {
+            DbField dbField = field.getAnnotation(DbField.class);
+            if (dbField != null) {
+                field.setAccessible(true);
+                String fieldName = dbField.columnName().isEmpty() ? field.getName() : dbField.columnName();
+                Object value = field.get(entity);
+                if (value != null) {
+                    hash.put(fieldName, value.toString());
                 }
             }
-            jedis.hset(key, hash);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException("Failed to save entity due to reflection error.", e);
         }
+        return hash;
     }
 
     @Override
@@ -109,30 +169,78 @@ public abstract class RedisDatabaseService implements DatabaseService {
         String key = tableName + ":" + id;
 
         try (Jedis jedis = getResource()) {
+            DatabaseTrace.command("HGETALL " + key);
             if (!jedis.exists(key)) {
                 return Optional.empty();
             }
 
-            T entity = entityType.getDeclaredConstructor().newInstance();
-            Map<String, String> hash = jedis.hgetAll(key);
+            return Optional.of(mapHashToEntity(entityType, jedis.hgetAll(key)));
+        } catch (Exception e) {
+            LOGGER.log(java.util.logging.Level.SEVERE, "Failed to find or load entity by ID: " + key, e);
+            DatabaseTrace.error(e);
+            return Optional.empty();
+        }
+    }
 
-            for (Field field : entityType.getDeclaredFields()) {
-                DbField dbField = field.getAnnotation(DbField.class);
-                if (dbField != null) {
-                    field.setAccessible(true);
-                    String fieldName = dbField.columnName().isEmpty() ? field.getName() : dbField.columnName();
-                    String value = hash.get(fieldName);
-                    if (value != null) {
-                        Object convertedValue = convertStringToObject(value, field.getType());
-                        field.set(entity, convertedValue);
-                    }
+    /**
+     * Finds the entity with the given ID in each of several entity types, fetching every hash in one pipelined round trip.
+     */
+    @Override
+    public Map<Class<?>, Object> findAllById(Collection<Class<?>> entityTypes, String id) {
+        if (entityTypes.isEmpty()) return Collections.emptyMap();
+        if (jedisPool == null) {
+            throw new DatabaseException("Failed to find entities by ID: " + id + ", Redis is not connected.");
+        }
+
+        Map<Class<?>, Response<Map<String, String>>> responses = new LinkedHashMap<>();
+        try (Jedis jedis = getResource()) {
+            DatabaseTrace.command("PIPELINE " + entityTypes.size() + "x HGETALL *:" + id);
+            Pipeline pipeline = jedis.pipelined();
+            for (Class<?> entityType : entityTypes) {
+                DbEntity dbEntity = entityType.getAnnotation(DbEntity.class);
+                if (dbEntity == null) {
+                    throw new IllegalArgumentException("Class " + entityType.getName() + " is not annotated with @DbEntity.");
                 }
+                String tableName = dbEntity.tableName().isEmpty() ? entityType.getSimpleName() : dbEntity.tableName();
+                responses.put(entityType, pipeline.hgetAll(tableName + ":" + id));
             }
-            return Optional.of(entity);
+            pipeline.sync();
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
-            LOGGER.log(java.util.logging.Level.SEVERE, "Failed to find or load entity by ID: " + key, e);
-            return Optional.empty();
+            throw new DatabaseException("Failed to find entities by ID: " + id, e);
+        }
+
+        Map<Class<?>, Object> found = new HashMap<>();
+        for (Map.Entry<Class<?>, Response<Map<String, String>>> entry : responses.entrySet()) {
+            Map<String, String> hash = entry.getValue().get();
+            if (hash == null || hash.isEmpty()) {
+                continue; // HGETALL returns an empty hash for missing keys
+            }
+            try {
+                found.put(entry.getKey(), mapHashToEntity(entry.getKey(), hash));
+            } catch (Exception e) {
+                throw new DatabaseException("Failed to load entity " + entry.getKey().getName() + " by ID: " + id, e);
+            }
+        }
+        return found;
+    }
+
+    private <T> T mapHashToEntity(Class<T> entityType, Map<String, String> hash) throws ReflectiveOperationException {
+        T entity = entityType.getDeclaredConstructor().newInstance();
+        for (Field field : entityType.getDeclaredFields()) {
+            DbField dbField = field.getAnnotation(DbField.class);
+            if (dbField != null) {
+                field.setAccessible(true);
+                String fieldName = dbField.columnName().isEmpty() ? field.getName() : dbField.columnName();
+                String value = hash.get(fieldName);
+                if (value != null) {
+                    Object convertedValue = convertStringToObject(value, field.getType());
+                    field.set(entity, convertedValue);
+                }
+            }
         }
+        return entity;
     }
 
     private Object convertStringToObject(String value, Class<?> type) {
@@ -169,6 +277,7 @@ public abstract class RedisDatabaseService implements DatabaseService {
 
         List<T> entities = new ArrayList<>();
         try (Jedis jedis = getResource()) {
+            DatabaseTrace.command("KEYS " + pattern);
             Set<String> keys = jedis.keys(pattern);
             if (keys == null || keys.isEmpty()) {
                 return Collections.emptyList();
@@ -180,6 +289,7 @@ public abstract class RedisDatabaseService implements DatabaseService {
             }
         } catch (Exception e) {
             LOGGER.log(java.util.logging.Level.SEVERE, "Failed to find all entities of type " + entityType.getName(), e);
+            DatabaseTrace.error(e);
         }
         return entities;
     }
@@ -220,6 +330,7 @@ public abstract class RedisDatabaseService implements DatabaseService {
             if (key == null) {
                 throw new IllegalStateException("Could not construct Redis key for entity " + entity.getClass().getName());
             }
+            DatabaseTrace.command("DEL " + key);
             jedis.del(key);
         } catch (IllegalAccessException e) {
             throw new RuntimeException("Failed to delete entity due to reflection error.", e);
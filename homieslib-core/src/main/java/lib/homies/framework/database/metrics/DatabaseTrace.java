@@ -0,0 +1,106 @@
+package lib.homies.framework.database.metrics;
+
+/**
+ * Collects details about the database operation running on the current thread.
+ * The {@link InstrumentedDatabaseService} opens a trace around every call,
+ * and backends report the commands they issue, their cache hits and the errors they handle themselves
+ * through the static methods of this class.
+ * Reporting is a no-op when no trace is open, so backends can report unconditionally.
+ */
+public final class DatabaseTrace {
+
+    private static final int MAX_COMMAND_LENGTH = 512;
+    private static final ThreadLocal<DatabaseTrace> CURRENT = new ThreadLocal<>();
+
+    private final StringBuilder commands = new StringBuilder();
+    private int cacheHits;
+    private int cacheMisses;
+    private Throwable error;
+
+    private DatabaseTrace() {}
+
+    /**
+     * Opens a trace on the current thread.
+     * @return The new trace, or {@code null} if a trace is already open (the outer trace keeps collecting).
+     */
+    static DatabaseTrace begin() {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+        DatabaseTrace trace = new DatabaseTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * Closes the trace opened on the current thread.
+     */
+    void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Reports a SQL statement or Redis command issued by the current operation.
+     * @param command The command, without bound parameter values.
+     */
+    public static void command(String command) {
+        DatabaseTrace trace = CURRENT.get();
+        if (trace == null || trace.commands.length() >= MAX_COMMAND_LENGTH) {
+            return;
+        }
+        if (trace.commands.length() > 0) {
+            trace.commands.append("; ");
+        }
+        trace.commands.append(command, 0, Math.min(command.length(), MAX_COMMAND_LENGTH - trace.commands.length()));
+    }
+
+    /**
+     * Reports lookups served by the cache.
+     * @param count The number of entities found in the cache.
+     */
+    public static void cacheHit(int count) {
+        DatabaseTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.cacheHits += count;
+        }
+    }
+
+    /**
+     * Reports lookups that missed the cache and fell through to the backing store.
+     * @param count The number of entities not found in the cache.
+     */
+    public static void cacheMiss(int count) {
+        DatabaseTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.cacheMisses += count;
+        }
+    }
+
+    /**
+     * Reports an error that the backend caught instead of throwing, e.g. a failed statement it logged and turned into
+     * an empty result. The operation is recorded as failed, even if the backend recovered by falling back to another store.
+     * @param error The caught error.
+     */
+    public static void error(Throwable error) {
+        DatabaseTrace trace = CURRENT.get();
+        if (trace != null && trace.error == null) {
+            trace.error = error;
+        }
+    }
+
+    String getCommands() {
+        return commands.toString();
+    }
+
+    int getCacheHits() {
+        return cacheHits;
+    }
+
+    int getCacheMisses() {
+        return cacheMisses;
+    }
+
+    boolean hasError() {
+        return error != null;
+    }
+}
@@ -0,0 +1,119 @@
+package lib.homies.framework.database.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Default, platform-independent implementation of {@link DatabaseMetrics}.
+ * Statistics are recorded lock-free by the {@link InstrumentedDatabaseService}; slow operations are kept
+ * in a bounded log and reported to the framework logger as they happen.
+ */
+public class DefaultDatabaseMetrics implements DatabaseMetrics {
+
+    private static final Logger LOGGER = Logger.getLogger(DefaultDatabaseMetrics.class.getName());
+
+    private final long slowThresholdNanos;
+    private final int slowLogSize;
+    // Map: "EntityType#operation" -> Statistics of that operation
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final Deque<SlowOperation> slowOperations = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger slowOperationCount = new AtomicInteger();
+
+    /**
+     * Constructs a new DefaultDatabaseMetrics.
+     * @param slowThresholdMillis Operations taking longer than this are logged as slow. Set to 0 or less to disable the slow log.
+     * @param slowLogSize The number of most recent slow operations to keep.
+     */
+    public DefaultDatabaseMetrics(long slowThresholdMillis, int slowLogSize) {
+        this.slowThresholdNanos = slowThresholdMillis > 0 ? slowThresholdMillis * 1_000_000L : Long.MAX_VALUE;
+        this.slowLogSize = Math.max(1, slowLogSize);
+    }
+
+    void record(String typeName, String operation, long nanos, boolean failed, int rows, DatabaseTrace trace) {
+        Stats entry = stats.computeIfAbsent(typeName + "#" + operation, k -> new Stats(typeName, operation));
+        entry.latency.record(nanos);
+        if (failed) {
+            entry.errors.increment();
+        }
+        entry.rows.add(rows);
+        if (trace != null) {
+            entry.cacheHits.add(trace.getCacheHits());
+            entry.cacheMisses.add(trace.getCacheMisses());
+        }
+
+        if (nanos >= slowThresholdNanos) {
+            String command = trace != null ? trace.getCommands() : "";
+            SlowOperation slow = new SlowOperation(System.currentTimeMillis(), typeName, operation, command, nanos, failed);
+            slowOperations.addFirst(slow);
+            if (slowOperationCount.incrementAndGet() > slowLogSize && slowOperations.pollLast() != null) {
+                slowOperationCount.decrementAndGet();
+            }
+            LOGGER.log(Level.WARNING, String.format("Slow database operation: %s.%s took %.1fms%s",
+                    typeName, operation, slow.getDurationMillis(), command.isEmpty() ? "" : " [" + command + "]"));
+        }
+    }
+
+    @Override
+    public List<OperationStats> getOperationStats() {
+        List<OperationStats> snapshot = new ArrayList<>();
+        for (Stats entry : stats.values()) {
+            snapshot.add(entry.snapshot());
+        }
+        snapshot.sort(Comparator.comparingLong(OperationStats::getTotalNanos).reversed());
+        return snapshot;
+    }
+
+    @Override
+    public Optional<OperationStats> getOperationStats(Class<?> entityType, String operation) {
+        Stats entry = stats.get(entityType.getSimpleName() + "#" + operation);
+        return entry == null ? Optional.empty() : Optional.of(entry.snapshot());
+    }
+
+    @Override
+    public List<SlowOperation> getSlowOperations() {
+        return new ArrayList<>(slowOperations);
+    }
+
+    @Override
+    public long getSlowThresholdMillis() {
+        return slowThresholdNanos == Long.MAX_VALUE ? 0 : slowThresholdNanos / 1_000_000L;
+    }
+
+    @Override
+    public void reset() {
+        stats.clear();
+        slowOperations.clear();
+        slowOperationCount.set(0);
+    }
+
+    private static final class Stats {
+        private final String entityType;
+        private final String operation;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder cacheMisses = new LongAdder();
+
+        private Stats(String entityType, String operation) {
+            this.entityType = entityType;
+            this.operation = operation;
+        }
+
+        private OperationStats snapshot() {
+            long[] buckets = latency.getBucketCounts();
+            long max = latency.getMaxNanos();
+            return new OperationStats(entityType, operation, latency.getCount(), errors.sum(), rows.sum(),
+                    cacheHits.sum(), cacheMisses.sum(), latency.getTotalNanos(), max,
+                    LatencyHistogram.percentile(buckets, max, 0.50),
+                    LatencyHistogram.percentile(buckets, max, 0.95),
+                    LatencyHistogram.percentile(buckets, max, 0.99),
+                    LatencyHistogram.BOUNDS_MILLIS.clone(), buckets);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package lib.homies.framework.database.metrics;
+
+import lib.homies.framework.database.DatabaseService;
+import lib.homies.framework.database.IRepository;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * A {@link DatabaseService} decorator that times every call to the wrapped backend and records it in a
+ * {@link DefaultDatabaseMetrics}: latency, failures, rows returned and, for caching backends, cache hits.
+ * Exceptions thrown by the backend are recorded and rethrown unchanged. Errors the backend handles itself count as
+ * failures too, as long as it reports them through {@link DatabaseTrace#error(Throwable)}.
+ */
+public class InstrumentedDatabaseService implements DatabaseService {
+
+    /**
+     * The name batched lookups are recorded under, as they span several entity types.
+     */
+    public static final String BATCH = "batch";
+
+    private final DatabaseService delegate;
+    private final DefaultDatabaseMetrics metrics;
+
+    /**
+     * Constructs a new InstrumentedDatabaseService.
+     * @param delegate The backend to instrument.
+     * @param metrics The metrics to record into.
+     */
+    public InstrumentedDatabaseService(DatabaseService delegate, DefaultDatabaseMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Retrieves the wrapped backend.
+     * @return The instrumented {@link DatabaseService}.
+     */
+    public DatabaseService getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public <T extends IRepository<?>> Optional<T> getRepository(Class<T> repoClass) {
+        return delegate.getRepository(repoClass);
+    }
+
+    @Override
+    public <T> void saveEntity(T entity) {
+        record(entity.getClass().getSimpleName(), "saveEntity", () -> {
+            delegate.saveEntity(entity);
+            return null;
+        }, r -> 0);
+    }
+
+    @Override
+    public <T> Optional<T> findById(Class<T> entityType, String id) {
+        return record(entityType.getSimpleName(), "findById", () -> delegate.findById(entityType, id), r -> r.isPresent() ? 1 : 0);
+    }
+
+    @Override
+    public <T> List<T> findAll(Class<T> entityType) {
+        return record(entityType.getSimpleName(), "findAll", () -> delegate.findAll(entityType), List::size);
+    }
+
+    @Override
+    public Map<Class<?>, Object> findAllById(Collection<Class<?>> entityTypes, String id) {
+        return record(BATCH, "findAllById", () -> delegate.findAllById(entityTypes, id), Map::size);
+    }
+
+    @Override
+    public <T> List<T> findByField(Class<T> entityType, String fieldName, Object value) {
+        return record(entityType.getSimpleName(), "findByField", () -> delegate.findByField(entityType, fieldName, value), List::size);
+    }
+
+    @Override
+    public <T> void deleteEntity(T entity) {
+        record(entity.getClass().getSimpleName(), "deleteEntity", () -> {
+            delegate.deleteEntity(entity);
+            return null;
+        }, r -> 0);
+    }
+
+    @Override
+    public <T> void deleteByField(Class<T> entityType, String fieldName, Object value) {
+        record(entityType.getSimpleName(), "deleteByField", () -> {
+            delegate.deleteByField(entityType, fieldName, value);
+            return null;
+        }, r -> 0);
+    }
+
+    private <R> R record(String typeName, String operation, Supplier<R> call, ToIntFunction<R> rows) {
+        DatabaseTrace trace = DatabaseTrace.begin();
+        if (trace == null) {
+            return call.get(); // Nested call from within a traced operation; the outer call records it.
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        R result = null;
+        try {
+            result = call.get();
+            failed = trace.hasError();
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            trace.end();
+            metrics.record(typeName, operation, nanos, failed, failed || result == null ? 0 : rows.applyAsInt(result), trace);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package lib.homies.framework.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects events per key and delivers them once per tick, so a handler runs once per key and tick however often the event fires.
+ * In latest mode only the last event of each key is delivered; in batch mode all events of the key are delivered together, in order.
+ * <p>
+ * Delivery happens when the scheduled flush runs, which on the platform is at the start of the next tick, not within the tick
+ * that fired the events. The delivered events are snapshots of calls that have already returned: cancelling or changing
+ * them has no effect on the original {@code callEvent}.
+ * <p>
+ * Collecting costs one key extraction and one map update per event. The first event after a flush schedules the next flush,
+ * so an idle coalescer schedules nothing. Events may be collected from any thread; they are delivered on the thread that runs the flush.
+ */
+public class EventCoalescer implements Consumer<Object> {
+
+    private static final Logger LOGGER = Logger.getLogger(EventCoalescer.class.getName());
+
+    private final EventKey<Object, ?> key;
+    private final boolean batch;
+    private final Consumer<Object> handler;
+    private final Consumer<Runnable> flushScheduler;
+    // Map: Key -> Latest event, or list of events in batch mode
+    private final Map<Object, Object> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new EventCoalescer.
+     * @param key Extracts the key to coalesce by from the events. Events without a key are dropped.
+     * @param batch {@code true} to deliver a {@link List} of all events of a key, {@code false} to deliver only the latest event.
+     * @param handler Receives the latest event, or the list of events, of each key.
+     * @param flushScheduler Schedules a task to run once the current tick's events have fired, e.g. at the start of the next tick.
+     */
+    @SuppressWarnings("unchecked")
+    public EventCoalescer(EventKey<?, ?> key, boolean batch, Consumer<?> handler, Consumer<Runnable> flushScheduler) {
+        this.key = (EventKey<Object, ?>) key;
+        this.batch = batch;
+        this.handler = (Consumer<Object>) handler;
+        this.flushScheduler = flushScheduler;
+    }
+
+    /**
+     * Collects an event for delivery by the next flush.
+     * @param event The event.
+     */
+    @Override
+    public void accept(Object event) {
+        Object value = key.extract(event);
+        if (value == null || closed) {
+            return;
+        }
+        if (batch) {
+            pending.compute(value, (k, events) -> {
+                @SuppressWarnings("unchecked")
+                List<Object> list = events != null ? (List<Object>) events : new ArrayList<>(4);
+                list.add(event);
+                return list;
+            });
+        } else {
+            pending.put(value, event);
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            flushScheduler.accept(this::flush);
+        }
+    }
+
+    /**
+     * Delivers the collected events of every key. Events collected while delivering are delivered by the next flush.
+     */
+    public void flush() {
+        flushScheduled.set(false);
+        for (Object value : pending.keySet()) {
+            Object delivery = pending.remove(value);
+            if (delivery == null || closed) {
+                continue;
+            }
+            try {
+                handler.accept(delivery);
+            } catch (Throwable t) {
+                LOGGER.log(Level.SEVERE, "Error passing coalesced events of " + key.getName() + " " + value + " to consumer " + EventTimings.nameOf(handler), t);
+            }
+        }
+    }
+
+    /**
+     * Stops collecting and discards the events that were not delivered yet.
+     */
+    public void close() {
+        closed = true;
+        pending.clear();
+    }
+
+    /**
+     * Retrieves the handler the events are delivered to.
+     * @return The handler.
+     */
+    public Consumer<Object> getHandler() {
+        return handler;
+    }
+
+    /**
+     * Retrieves the number of keys with events waiting for the next flush.
+     * @return The pending key count.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+}
@@ -0,0 +1,248 @@
+package lib.homies.framework.events;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Stores event handlers by the event class they subscribed to and resolves them into flattened dispatch tables.
+ * The table of a concrete event class holds the handlers subscribed to the class itself, to each of its superclasses
+ * and to each interface it implements, ordered by {@link EventPriority} and, within a priority, most specific class first.
+ * Dispatching an event is then a single array iteration, with no hierarchy walk, map lookup or allocation per event.
+ * Tables are built the first time a class is dispatched and discarded whenever the handlers change.
+ * <p>
+ * The registry is copy-on-write: adding a handler publishes a new immutable snapshot of all handlers together with an empty
+ * table cache, while dispatch only reads the current snapshot. Dispatch is therefore lock-free and safe from any thread,
+ * and handlers added while an event is being dispatched take effect from the next dispatch, without
+ * {@link java.util.ConcurrentModificationException}s. Adding handlers is serialized and costs a copy of the handler map,
+ * which suits buses that subscribe rarely and dispatch often.
+ * <p>
+ * Removing a handler is O(1): it is deactivated at once, so dispatch skips it, and left in the snapshot.
+ * Deactivated handlers are purged in one copy once they make up half of all handlers, which keeps the cost of
+ * removal constant on average and the number of dead handlers proportional to the live ones.
+ * <p>
+ * Keyed handlers, added with {@link #addKeyed}, are stored in a {@link KeyedHandlers} index behind a single routing entry
+ * per event class, key and priority. Adding or removing them only updates the index, not the snapshot.
+ */
+public class EventHandlerRegistry {
+
+    static final HandlerRegistration[] NO_HANDLERS = new HandlerRegistration[0];
+    private static final int MIN_PURGE_SIZE = 16;
+    private static final Comparator<HandlerRegistration> BY_PRIORITY = Comparator.comparing(HandlerRegistration::getPriority);
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap());
+    // Guarded by this
+    private int handlerCount;
+    private int inactiveCount;
+    private int keyedCount;
+    // Map: [event class, key, priority] -> Routing entry of the keyed handlers
+    private final Map<List<Object>, HandlerRegistration> keyedRoutes = new HashMap<>();
+
+    /**
+     * Adds a handler for an event class and all of its subclasses, with {@link EventPriority#NORMAL} priority.
+     * @param eventClass The class, superclass or interface of the events to handle.
+     * @param handler The handler.
+     * @return The registration, which unsubscribes the handler.
+     */
+    public HandlerRegistration add(Class<?> eventClass, Consumer<?> handler) {
+        return add(eventClass, handler, EventPriority.NORMAL, false);
+    }
+
+    /**
+     * Adds a handler for an event class and all of its subclasses.
+     * @param eventClass The class, superclass or interface of the events to handle.
+     * @param handler The handler.
+     * @param priority When the handler runs relative to the other handlers of an event.
+     * @param ignoreCancelled Whether the handler is skipped for cancelled events.
+     * @return The registration, which unsubscribes the handler.
+     */
+    public HandlerRegistration add(Class<?> eventClass, Consumer<?> handler, EventPriority priority, boolean ignoreCancelled) {
+        return add(eventClass, handler, priority, ignoreCancelled, null);
+    }
+
+    /**
+     * Adds a handler for an event class and all of its subclasses on behalf of a plugin.
+     * @param eventClass The class, superclass or interface of the events to handle.
+     * @param handler The handler.
+     * @param priority When the handler runs relative to the other handlers of an event.
+     * @param ignoreCancelled Whether the handler is skipped for cancelled events.
+     * @param owner The name of the plugin that subscribed the handler, reported in {@link EventTimings}, or {@code null}.
+     * @return The registration, which unsubscribes the handler.
+     */
+    public synchronized HandlerRegistration add(Class<?> eventClass, Consumer<?> handler, EventPriority priority, boolean ignoreCancelled, String owner) {
+        HandlerRegistration registration = new HandlerRegistration(this, eventClass, handler, priority, ignoreCancelled, owner, null, null, null);
+        publish(registration);
+        return registration;
+    }
+
+    /**
+     * Adds a handler for the events of one key.
+     * @param eventClass The class, superclass or interface of the events to handle.
+     * @param key Extracts the key from the events. It must accept instances of {@code eventClass}.
+     * @param value The key value to handle the events of.
+     * @param handler The handler.
+     * @param priority When the handler runs relative to the other handlers of an event.
+     * @param ignoreCancelled Whether the handler is skipped for cancelled events.
+     * @param owner The name of the plugin that subscribed the handler, reported in {@link EventTimings}, or {@code null}.
+     * @return The registration, which unsubscribes the handler.
+     */
+    public synchronized HandlerRegistration addKeyed(Class<?> eventClass, EventKey<?, ?> key, Object value, Consumer<?> handler,
+                                                     EventPriority priority, boolean ignoreCancelled, String owner) {
+        HandlerRegistration route = keyedRoutes.get(Arrays.asList(eventClass, key, priority));
+        if (route == null) {
+            route = new HandlerRegistration(this, eventClass, null, priority, false, null, new KeyedHandlers(key), null, null);
+            keyedRoutes.put(Arrays.asList(eventClass, key, priority), route);
+            publish(route);
+        }
+        HandlerRegistration registration = new HandlerRegistration(this, eventClass, handler, priority, ignoreCancelled, owner, null, route.getKeyedHandlers(), value);
+        route.getKeyedHandlers().add(value, registration);
+        keyedCount++;
+        return registration;
+    }
+
+    private void publish(HandlerRegistration registration) {
+        Map<Class<?>, List<HandlerRegistration>> handlers = new HashMap<>(snapshot.handlers);
+        List<HandlerRegistration> classHandlers = new ArrayList<>(handlers.getOrDefault(registration.getEventClass(), Collections.emptyList()));
+        classHandlers.add(registration);
+        handlers.put(registration.getEventClass(), Collections.unmodifiableList(classHandlers));
+        snapshot = new Snapshot(handlers);
+        handlerCount++;
+    }
+
+    /**
+     * Removes a handler. Dispatch skips it from now on; it is purged from the tables later.
+     * @param registration The registration of the handler.
+     */
+    synchronized void remove(HandlerRegistration registration) {
+        if (!registration.isActive()) {
+            return;
+        }
+        registration.deactivate();
+        if (registration.getIndex() != null) {
+            // A keyed handler: its own key's array is the only place it is stored.
+            registration.getIndex().remove(registration.getKey(), registration);
+            keyedCount--;
+            return;
+        }
+        inactiveCount++;
+        if (inactiveCount >= MIN_PURGE_SIZE && inactiveCount * 2 >= handlerCount) {
+            purgeInactive();
+        }
+    }
+
+    private void purgeInactive() {
+        Map<Class<?>, List<HandlerRegistration>> handlers = new HashMap<>();
+        for (Map.Entry<Class<?>, List<HandlerRegistration>> entry : snapshot.handlers.entrySet()) {
+            List<HandlerRegistration> live = new ArrayList<>();
+            for (HandlerRegistration registration : entry.getValue()) {
+                if (registration.isActive()) {
+                    live.add(registration);
+                }
+            }
+            if (!live.isEmpty()) {
+                handlers.put(entry.getKey(), Collections.unmodifiableList(live));
+            }
+        }
+        snapshot = new Snapshot(handlers);
+        handlerCount -= inactiveCount;
+        inactiveCount = 0;
+    }
+
+    /**
+     * Retrieves the dispatch table of a concrete event class. The returned array must not be modified.
+     * It may contain unsubscribed handlers, which {@link HandlerRegistration#accepts(boolean)} rejects.
+     * @param eventClass The runtime class of the event being dispatched.
+     * @return The handlers to call, in order. Empty if there are none.
+     */
+    public HandlerRegistration[] getHandlers(Class<?> eventClass) {
+        Snapshot current = snapshot;
+        HandlerRegistration[] table = current.dispatchTables.get(eventClass);
+        if (table == null) {
+            // Built from the same snapshot it is cached in, so a concurrent change can never leave a stale table behind.
+            table = current.buildTable(eventClass);
+            current.dispatchTables.put(eventClass, table);
+        }
+        return table;
+    }
+
+    /**
+     * Retrieves all subscribed handlers, in no particular order.
+     * @return A snapshot of the active registrations.
+     */
+    public List<HandlerRegistration> getRegistrations() {
+        List<HandlerRegistration> registrations = new ArrayList<>();
+        for (List<HandlerRegistration> classHandlers : snapshot.handlers.values()) {
+            for (HandlerRegistration registration : classHandlers) {
+                if (registration.getKeyedHandlers() != null) {
+                    registrations.addAll(registration.getKeyedHandlers().getRegistrations());
+                } else if (registration.isActive()) {
+                    registrations.add(registration);
+                }
+            }
+        }
+        return registrations;
+    }
+
+    /**
+     * Retrieves the number of subscribed handlers.
+     * @return The active handler count.
+     */
+    public synchronized int size() {
+        return handlerCount - inactiveCount - keyedRoutes.size() + keyedCount;
+    }
+
+    /**
+     * Lists a class, its superclasses and then all interfaces it implements, each type once.
+     * @param type The class.
+     * @return The types in dispatch order.
+     */
+    static Set<Class<?>> hierarchyOf(Class<?> type) {
+        Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            hierarchy.add(current);
+        }
+        Deque<Class<?>> pending = new ArrayDeque<>(hierarchy);
+        while (!pending.isEmpty()) {
+            for (Class<?> implemented : pending.poll().getInterfaces()) {
+                if (hierarchy.add(implemented)) {
+                    pending.add(implemented);
+                }
+            }
+        }
+        return hierarchy;
+    }
+
+    /**
+     * An immutable view of all handlers, with the dispatch tables built from it so far.
+     */
+    private static final class Snapshot {
+        private final Map<Class<?>, List<HandlerRegistration>> handlers;
+        private final Map<Class<?>, HandlerRegistration[]> dispatchTables = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<Class<?>, List<HandlerRegistration>> handlers) {
+            this.handlers = handlers;
+        }
+
+        private HandlerRegistration[] buildTable(Class<?> eventClass) {
+            List<HandlerRegistration> table = new ArrayList<>();
+            for (Class<?> type : hierarchyOf(eventClass)) {
+                List<HandlerRegistration> typeHandlers = handlers.get(type);
+                if (typeHandlers != null) {
+                    table.addAll(typeHandlers);
+                }
+            }
+            table.sort(BY_PRIORITY); // Stable, so handlers of one priority keep the hierarchy order
+            return table.isEmpty() ? NO_HANDLERS : table.toArray(NO_HANDLERS);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package lib.homies.framework.events;
+
+import lombok.Value;
+
+/**
+ * An immutable snapshot of the timings recorded for one event handler.
+ */
+@Value
+public class EventTimingStats {
+
+    /**
+     * The name of the plugin that subscribed the handler, or {@code null} if it could not be determined.
+     */
+    String owner;
+
+    /**
+     * The handler name: the class of the handler, or the class that declared it if it is a lambda.
+     */
+    String handler;
+
+    /**
+     * The event class the handler subscribed to.
+     */
+    Class<?> eventClass;
+
+    /**
+     * Whether the handler subscribed to a platform event rather than a {@link LibEvent}.
+     */
+    boolean platform;
+
+    /**
+     * The number of calls.
+     */
+    long count;
+
+    /**
+     * The total time spent in the handler, in nanoseconds.
+     */
+    long totalNanos;
+
+    /**
+     * The slowest call, in nanoseconds.
+     */
+    long maxNanos;
+
+    /**
+     * The number of calls that threw an exception.
+     */
+    long exceptions;
+
+    /**
+     * Calculates the mean call time.
+     * @return The mean call time in milliseconds, or 0 if the handler was never called.
+     */
+    public double getMeanMillis() {
+        return count == 0 ? 0 : totalNanos / (double) count / 1_000_000.0;
+    }
+
+    /**
+     * Calculates the share of calls that threw an exception.
+     * @return The error rate between 0 and 1.
+     */
+    public double getErrorRate() {
+        return count == 0 ? 0 : exceptions / (double) count;
+    }
+}
@@ -0,0 +1,105 @@
+package lib.homies.framework.events;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how long event handlers take and how often they throw, per subscription.
+ * The counters live on each {@link HandlerRegistration}, so a timed call costs two {@link System#nanoTime()} calls and a few
+ * {@link java.util.concurrent.atomic.LongAdder} increments, with no lookup. An event bus checks {@link #isEnabled()} once per
+ * dispatched event and calls its handlers through {@link HandlerRegistration#dispatch(Object, boolean)}.
+ */
+public class EventTimings {
+
+    // Registry -> Whether it holds platform event handlers
+    private final Map<EventHandlerRegistry, Boolean> registries = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+    private volatile long since = System.currentTimeMillis();
+
+    /**
+     * Constructs a new EventTimings.
+     * @param enabled Whether handlers are timed.
+     */
+    public EventTimings(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Includes the handlers of a registry in {@link #getStats()} and {@link #reset()}.
+     * @param registry The registry.
+     * @param platform Whether the registry holds platform event handlers.
+     */
+    public void track(EventHandlerRegistry registry, boolean platform) {
+        registries.put(registry, platform);
+    }
+
+    /**
+     * Checks whether handlers are timed.
+     * @return {@code true} if timings are enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables timing of handlers. Takes effect from the next dispatched event.
+     * @param enabled Whether handlers are timed.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Retrieves the timings of the subscribed handlers that were called, most expensive first.
+     * @return A snapshot of the timings, sorted by total time.
+     */
+    public List<EventTimingStats> getStats() {
+        List<EventTimingStats> snapshot = new ArrayList<>();
+        registries.forEach((registry, platform) -> {
+            for (HandlerRegistration registration : registry.getRegistrations()) {
+                EventTimingStats stats = registration.getTimings(platform);
+                if (stats.getCount() > 0) {
+                    snapshot.add(stats);
+                }
+            }
+        });
+        snapshot.sort(Comparator.comparingLong(EventTimingStats::getTotalNanos).reversed());
+        return snapshot;
+    }
+
+    /**
+     * Retrieves when recording started or was last reset.
+     * @return The epoch millisecond timestamp.
+     */
+    public long getSince() {
+        return since;
+    }
+
+    /**
+     * Clears the recorded timings of all subscribed handlers.
+     */
+    public void reset() {
+        for (EventHandlerRegistry registry : registries.keySet()) {
+            registry.getRegistrations().forEach(HandlerRegistration::resetTimings);
+        }
+        since = System.currentTimeMillis();
+    }
+
+    /**
+     * Derives a readable handler name from its class. Lambdas are reported as the class that declared them,
+     * and coalesced handlers as the handler the events are delivered to.
+     * @param handler The handler.
+     * @return The handler name.
+     */
+    public static String nameOf(Object handler) {
+        if (handler instanceof EventCoalescer) {
+            return nameOf(((EventCoalescer) handler).getHandler()) + " (coalesced)";
+        }
+        String className = handler.getClass().getName();
+        int lambda = className.indexOf("$$Lambda");
+        return lambda > 0 ? className.substring(0, lambda) : className;
+    }
+}
@@ -0,0 +1,179 @@
+package lib.homies.framework.events;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A handler stored in an {@link EventHandlerRegistry}, together with its dispatch options.
+ * It is also the {@link Subscription} handed back to the subscriber, and holds the handler's {@link EventTimings} counters.
+ * <p>
+ * Keyed handlers are not placed in the dispatch tables themselves. Instead, the tables hold one routing entry per
+ * event class, {@link EventKey} and priority, whose {@link #getKeyedHandlers()} resolves the handlers of an event's key.
+ */
+public final class HandlerRegistration implements Subscription {
+
+    private final EventHandlerRegistry registry;
+    private final Class<?> eventClass;
+    private final Consumer<Object> handler;
+    private final EventPriority priority;
+    private final boolean ignoreCancelled;
+    private final String owner;
+    private final KeyedHandlers keyedHandlers;
+    // For keyed handlers: the index storing the handler, and its key value
+    private final KeyedHandlers index;
+    private final Object key;
+    private volatile boolean active = true;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder exceptions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    HandlerRegistration(EventHandlerRegistry registry, Class<?> eventClass, Consumer<?> handler, EventPriority priority, boolean ignoreCancelled,
+                        String owner, KeyedHandlers keyedHandlers, KeyedHandlers index, Object key) {
+        this.registry = registry;
+        this.eventClass = eventClass;
+        this.handler = (Consumer<Object>) handler;
+        this.priority = priority;
+        this.ignoreCancelled = ignoreCancelled;
+        this.owner = owner;
+        this.keyedHandlers = keyedHandlers;
+        this.index = index;
+        this.key = key;
+    }
+
+    /**
+     * Retrieves the event class the handler subscribed to.
+     * @return The event class.
+     */
+    public Class<?> getEventClass() {
+        return eventClass;
+    }
+
+    /**
+     * Retrieves the handler.
+     * @return The handler, or {@code null} for a routing entry.
+     */
+    public Consumer<Object> getHandler() {
+        return handler;
+    }
+
+    /**
+     * Retrieves the priority of the handler.
+     * @return The priority.
+     */
+    public EventPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Checks whether the handler is skipped for cancelled events.
+     * @return {@code true} if cancelled events are not passed to the handler.
+     */
+    public boolean isIgnoreCancelled() {
+        return ignoreCancelled;
+    }
+
+    /**
+     * Retrieves the name of the plugin that subscribed the handler.
+     * @return The plugin name, or {@code null} if it is not known.
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Retrieves a readable name of the handler for logs and timings.
+     * @return The handler name.
+     * @see EventTimings#nameOf(Object)
+     */
+    public String getName() {
+        return EventTimings.nameOf(handler);
+    }
+
+    /**
+     * Retrieves the keyed handlers this dispatch table entry routes to.
+     * Dispatch must call the handlers returned by {@link KeyedHandlers#getHandlers(Object)} instead of this entry.
+     * @return The keyed handlers, or {@code null} if this entry is a regular handler.
+     */
+    public KeyedHandlers getKeyedHandlers() {
+        return keyedHandlers;
+    }
+
+    /**
+     * Retrieves the key value a keyed handler subscribed to.
+     * @return The key value, or {@code null} if the handler is not keyed.
+     */
+    public Object getKey() {
+        return key;
+    }
+
+    /**
+     * Checks whether the handler should be called for an event in the given cancellation state.
+     * @param cancelled Whether the event is cancelled.
+     * @return {@code true} if the handler is subscribed and accepts the event.
+     */
+    public boolean accepts(boolean cancelled) {
+        return active && !(cancelled && ignoreCancelled);
+    }
+
+    /**
+     * Passes an event to the handler. Exceptions thrown by the handler are rethrown.
+     * @param event The event.
+     * @param timed Whether to record the call in the handler's timings.
+     */
+    public void dispatch(Object event, boolean timed) {
+        if (!timed) {
+            handler.accept(event);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            handler.accept(event);
+        } catch (Throwable t) {
+            exceptions.increment();
+            throw t;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the handler's timings.
+     * @param platform Whether the handler subscribed to a platform event.
+     * @return The timings.
+     */
+    public EventTimingStats getTimings(boolean platform) {
+        return new EventTimingStats(owner, getName(), eventClass, platform, count.sum(), totalNanos.sum(), maxNanos.get(), exceptions.sum());
+    }
+
+    void resetTimings() {
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        exceptions.reset();
+    }
+
+    KeyedHandlers getIndex() {
+        return index;
+    }
+
+    @Override
+    public void unsubscribe() {
+        registry.remove(this);
+    }
+
+    @Override
+    public boolean isActive() {
+        return active;
+    }
+
+    void deactivate() {
+        active = false;
+    }
+}
@@ -0,0 +1,73 @@
+package lib.homies.framework.events;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The handlers subscribed to one event class through one {@link EventKey} at one priority, indexed by key value.
+ * An {@link EventHandlerRegistry} places a single entry for them in the dispatch tables, see {@link HandlerRegistration#getKeyedHandlers()},
+ * and dispatch resolves it with {@link #getHandlers(Object)}: one key extraction and one hash lookup, however many keys are subscribed.
+ * <p>
+ * Each key value holds an immutable array that is replaced atomically when a handler of that key is added or removed,
+ * so subscribing or unsubscribing one player's handler never invalidates the dispatch tables or affects other keys.
+ */
+public final class KeyedHandlers {
+
+    private final EventKey<Object, ?> key;
+    private final Map<Object, HandlerRegistration[]> handlers = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    KeyedHandlers(EventKey<?, ?> key) {
+        this.key = (EventKey<Object, ?>) key;
+    }
+
+    /**
+     * Retrieves the key the handlers are indexed by.
+     * @return The event key.
+     */
+    public EventKey<?, ?> getKey() {
+        return key;
+    }
+
+    /**
+     * Retrieves the handlers subscribed to the key of an event. The returned array must not be modified.
+     * @param event The event being dispatched. It must be an instance of the key's event class.
+     * @return The handlers to call, in subscription order. Empty if there are none.
+     */
+    public HandlerRegistration[] getHandlers(Object event) {
+        Object value = key.extract(event);
+        if (value == null) {
+            return EventHandlerRegistry.NO_HANDLERS;
+        }
+        HandlerRegistration[] keyHandlers = handlers.get(value);
+        return keyHandlers != null ? keyHandlers : EventHandlerRegistry.NO_HANDLERS;
+    }
+
+    void add(Object value, HandlerRegistration registration) {
+        handlers.compute(value, (k, current) -> {
+            if (current == null) {
+                return new HandlerRegistration[]{registration};
+            }
+            HandlerRegistration[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = registration;
+            return updated;
+        });
+    }
+
+    void remove(Object value, HandlerRegistration registration) {
+        handlers.computeIfPresent(value, (k, current) -> {
+            List<HandlerRegistration> remaining = new ArrayList<>(Arrays.asList(current));
+            remaining.remove(registration);
+            return remaining.isEmpty() ? null : remaining.toArray(EventHandlerRegistry.NO_HANDLERS);
+        });
+    }
+
+    List<HandlerRegistration> getRegistrations() {
+        List<HandlerRegistration> registrations = new ArrayList<>();
+        handlers.values().forEach(keyHandlers -> registrations.addAll(Arrays.asList(keyHandlers)));
+        return registrations;
+    }
+}
@@ -0,0 +1,208 @@
+package lib.homies.framework.events;
+
+import lib.homies.framework.events.annotations.Subscribe;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link Subscribe}-annotated method of a listener class, compiled into a factory of {@link Consumer}s that call it directly.
+ * The factory is spun once per method with {@link LambdaMetafactory}, as {@code javac} does for a method reference,
+ * so the consumer bound to a listener object invokes the method without reflection or boxing of arguments.
+ * <p>
+ * The metafactory needs full access to the listener class, which HomiesLib's own lookup only has for classes in its own
+ * class loader. For listeners of other plugins the factory is spun once a lookup from the listener's plugin is passed to
+ * {@link #of(Class, MethodHandles.Lookup)}. Until then, their consumers fall back to a {@link MethodHandle} invocation,
+ * which is not a constant to the JIT and costs noticeably more per event; this is logged once per method.
+ * <p>
+ * The methods of a class are resolved once and cached for as long as the class is loaded.
+ */
+public final class SubscriberMethod {
+
+    private static final Logger LOGGER = Logger.getLogger(SubscriberMethod.class.getName());
+    private static final MethodType CONSUMER_ACCEPT = MethodType.methodType(void.class, Object.class);
+
+    private static final ClassValue<List<SubscriberMethod>> METHODS = new ClassValue<>() {
+        @Override
+        protected List<SubscriberMethod> computeValue(Class<?> listenerClass) {
+            return resolve(listenerClass);
+        }
+    };
+
+    private final Method method;
+    private final Subscribe annotation;
+    // (listener) -> Consumer, or null to use the fallback handle until a lookup with access is supplied
+    private volatile MethodHandle factory;
+    // (Object listener, Object event) -> void
+    private final MethodHandle fallback;
+    private volatile boolean fallbackReported;
+
+    private SubscriberMethod(Method method, Subscribe annotation, MethodHandle factory, MethodHandle fallback) {
+        this.method = method;
+        this.annotation = annotation;
+        this.factory = factory;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Retrieves the handler methods of a listener class.
+     * @param listenerClass The class of the listener object.
+     * @return The valid {@link Subscribe}-annotated public methods, including inherited ones. Invalid methods are logged and left out.
+     */
+    public static List<SubscriberMethod> of(Class<?> listenerClass) {
+        return METHODS.get(listenerClass);
+    }
+
+    /**
+     * Retrieves the handler methods of a listener class, using the given lookup to compile direct invokers for the methods
+     * HomiesLib cannot access itself.
+     * @param listenerClass The class of the listener object.
+     * @param lookup A lookup with full access to the listener class, created with {@link MethodHandles#lookup()} in its plugin.
+     * @return The valid {@link Subscribe}-annotated public methods, including inherited ones. Invalid methods are logged and left out.
+     */
+    public static List<SubscriberMethod> of(Class<?> listenerClass, MethodHandles.Lookup lookup) {
+        List<SubscriberMethod> methods = METHODS.get(listenerClass);
+        for (SubscriberMethod method : methods) {
+            if (method.factory == null) {
+                method.compileFactory(lookup);
+            }
+        }
+        return methods;
+    }
+
+    private static List<SubscriberMethod> resolve(Class<?> listenerClass) {
+        List<SubscriberMethod> methods = new ArrayList<>();
+        for (Method method : listenerClass.getMethods()) {
+            Subscribe annotation = method.getAnnotation(Subscribe.class);
+            if (annotation == null || method.isBridge()) {
+                continue;
+            }
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1) {
+                LOGGER.warning("Ignoring @Subscribe method " + describe(method) + ": it must not be static and must take exactly one parameter, the event.");
+                continue;
+            }
+            try {
+                methods.add(compile(method, annotation));
+            } catch (ReflectiveOperationException e) {
+                LOGGER.log(Level.WARNING, "Ignoring @Subscribe method " + describe(method) + ": it cannot be accessed.", e);
+            }
+        }
+        return Collections.unmodifiableList(methods);
+    }
+
+    private static SubscriberMethod compile(Method method, Subscribe annotation) throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+        MethodHandle implementation = lookup.unreflect(method);
+        MethodHandle fallback = implementation.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        // Spinning only succeeds here for classes in HomiesLib's own class loader
+        return new SubscriberMethod(method, annotation, spin(lookup, implementation, method), fallback);
+    }
+
+    private void compileFactory(MethodHandles.Lookup callerLookup) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), callerLookup);
+            MethodHandle spun = spin(lookup, lookup.unreflect(method), method);
+            if (spun == null) {
+                LOGGER.warning("The lookup passed for @Subscribe method " + describe(method) + " does not have full access to "
+                        + method.getDeclaringClass().getName() + ". Create it with MethodHandles.lookup() in the plugin that contains the class.");
+            }
+            factory = spun;
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "The lookup passed for @Subscribe method " + describe(method) + " cannot access its class.", e);
+        }
+    }
+
+    private static MethodHandle spin(MethodHandles.Lookup lookup, MethodHandle implementation, Method method) {
+        try {
+            return LambdaMetafactory.metafactory(
+                    lookup,
+                    "accept",
+                    MethodType.methodType(Consumer.class, method.getDeclaringClass()),
+                    CONSUMER_ACCEPT,
+                    implementation,
+                    MethodType.methodType(void.class, method.getParameterTypes()[0])
+            ).getTarget();
+        } catch (Throwable t) {
+            // Expected for classes of other class loaders: the lookup lacks module access to them
+            LOGGER.log(Level.FINE, "Could not spin a direct invoker for @Subscribe method " + describe(method), t);
+            return null;
+        }
+    }
+
+    /**
+     * Creates a handler that calls this method on a listener object.
+     * @param listener The listener object. It must be an instance of the class the method was resolved for.
+     * @return The handler.
+     */
+    @SuppressWarnings("unchecked")
+    public Consumer<Object> bind(Object listener) {
+        MethodHandle factory = this.factory;
+        if (factory != null) {
+            try {
+                return (Consumer<Object>) factory.invoke(listener);
+            } catch (Throwable t) {
+                LOGGER.log(Level.WARNING, "Falling back to a method handle for @Subscribe method " + describe(method), t);
+            }
+        } else if (!fallbackReported) {
+            fallbackReported = true;
+            LOGGER.info("@Subscribe method " + describe(method) + " is called through a method handle, which is slower than a direct call. "
+                    + "Register its listener with EventBus#register(Object, MethodHandles.lookup()) to call it directly.");
+        }
+        MethodHandle bound = fallback.bindTo(listener);
+        return event -> {
+            try {
+                bound.invokeExact(event);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t); // Checked exceptions declared by the handler method
+            }
+        };
+    }
+
+    /**
+     * Retrieves the event class the method handles, its parameter type.
+     * @return The event class.
+     */
+    public Class<?> getEventClass() {
+        return method.getParameterTypes()[0];
+    }
+
+    /**
+     * Retrieves the priority from the method's annotation.
+     * @return The priority.
+     */
+    public EventPriority getPriority() {
+        return annotation.priority();
+    }
+
+    /**
+     * Checks whether the method's annotation skips cancelled events.
+     * @return {@code true} if cancelled events are skipped.
+     */
+    public boolean isIgnoreCancelled() {
+        return annotation.ignoreCancelled();
+    }
+
+    /**
+     * Retrieves the method.
+     * @return The method.
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    private static String describe(Method method) {
+        return method.getDeclaringClass().getName() + "#" + method.getName();
+    }
+}
@@ -0,0 +1,146 @@
+package lib.homies.framework.index;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * The classes a plugin asks HomiesLib to set up, read from the index class that the annotation processor generates into the plugin.
+ * Finding an index is a single class lookup through the plugin's class loader, so plugins that do not use HomiesLib cost almost nothing.
+ * <p>
+ * {@link #loadClasses(List, Function)} loads the listed classes of many plugins at once on all cores. Classes are loaded
+ * but not initialized, so no plugin code runs off the main thread: static initializers run later, when the classes are first used.
+ */
+public final class PluginIndex {
+
+    /**
+     * The name of the generated index class.
+     */
+    public static final String CLASS_NAME = "lib.homies.framework.generated.HomiesLibIndex";
+
+    private static final Logger LOGGER = Logger.getLogger(PluginIndex.class.getName());
+
+    private final String pluginName;
+    private final ClassLoader classLoader;
+    private final List<String> listeners;
+    private final List<String> entities;
+    private final List<String> commands;
+
+    private PluginIndex(String pluginName, ClassLoader classLoader, List<String> listeners, List<String> entities, List<String> commands) {
+        this.pluginName = pluginName;
+        this.classLoader = classLoader;
+        this.listeners = listeners;
+        this.entities = entities;
+        this.commands = commands;
+    }
+
+    /**
+     * Finds the index of a plugin.
+     * @param pluginName The name of the plugin, used in logs.
+     * @param classLoader The class loader of the plugin.
+     * @return The index, or {@code null} if the plugin has none.
+     */
+    public static PluginIndex find(String pluginName, ClassLoader classLoader) {
+        Class<?> indexClass;
+        try {
+            indexClass = Class.forName(CLASS_NAME, true, classLoader);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        if (indexClass.getClassLoader() != classLoader) {
+            return null; // The index of another plugin, visible through the plugin's class loader
+        }
+        try {
+            return new PluginIndex(pluginName, classLoader, read(indexClass, "LISTENERS"), read(indexClass, "ENTITIES"), read(indexClass, "COMMANDS"));
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            LOGGER.log(Level.WARNING, "Could not read the HomiesLib index of plugin " + pluginName + ". It may have been built with an incompatible version.", e);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> read(Class<?> indexClass, String field) throws ReflectiveOperationException {
+        return (List<String>) indexClass.getField(field).get(null);
+    }
+
+    /**
+     * Loads the classes selected from several indexes in parallel, without initializing them.
+     * Classes that cannot be loaded are logged and left out.
+     * @param indexes The indexes.
+     * @param selector Selects the class names to load from an index, for example {@link #getEntities()}.
+     * @return The loaded classes of each index, in index order.
+     */
+    public static Map<PluginIndex, List<Class<?>>> loadClasses(List<PluginIndex> indexes, Function<PluginIndex, List<String>> selector) {
+        List<Map.Entry<PluginIndex, String>> names = new ArrayList<>();
+        for (PluginIndex index : indexes) {
+            selector.apply(index).forEach(name -> names.add(Map.entry(index, name)));
+        }
+        // Plugin class loaders are parallel capable, so classes of one plugin load concurrently as well.
+        List<Class<?>> loaded = names.parallelStream()
+                .map(entry -> entry.getKey().loadClass(entry.getValue()))
+                .collect(Collectors.toList());
+
+        Map<PluginIndex, List<Class<?>>> classes = new LinkedHashMap<>();
+        indexes.forEach(index -> classes.put(index, new ArrayList<>()));
+        for (int i = 0; i < names.size(); i++) {
+            if (loaded.get(i) != null) {
+                classes.get(names.get(i).getKey()).add(loaded.get(i));
+            }
+        }
+        return classes;
+    }
+
+    private Class<?> loadClass(String className) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            LOGGER.log(Level.WARNING, "Could not load class '" + className + "' from plugin '" + pluginName + "'. It might have been removed or renamed.");
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the name of the plugin.
+     * @return The plugin name.
+     */
+    public String getPluginName() {
+        return pluginName;
+    }
+
+    /**
+     * Retrieves the class loader of the plugin.
+     * @return The class loader.
+     */
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * Retrieves the names of the plugin's listener classes.
+     * @return The class names.
+     */
+    public List<String> getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Retrieves the names of the plugin's database entity classes.
+     * @return The class names.
+     */
+    public List<String> getEntities() {
+        return entities;
+    }
+
+    /**
+     * Retrieves the names of the plugin's command classes.
+     * @return The class names.
+     */
+    public List<String> getCommands() {
+        return commands;
+    }
+}
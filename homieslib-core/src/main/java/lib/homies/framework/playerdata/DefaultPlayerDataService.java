@@ -1,17 +1,47 @@
 package lib.homies.framework.playerdata;
 
 import lib.homies.framework.HomiesLib;
+import lib.homies.framework.database.DatabaseService;
+import lib.homies.framework.database.annotations.DbEntity;
+import lib.homies.framework.database.annotations.DbField;
+import lib.homies.framework.database.exceptions.DatabaseException;
 import lib.homies.framework.player.HomiesPlayer;
+import lib.homies.framework.scheduler.SchedulerService;
 
-import java.util.Optional;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Default, platform-independent implementation of the {@link PlayerDataService}.
  * This service resides in the core module and leverages the framework's {@link lib.homies.framework.database.DatabaseService}
  * to store and retrieve {@link PlayerData} entities.
+ * <p>
+ * Online players are served from an in-memory session map. The platform module is responsible for calling
+ * {@link #loadSession(UUID)} during login and {@link #unloadSession(UUID, long)} with the returned claim on quit.
  */
 public class DefaultPlayerDataService implements PlayerDataService {
 
+    private static final Logger LOGGER = Logger.getLogger(DefaultPlayerDataService.class.getName());
+
+    // Map: Player UUID -> Session of an online player
+    private final Map<UUID, PlayerSession> sessions = new ConcurrentHashMap<>();
+    // Map: Player UUID -> Session that was unloaded but whose final save is still in flight.
+    // A player rejoining before the save completes picks this session up instead of reading stale data.
+    private final Map<UUID, PlayerSession> unloading = new ConcurrentHashMap<>();
+    // Map: Player UUID -> Number of flushes of their data still being written, whatever session they came from.
+    // Guarded by itself; a login waits on it until the player's writes have landed before reading from the database.
+    private final Map<UUID, Integer> flushing = new HashMap<>();
+    // Every entity type loaded into a session; PlayerData first, followed by registered sections.
+    private final List<Class<?>> sessionTypes = new CopyOnWriteArrayList<>(List.of(PlayerData.class));
+    // Map: Section type -> Its ID field, used to stamp the player's UUID onto fresh instances
+    private final Map<Class<?>, Field> sectionIdFields = new ConcurrentHashMap<>();
+    private final AtomicLong nextClaim = new AtomicLong();
+
     /**
      * Retrieves the {@link PlayerData} for a given {@link HomiesPlayer}.
      * This method delegates to {@link #getPlayerData(String)} using the player's unique ID.
@@ -20,29 +50,364 @@ public class DefaultPlayerDataService implements PlayerDataService {
      */
     @Override
     public Optional<PlayerData> getPlayerData(HomiesPlayer player) {
+        PlayerSession session = sessions.get(player.getUniqueId());
+        if (session != null) {
+            return Optional.of(session.getData());
+        }
         return getPlayerData(player.getUniqueId().toString());
     }
 
     /**
-     * Saves the provided {@link PlayerData} object to the database.
-     * This method uses the framework's {@link lib.homies.framework.database.DatabaseService#saveEntity(Object)}
-     * to persist the data.
+     * Saves the provided {@link PlayerData} object.
+     * If the player has a loaded session, the session is updated and flushed later; otherwise
+     * this method uses the framework's {@link lib.homies.framework.database.DatabaseService#saveEntity(Object)}
+     * to persist the data immediately.
      * @param playerData The {@link PlayerData} object to save.
      */
     @Override
     public void savePlayerData(PlayerData playerData) {
-        HomiesLib.getDatabaseService().saveEntity(playerData);
+        UUID uuid = toUuid(playerData.getUuid());
+        PlayerSession session = uuid != null ? sessions.get(uuid) : null;
+        if (session != null) {
+            session.put(PlayerData.class, playerData);
+            session.markDirty(PlayerData.class);
+            return;
+        }
+        DatabaseService databaseService = HomiesLib.getDatabaseService();
+        if (databaseService != null) {
+            databaseService.saveEntity(playerData);
+        }
     }
 
     /**
      * Retrieves the {@link PlayerData} for a given player UUID.
-     * This method uses the framework's {@link lib.homies.framework.database.DatabaseService#findById(Class, String)}
-     * to fetch the data.
+     * Loaded sessions are served from memory; otherwise this method uses the framework's
+     * {@link lib.homies.framework.database.DatabaseService#findById(Class, String)} to fetch the data.
      * @param uuid The {@link String} representation of the UUID of the player whose data is to be retrieved.
      * @return An {@link Optional} containing the {@link PlayerData} if found, otherwise {@link Optional#empty()}.
      */
     @Override
     public Optional<PlayerData> getPlayerData(String uuid) {
-        return HomiesLib.getDatabaseService().findById(PlayerData.class, uuid);
+        UUID parsed = toUuid(uuid);
+        if (parsed != null) {
+            PlayerSession session = sessions.get(parsed);
+            if (session != null) {
+                return Optional.of(session.getData());
+            }
+        }
+        DatabaseService databaseService = HomiesLib.getDatabaseService();
+        if (databaseService == null) {
+            return Optional.empty();
+        }
+        return databaseService.findById(PlayerData.class, uuid);
+    }
+
+    /**
+     * Retrieves the {@link PlayerData} of an online player from their session, without touching the database.
+     * @param uuid The UUID of the player.
+     * @return An {@link Optional} containing the cached {@link PlayerData}, or {@link Optional#empty()} if no session is loaded.
+     */
+    @Override
+    public Optional<PlayerData> getCachedPlayerData(UUID uuid) {
+        PlayerSession session = sessions.get(uuid);
+        return session == null ? Optional.empty() : Optional.of(session.getData());
+    }
+
+    /**
+     * Loads and claims a player's session. A loaded session, or one still being saved after a recent quit, is reused;
+     * otherwise the player's data and every registered section are read in one batched lookup,
+     * and anything the player has no stored data for is created fresh.
+     * The lookup waits for any flush of the player's data that is still being written, such as an autosave
+     * that was running when they quit, so a quick rejoin never reads stale data.
+     * @param uuid The UUID of the player.
+     * @return The claim, to be released with {@link #unloadSession(UUID, long)}.
+     * @throws DatabaseException if the lookup fails; no session is loaded, so nothing is saved over the stored data.
+     */
+    @Override
+    public long loadSession(UUID uuid) {
+        long claim = nextClaim.incrementAndGet();
+        PlayerSession session = sessions.computeIfPresent(uuid, (key, loaded) -> {
+            loaded.claim(claim);
+            return loaded;
+        });
+        if (session != null) {
+            return claim;
+        }
+
+        session = unloading.get(uuid);
+        if (session == null) {
+            awaitFlushes(uuid);
+            session = new PlayerSession(uuid);
+            fill(session, sessionTypes);
+        }
+
+        PlayerSession created = session;
+        sessions.compute(uuid, (key, loaded) -> {
+            PlayerSession claimed = loaded != null ? loaded : created; // Another login may have loaded it meanwhile
+            claimed.claim(claim);
+            return claimed;
+        });
+        return claim;
+    }
+
+    /**
+     * Releases a claim on a player's session, unloading the session once no claims remain.
+     * An unloaded session with unsaved changes is saved asynchronously.
+     * @param uuid The UUID of the player.
+     * @param claim The claim returned by {@link #loadSession(UUID)}.
+     */
+    @Override
+    public void unloadSession(UUID uuid, long claim) {
+        PlayerSession[] unloaded = new PlayerSession[1];
+        sessions.computeIfPresent(uuid, (key, session) -> {
+            if (!session.release(claim) || session.isClaimed()) {
+                return session;
+            }
+            if (session.isDirty()) {
+                unloading.put(uuid, session); // Before the session leaves the map, so a rejoin never reads stale data
+                unloaded[0] = session;
+            }
+            return null;
+        });
+        PlayerSession session = unloaded[0];
+        if (session == null) {
+            return;
+        }
+
+        Runnable save = () -> {
+            try {
+                flush(session);
+            } finally {
+                unloading.remove(uuid, session);
+            }
+        };
+
+        runAsync(save);
+    }
+
+    /**
+     * Marks a player's {@link PlayerData} as changed so it is written to the database on the next flush.
+     * @param uuid The UUID of the player.
+     */
+    @Override
+    public void markDirty(UUID uuid) {
+        markDirty(uuid, PlayerData.class);
+    }
+
+    /**
+     * Registers a per-plugin data section and loads it asynchronously into every session that is already loaded.
+     * Registering the same type twice has no effect.
+     * @param sectionType The class of the data section.
+     * @param <T> The section type.
+     * @throws IllegalArgumentException if the class is not a valid section entity.
+     */
+    @Override
+    public <T> void registerSection(Class<T> sectionType) {
+        if (sectionType.getAnnotation(DbEntity.class) == null) {
+            throw new IllegalArgumentException("Class " + sectionType.getName() + " is not annotated with @DbEntity.");
+        }
+        Field idField = findIdField(sectionType);
+        if (idField.getType() != String.class && idField.getType() != UUID.class) {
+            throw new IllegalArgumentException("The ID field of section " + sectionType.getName() + " must be a String or UUID holding the player's UUID.");
+        }
+        try {
+            sectionType.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Section " + sectionType.getName() + " must have a no-args constructor.", e);
+        }
+
+        if (sectionIdFields.putIfAbsent(sectionType, idField) != null) {
+            return;
+        }
+        sessionTypes.add(sectionType);
+
+        if (sessions.isEmpty()) {
+            return;
+        }
+        Runnable backfill = () -> {
+            for (PlayerSession session : sessions.values()) {
+                if (!session.contains(sectionType)) {
+                    try {
+                        fill(session, List.of(sectionType));
+                    } catch (DatabaseException e) {
+                        // Leave the section unloaded rather than creating a fresh one that would overwrite the stored data
+                        LOGGER.log(Level.SEVERE, "Failed to load " + sectionType.getSimpleName() + " for player " + session.getUuid(), e);
+                    }
+                }
+            }
+        };
+        runAsync(backfill);
+    }
+
+    /**
+     * Retrieves a data section of an online player from their session, without touching the database.
+     * @param uuid The UUID of the player.
+     * @param sectionType The class of the data section.
+     * @param <T> The section type.
+     * @return An {@link Optional} containing the section, or {@link Optional#empty()} if no session or section is loaded.
+     */
+    @Override
+    public <T> Optional<T> getSection(UUID uuid, Class<T> sectionType) {
+        PlayerSession session = sessions.get(uuid);
+        return session == null ? Optional.empty() : Optional.ofNullable(session.get(sectionType));
+    }
+
+    /**
+     * Marks one entry of a player's session as changed so it is written to the database on the next flush.
+     * @param uuid The UUID of the player.
+     * @param sectionType The class of the data section, or {@link PlayerData}.
+     */
+    @Override
+    public void markDirty(UUID uuid, Class<?> sectionType) {
+        PlayerSession session = sessions.get(uuid);
+        if (session != null) {
+            session.markDirty(sectionType);
+        }
+    }
+
+    /**
+     * Writes all sessions with unsaved changes to the database.
+     */
+    @Override
+    public void flushDirty() {
+        for (PlayerSession session : sessions.values()) {
+            flush(session);
+        }
+    }
+
+    /**
+     * Writes all sessions with unsaved changes, including those still being unloaded, and clears every session.
+     */
+    @Override
+    public void flushAll() {
+        flushDirty();
+        for (PlayerSession session : unloading.values()) {
+            flush(session);
+        }
+        sessions.clear();
+        unloading.clear();
+    }
+
+    /**
+     * Runs a task on the scheduler's async executor, or on the calling thread if there is no scheduler or it refuses the task,
+     * for example while the server shuts down. The task must run either way, as it may hold a player's only unsaved changes.
+     */
+    private void runAsync(Runnable task) {
+        SchedulerService schedulerService = HomiesLib.getSchedulerService();
+        if (schedulerService != null) {
+            try {
+                schedulerService.runAsync(task);
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "The scheduler refused a player data task; running it on the calling thread.", e);
+            }
+        }
+        task.run();
+    }
+
+    private void flush(PlayerSession session) {
+        UUID uuid = session.getUuid();
+        // Counted before the dirty flags are cleared, so a session that looks clean is never mid-write unnoticed
+        synchronized (flushing) {
+            flushing.merge(uuid, 1, Integer::sum);
+        }
+        try {
+            Map<Class<?>, Object> toFlush = session.beginFlush();
+            if (toFlush.isEmpty()) {
+                return;
+            }
+            DatabaseService databaseService = HomiesLib.getDatabaseService();
+            if (databaseService == null) {
+                return;
+            }
+            for (Map.Entry<Class<?>, Object> entry : toFlush.entrySet()) {
+                try {
+                    databaseService.saveEntity(entry.getValue());
+                } catch (Exception e) {
+                    session.markDirty(entry.getKey()); // Keep the changes so the next flush retries them
+                    LOGGER.log(Level.SEVERE, "Failed to save " + entry.getKey().getSimpleName() + " for player " + uuid, e);
+                }
+            }
+        } finally {
+            synchronized (flushing) {
+                if (flushing.merge(uuid, -1, Integer::sum) == 0) {
+                    flushing.remove(uuid);
+                    flushing.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Blocks until no flush of the player's data is being written.
+     * @throws DatabaseException if the thread is interrupted while waiting.
+     */
+    private void awaitFlushes(UUID uuid) {
+        synchronized (flushing) {
+            while (flushing.containsKey(uuid)) {
+                try {
+                    flushing.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DatabaseException("Interrupted while waiting for the data of player " + uuid + " to be saved", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the given types for a session in one batched lookup, creating fresh instances for any that are not stored.
+     * If the lookup fails, the exception propagates before anything is put into the session.
+     */
+    private void fill(PlayerSession session, List<Class<?>> types) {
+        String id = session.getUuid().toString();
+        Map<Class<?>, Object> stored = Collections.emptyMap();
+        DatabaseService databaseService = HomiesLib.getDatabaseService();
+        if (databaseService != null) {
+            stored = databaseService.findAllById(types, id);
+        }
+
+        for (Class<?> type : types) {
+            Object entry = stored.get(type);
+            session.putIfAbsent(type, entry != null ? entry : create(type, session.getUuid()));
+        }
+    }
+
+    private Object create(Class<?> type, UUID uuid) {
+        if (type == PlayerData.class) {
+            PlayerData playerData = new PlayerData();
+            playerData.setUuid(uuid.toString());
+            return playerData;
+        }
+        try {
+            Object section = type.getDeclaredConstructor().newInstance();
+            Field idField = sectionIdFields.get(type);
+            idField.set(section, idField.getType() == UUID.class ? uuid : uuid.toString());
+            return section;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create data section " + type.getName() + " for player " + uuid, e);
+        }
+    }
+
+    private Field findIdField(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            DbField dbField = field.getAnnotation(DbField.class);
+            if (dbField != null && dbField.id()) {
+                field.setAccessible(true);
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Section " + type.getName() + " does not have an ID field annotated with @DbField(id=true).");
+    }
+
+    private UUID toUuid(String uuid) {
+        if (uuid == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(uuid);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,92 @@
+package lib.homies.framework.playerdata;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The in-memory state held for an online player by the {@link DefaultPlayerDataService}.
+ * Holds the player's {@link PlayerData} and every registered data section, keyed by entity type,
+ * along with which of them have changed since they were last flushed.
+ * <p>
+ * The session also tracks the logins that hold a claim on it. Claims are only changed while the session's
+ * entry in the service's session map is locked, so they need no synchronization of their own.
+ */
+final class PlayerSession {
+
+    private final UUID uuid;
+    private final Map<Class<?>, Object> entries = new ConcurrentHashMap<>();
+    private final Set<Class<?>> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<Long> claims = new HashSet<>();
+
+    PlayerSession(UUID uuid) {
+        this.uuid = uuid;
+    }
+
+    UUID getUuid() {
+        return uuid;
+    }
+
+    PlayerData getData() {
+        return (PlayerData) entries.get(PlayerData.class);
+    }
+
+    <T> T get(Class<T> type) {
+        return type.cast(entries.get(type));
+    }
+
+    boolean contains(Class<?> type) {
+        return entries.containsKey(type);
+    }
+
+    void put(Class<?> type, Object value) {
+        entries.put(type, value);
+    }
+
+    void putIfAbsent(Class<?> type, Object value) {
+        entries.putIfAbsent(type, value);
+    }
+
+    void claim(long claim) {
+        claims.add(claim);
+    }
+
+    /**
+     * Releases a claim.
+     * @return {@code true} if the claim was held.
+     */
+    boolean release(long claim) {
+        return claims.remove(claim);
+    }
+
+    boolean isClaimed() {
+        return !claims.isEmpty();
+    }
+
+    void markDirty(Class<?> type) {
+        if (entries.containsKey(type)) {
+            dirty.add(type);
+        }
+    }
+
+    boolean isDirty() {
+        return !dirty.isEmpty();
+    }
+
+    /**
+     * Clears the dirty flags before a flush, so changes made while the flush is running are not lost.
+     * @return The entries that were dirty and should be written, keyed by entity type.
+     */
+    Map<Class<?>, Object> beginFlush() {
+        Map<Class<?>, Object> toFlush = new HashMap<>();
+        for (Class<?> type : dirty) {
+            if (dirty.remove(type)) {
+                toFlush.put(type, entries.get(type));
+            }
+        }
+        return toFlush;
+    }
+}
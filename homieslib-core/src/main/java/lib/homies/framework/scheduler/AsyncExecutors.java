@@ -0,0 +1,47 @@
+package lib.homies.framework.scheduler;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Factory methods for the executors that can back a {@link SchedulerService}'s async tasks.
+ */
+public final class AsyncExecutors {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncExecutors.class.getName());
+
+    private AsyncExecutors() {}
+
+    /**
+     * Creates an executor that starts a new virtual thread for every task.
+     * Blocking I/O in a virtual thread does not hold an OS thread, so thousands of concurrent blocking tasks are cheap.
+     * The framework targets Java 17, so the Java 21 API is looked up reflectively.
+     * @return The virtual thread executor, or {@code null} if the running JVM does not support virtual threads.
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null; // Running on a JVM older than 21
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Virtual threads are present but could not be enabled.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Creates a fixed-size platform thread pool with a bounded queue.
+     * @param poolSize The number of threads.
+     * @param queueCapacity The maximum number of tasks waiting for a thread.
+     * @param isMainThread Tells whether the calling thread is the main thread, whose tasks are deferred rather than run on it
+     *                     while the queue is full.
+     * @return The bounded executor.
+     */
+    public static BoundedAsyncExecutor newBoundedExecutor(int poolSize, int queueCapacity, BooleanSupplier isMainThread) {
+        return new BoundedAsyncExecutor(Math.max(1, poolSize), Math.max(1, queueCapacity), "HomiesLib-Async-", isMainThread);
+    }
+}
@@ -0,0 +1,165 @@
+package lib.homies.framework.scheduler;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A fixed-size platform thread pool with a bounded queue, used for async tasks when virtual threads are unavailable.
+ * Unlike a cached pool, it never creates more than {@code poolSize} threads, no matter how many tasks block on I/O;
+ * excess tasks wait in the queue.
+ * <p>
+ * When the queue is full, the submitter is pushed back on instead of spawning more threads: a task submitted from any
+ * thread but the main thread runs on the submitting thread, which slows the producer down to the pool's pace. The main
+ * thread must never run blocking tasks itself, so its tasks are deferred to an overflow queue that the pool's own threads
+ * move into the bounded queue as it drains, and a warning is logged. Tasks submitted after shutdown run on the calling
+ * thread, so submitting never throws and no task is dropped.
+ * <p>
+ * Queue depth, caller runs and deferred tasks are tracked so saturation is visible before it becomes a problem.
+ */
+public class BoundedAsyncExecutor extends ThreadPoolExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(BoundedAsyncExecutor.class.getName());
+    private static final long WARNING_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final int queueCapacity;
+    private final BooleanSupplier isMainThread;
+    // Tasks from the main thread that did not fit in the queue, moved into it by the pool's threads as it drains
+    private final Deque<Runnable> overflow = new ConcurrentLinkedDeque<>();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAccumulator peakQueueSize = new LongAccumulator(Math::max, 0);
+    private final AtomicLong lastWarning = new AtomicLong(System.nanoTime() - WARNING_INTERVAL_NANOS);
+
+    /**
+     * Constructs a new BoundedAsyncExecutor.
+     * @param poolSize The number of threads.
+     * @param queueCapacity The maximum number of tasks waiting for a thread.
+     * @param threadNamePrefix The prefix of the pool's thread names.
+     * @param isMainThread Tells whether the calling thread is the main thread, whose tasks are deferred rather than run on it
+     *                     while the queue is full.
+     */
+    public BoundedAsyncExecutor(int poolSize, int queueCapacity, String threadNamePrefix, BooleanSupplier isMainThread) {
+        super(poolSize, poolSize, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity), namedDaemonThreads(threadNamePrefix));
+        this.queueCapacity = queueCapacity;
+        this.isMainThread = isMainThread;
+        allowCoreThreadTimeOut(true);
+        setRejectedExecutionHandler((task, executor) -> {
+            if (executor.isShutdown()) {
+                task.run(); // Shutting down; nothing else will run it
+                return;
+            }
+            if (!isMainThread.getAsBoolean()) {
+                callerRuns.increment();
+                task.run();
+                return;
+            }
+            deferred.increment();
+            overflow.add(task);
+            warnSaturated();
+            // The pool may have drained the queue since it refused the task; if not, a busy thread moves it later
+            drainOverflow();
+        });
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(command);
+        peakQueueSize.accumulate(getQueue().size());
+    }
+
+    @Override
+    protected void afterExecute(Runnable task, Throwable throwable) {
+        super.afterExecute(task, throwable);
+        drainOverflow();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> pending = new ArrayList<>(super.shutdownNow());
+        Runnable task;
+        while ((task = overflow.poll()) != null) {
+            pending.add(task);
+        }
+        return pending;
+    }
+
+    /**
+     * Retrieves the maximum number of tasks that can wait for a thread.
+     * @return The queue capacity.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Retrieves the largest number of tasks that were waiting for a thread at once.
+     * @return The peak queue size.
+     */
+    public long getPeakQueueSize() {
+        return peakQueueSize.get();
+    }
+
+    /**
+     * Retrieves the number of tasks that ran on the submitting thread because the queue was full.
+     * @return The caller run count.
+     */
+    public long getCallerRunCount() {
+        return callerRuns.sum();
+    }
+
+    /**
+     * Retrieves the number of tasks from the main thread that were deferred to the overflow queue because the queue was full.
+     * @return The deferred task count.
+     */
+    public long getDeferredCount() {
+        return deferred.sum();
+    }
+
+    /**
+     * Retrieves the number of deferred tasks still waiting to be moved into the queue.
+     * @return The overflow queue size.
+     */
+    public int getOverflowSize() {
+        return overflow.size();
+    }
+
+    private void drainOverflow() {
+        Runnable task;
+        while ((task = overflow.pollFirst()) != null) {
+            if (!getQueue().offer(task)) {
+                overflow.offerFirst(task); // Still full; the thread that takes the next task drains again when it is done
+                return;
+            }
+            if (getPoolSize() == 0) {
+                prestartCoreThread(); // Tasks offered to the queue directly do not start threads
+            }
+        }
+    }
+
+    private void warnSaturated() {
+        long now = System.nanoTime();
+        long last = lastWarning.get();
+        if (now - last >= WARNING_INTERVAL_NANOS && lastWarning.compareAndSet(last, now)) {
+            LOGGER.log(Level.WARNING, "The async queue is full (" + queueCapacity + " tasks); " + deferred.sum()
+                    + " main-thread task(s) deferred so far. Consider raising the pool size or queue capacity.");
+        }
+    }
+
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,166 @@
+package lib.homies.framework.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link ParallelTask} that splits its items into contiguous chunks, computes each chunk on a compute executor
+ * and hands the results of a finished chunk to a {@link WorkQueue}, which applies them on the main server thread
+ * within its per-tick budget. Results of one chunk are applied in item order; chunks are applied in the order they finish.
+ *
+ * @param <T> The item type.
+ * @param <R> The result type.
+ */
+public class ChunkedParallelTask<T, R> implements ParallelTask {
+
+    /**
+     * The number of chunks per available processor when no chunk size is given.
+     * Several chunks per core keep all cores busy when some chunks are slower than others.
+     */
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    private final List<T> items;
+    private final int chunkSize;
+    private final Function<? super T, ? extends R> compute;
+    private final Consumer<? super R> apply;
+    private final Executor computeExecutor;
+    private final WorkQueue applyQueue;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final AtomicInteger computed = new AtomicInteger();
+    private final AtomicInteger applied = new AtomicInteger();
+
+    /**
+     * Constructs a new ChunkedParallelTask. Nothing runs until {@link #start()} is called.
+     * @param items The items to process. The collection is copied.
+     * @param chunkSize The number of items per chunk, or 0 or less to derive it from the number of processors.
+     * @param compute Computes the result of an item. It runs off the main thread and must not touch server state.
+     * @param apply Applies a result on the main server thread. {@code null} results are not applied.
+     * @param computeExecutor The executor the chunks are computed on.
+     * @param applyQueue The work queue the results are applied through.
+     */
+    public ChunkedParallelTask(Collection<? extends T> items, int chunkSize, Function<? super T, ? extends R> compute,
+                               Consumer<? super R> apply, Executor computeExecutor, WorkQueue applyQueue) {
+        this.items = new ArrayList<>(items);
+        this.chunkSize = chunkSize > 0 ? chunkSize : defaultChunkSize(this.items.size());
+        this.compute = compute;
+        this.apply = apply;
+        this.computeExecutor = computeExecutor;
+        this.applyQueue = applyQueue;
+    }
+
+    /**
+     * Computes the chunk size that splits a collection into a few chunks per available processor.
+     * @param size The number of items.
+     * @return The chunk size, at least 1.
+     */
+    public static int defaultChunkSize(int size) {
+        int chunks = Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR;
+        return Math.max(1, (size + chunks - 1) / chunks);
+    }
+
+    /**
+     * Submits every chunk to the compute executor.
+     * @return This task.
+     */
+    public ChunkedParallelTask<T, R> start() {
+        if (items.isEmpty()) {
+            future.complete(null);
+            return this;
+        }
+        try {
+            for (int from = 0; from < items.size(); from += chunkSize) {
+                List<T> chunk = items.subList(from, Math.min(items.size(), from + chunkSize));
+                computeExecutor.execute(() -> computeChunk(chunk));
+            }
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return this;
+    }
+
+    private void computeChunk(List<T> chunk) {
+        List<Runnable> units = new ArrayList<>(chunk.size());
+        for (T item : chunk) {
+            if (future.isDone()) {
+                return; // Cancelled or failed
+            }
+            R result;
+            try {
+                result = compute.apply(item);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                return;
+            }
+            computed.incrementAndGet();
+            units.add(() -> applyResult(result));
+        }
+        applyQueue.submitAll(units);
+    }
+
+    private void applyResult(R result) {
+        if (future.isDone()) {
+            return;
+        }
+        if (result != null) {
+            try {
+                apply.accept(result);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                return;
+            }
+        }
+        if (applied.incrementAndGet() == items.size()) {
+            future.complete(null);
+        }
+    }
+
+    /**
+     * Skips every item that has not been computed or applied yet. Results already in the work queue are discarded when reached.
+     */
+    @Override
+    public void cancel() {
+        future.cancel(false);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return future.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    @Override
+    public int getTotal() {
+        return items.size();
+    }
+
+    @Override
+    public int getComputed() {
+        return computed.get();
+    }
+
+    @Override
+    public int getApplied() {
+        return applied.get();
+    }
+
+    @Override
+    public double getProgress() {
+        return items.isEmpty() ? 1.0 : (double) applied.get() / items.size();
+    }
+
+    @Override
+    public CompletableFuture<Void> toFuture() {
+        return future;
+    }
+}
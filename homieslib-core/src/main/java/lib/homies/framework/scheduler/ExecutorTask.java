@@ -0,0 +1,36 @@
+package lib.homies.framework.scheduler;
+
+import java.util.concurrent.Future;
+
+/**
+ * A {@link HomiesTask} for a task submitted to an {@link java.util.concurrent.ExecutorService}.
+ */
+public class ExecutorTask implements HomiesTask {
+    private final Future<?> future;
+
+    /**
+     * Constructs a new ExecutorTask wrapping the given future.
+     * @param future The {@link Future} of the submitted task.
+     */
+    public ExecutorTask(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * Cancels the task if it has not started yet. A running task is allowed to finish.
+     */
+    @Override
+    public void cancel() {
+        future.cancel(false);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return future.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return future.isDone();
+    }
+}
@@ -0,0 +1,123 @@
+package lib.homies.framework.scheduler;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link TaskChain} backed by {@link CompletableFuture} stages.
+ * All stages of one chain share the list of their futures, so cancelling any stage cancels every stage of the chain.
+ *
+ * @param <T> The result type of this stage.
+ */
+public class FutureTaskChain<T> implements TaskChain<T> {
+
+    private final CompletableFuture<T> future;
+    private final Executor syncExecutor;
+    private final Executor asyncExecutor;
+    private final List<CompletableFuture<?>> stages;
+
+    private FutureTaskChain(CompletableFuture<T> future, Executor syncExecutor, Executor asyncExecutor, List<CompletableFuture<?>> stages) {
+        this.future = future;
+        this.syncExecutor = syncExecutor;
+        this.asyncExecutor = asyncExecutor;
+        this.stages = stages;
+        stages.add(future);
+    }
+
+    /**
+     * Starts a chain by running a supplier on the given executor.
+     * @param supplier Computes the first value.
+     * @param executor The executor the supplier runs on.
+     * @param syncExecutor The executor of the main server thread.
+     * @param asyncExecutor The async executor.
+     * @param <T> The type of the value.
+     * @return The first stage of the chain.
+     */
+    public static <T> FutureTaskChain<T> start(Supplier<T> supplier, Executor executor, Executor syncExecutor, Executor asyncExecutor) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        FutureTaskChain<T> chain = new FutureTaskChain<>(future, syncExecutor, asyncExecutor, new CopyOnWriteArrayList<>());
+        executor.execute(() -> {
+            if (future.isDone()) {
+                return; // Cancelled before it started
+            }
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return chain;
+    }
+
+    private <R> FutureTaskChain<R> next(CompletableFuture<R> next) {
+        return new FutureTaskChain<>(next, syncExecutor, asyncExecutor, stages);
+    }
+
+    @Override
+    public <R> TaskChain<R> thenSync(Function<? super T, ? extends R> function) {
+        return next(future.thenApplyAsync(function, syncExecutor));
+    }
+
+    @Override
+    public TaskChain<Void> thenAcceptSync(Consumer<? super T> consumer) {
+        return next(future.thenAcceptAsync(consumer, syncExecutor));
+    }
+
+    @Override
+    public <R> TaskChain<R> thenAsync(Function<? super T, ? extends R> function) {
+        return next(future.thenApplyAsync(function, asyncExecutor));
+    }
+
+    @Override
+    public TaskChain<Void> thenAcceptAsync(Consumer<? super T> consumer) {
+        return next(future.thenAcceptAsync(consumer, asyncExecutor));
+    }
+
+    @Override
+    public TaskChain<T> exceptionally(Function<Throwable, ? extends T> handler) {
+        return next(future.exceptionally(t -> handler.apply(unwrap(t))));
+    }
+
+    @Override
+    public TaskChain<T> whenCompleteSync(BiConsumer<? super T, ? super Throwable> action) {
+        return next(future.whenCompleteAsync((result, t) -> action.accept(result, t == null ? null : unwrap(t)), syncExecutor));
+    }
+
+    /**
+     * Cancels every stage of this chain that has not completed yet.
+     * Later stages are cancelled first: cancelling an earlier stage would otherwise complete them exceptionally
+     * with a {@link CompletionException} instead, and they would not report themselves as cancelled.
+     */
+    @Override
+    public void cancel() {
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            stages.get(i).cancel(false);
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return future.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    @Override
+    public CompletableFuture<T> toFuture() {
+        return future;
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    }
+}
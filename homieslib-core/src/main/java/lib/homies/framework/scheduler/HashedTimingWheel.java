@@ -0,0 +1,218 @@
+package lib.homies.framework.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A hashed timing wheel for large numbers of one-shot timers with tick granularity.
+ * Timers are kept in a ring of buckets indexed by their deadline tick. Timers further away than one revolution
+ * carry a round counter. Scheduling and cancelling are O(1) and allocate a single small node. Each tick only
+ * visits the bucket due that tick, no matter how many timers are pending.
+ * <p>
+ * {@link #schedule(Runnable, long)} and {@link HomiesTask#cancel()} are safe to call from any thread. They are handed
+ * over through lock-free queues and applied on the next {@link #advance()}. {@link #advance()} and {@link #clear()}
+ * must be called from the thread that runs the timers, once per tick.
+ */
+public class HashedTimingWheel {
+
+    private static final Logger LOGGER = Logger.getLogger(HashedTimingWheel.class.getName());
+
+    private final Timer[] buckets;
+    private final int mask;
+    private final Queue<Timer> pendingTimers = new ConcurrentLinkedQueue<>();
+    private final Queue<Timer> cancelledTimers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile long tick;
+
+    /**
+     * Constructs a new HashedTimingWheel.
+     * @param wheelSize The number of buckets, rounded up to a power of two. Timers due within this many ticks need no round counter.
+     */
+    public HashedTimingWheel(int wheelSize) {
+        int normalized = 1;
+        while (normalized < wheelSize) {
+            normalized <<= 1;
+        }
+        this.buckets = new Timer[normalized];
+        this.mask = normalized - 1;
+    }
+
+    /**
+     * Schedules a task to run once after the given number of ticks.
+     * @param task The task to run.
+     * @param delay The delay in ticks. Delays below 1 run on the next tick.
+     * @return A {@link HomiesTask} handle that cancels the timer.
+     */
+    public HomiesTask schedule(Runnable task, long delay) {
+        return scheduleAt(task, tick + Math.max(1, delay) - 1);
+    }
+
+    /**
+     * Schedules a task to run once when the wheel reaches the given tick.
+     * @param task The task to run.
+     * @param deadline The tick, as reported by {@link #getTick()}, to run at. Past ticks run on the next tick.
+     * @return A {@link HomiesTask} handle that cancels the timer.
+     */
+    public HomiesTask scheduleAt(Runnable task, long deadline) {
+        Timer timer = new Timer(this, task, deadline);
+        size.incrementAndGet();
+        pendingTimers.add(timer);
+        return timer;
+    }
+
+    /**
+     * Runs the timers due this tick and moves the wheel forward by one tick.
+     */
+    public void advance() {
+        removeCancelledTimers();
+        transferPendingTimers();
+
+        long current = tick;
+        int index = (int) (current & mask);
+        Timer timer = buckets[index];
+        while (timer != null) {
+            Timer next = timer.next;
+            if (timer.remainingRounds <= 0) {
+                unlink(timer);
+                if (timer.transition(Timer.EXPIRED)) {
+                    size.decrementAndGet();
+                    try {
+                        timer.task.run();
+                    } catch (Throwable t) {
+                        LOGGER.log(Level.SEVERE, "A scheduled task threw an exception.", t);
+                    }
+                }
+            } else {
+                timer.remainingRounds--;
+            }
+            timer = next;
+        }
+        tick = current + 1;
+    }
+
+    /**
+     * Cancels every pending timer.
+     */
+    public void clear() {
+        Timer timer;
+        while ((timer = pendingTimers.poll()) != null) {
+            timer.transition(Timer.CANCELLED);
+        }
+        cancelledTimers.clear();
+        for (int i = 0; i < buckets.length; i++) {
+            for (timer = buckets[i]; timer != null; timer = timer.next) {
+                timer.transition(Timer.CANCELLED);
+                timer.bucket = -1;
+            }
+            buckets[i] = null;
+        }
+        size.set(0);
+    }
+
+    /**
+     * Retrieves the number of timers that have neither run nor been cancelled.
+     * @return The pending timer count.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Retrieves the tick the wheel will run next. While timers are running, this is the tick they are running in.
+     * @return The current tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    private void transferPendingTimers() {
+        long current = tick;
+        Timer timer;
+        while ((timer = pendingTimers.poll()) != null) {
+            if (timer.state != Timer.PENDING) {
+                continue; // Cancelled before it reached a bucket
+            }
+            long deadline = Math.max(timer.deadline, current);
+            timer.remainingRounds = (deadline - current) / buckets.length;
+            int index = (int) (deadline & mask);
+            timer.bucket = index;
+            timer.next = buckets[index];
+            if (timer.next != null) {
+                timer.next.prev = timer;
+            }
+            buckets[index] = timer;
+        }
+    }
+
+    private void removeCancelledTimers() {
+        Timer timer;
+        while ((timer = cancelledTimers.poll()) != null) {
+            if (timer.bucket >= 0) {
+                unlink(timer);
+            }
+        }
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            buckets[timer.bucket] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.bucket = -1;
+    }
+
+    private static final class Timer implements HomiesTask {
+        private static final int PENDING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+        private static final AtomicIntegerFieldUpdater<Timer> STATE = AtomicIntegerFieldUpdater.newUpdater(Timer.class, "state");
+
+        private final HashedTimingWheel wheel;
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state = PENDING;
+        // Only accessed by the thread advancing the wheel
+        private long remainingRounds;
+        private int bucket = -1;
+        private Timer prev;
+        private Timer next;
+
+        private Timer(HashedTimingWheel wheel, Runnable task, long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        private boolean transition(int newState) {
+            return STATE.compareAndSet(this, PENDING, newState);
+        }
+
+        @Override
+        public void cancel() {
+            if (transition(CANCELLED)) {
+                wheel.size.decrementAndGet();
+                wheel.cancelledTimers.add(this);
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return state != PENDING;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package lib.homies.framework.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An {@link Executor} for the main server thread.
+ * Tasks submitted from the main thread run immediately, so a chain of main-thread continuations never waits a tick.
+ * Tasks submitted from other threads are queued, and the platform scheduler runs them with {@link #drain()} at the start of the next tick.
+ */
+public class MainThreadExecutor implements Executor {
+
+    private static final Logger LOGGER = Logger.getLogger(MainThreadExecutor.class.getName());
+
+    private final BooleanSupplier isMainThread;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructs a new MainThreadExecutor.
+     * @param isMainThread Tells whether the calling thread is the main server thread.
+     */
+    public MainThreadExecutor(BooleanSupplier isMainThread) {
+        this.isMainThread = isMainThread;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (isMainThread.getAsBoolean()) {
+            command.run();
+        } else {
+            queue.add(command);
+        }
+    }
+
+    /**
+     * Runs the tasks queued from other threads. Tasks queued while draining run in the same call.
+     * Must be called from the main server thread.
+     * @return The number of tasks run.
+     */
+    public int drain() {
+        int ran = 0;
+        Runnable task;
+        while ((task = queue.poll()) != null) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                LOGGER.log(Level.SEVERE, "A main-thread task threw an exception.", t);
+            }
+            ran++;
+        }
+        return ran;
+    }
+
+    /**
+     * Retrieves the number of tasks waiting for the next tick.
+     * @return The queued task count.
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,104 @@
+package lib.homies.framework.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs tasks on a shared executor while keeping the tasks of each key in order.
+ * Keys are hashed onto a fixed number of lanes. A lane runs its tasks one at a time, in submission order,
+ * and occupies at most one thread of the delegate executor at a time; different lanes run in parallel.
+ * Tasks of the same key therefore never overlap or reorder, while tasks of different keys usually run concurrently.
+ * <p>
+ * A busy lane gives its thread back after a batch of tasks and resubmits itself, so one hot key cannot starve
+ * other work on the delegate executor. A slow task still delays the later tasks of its own lane, including those of
+ * unrelated keys hashed onto it.
+ * <p>
+ * If the delegate executor refuses a lane, for example after it was shut down, the lane runs on the submitting thread instead,
+ * so every submitted task runs exactly once and in order.
+ */
+public class StripedSerialExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(StripedSerialExecutor.class.getName());
+    private static final int BATCH_SIZE = 64;
+
+    private final Lane[] lanes;
+    private final int mask;
+
+    /**
+     * Constructs a new StripedSerialExecutor.
+     * @param delegate The executor the lanes run on.
+     * @param laneCount The number of lanes, rounded up to a power of two.
+     */
+    public StripedSerialExecutor(Executor delegate, int laneCount) {
+        int normalized = 1;
+        while (normalized < laneCount) {
+            normalized <<= 1;
+        }
+        this.lanes = new Lane[normalized];
+        for (int i = 0; i < normalized; i++) {
+            lanes[i] = new Lane(delegate);
+        }
+        this.mask = normalized - 1;
+    }
+
+    /**
+     * Runs a task after all tasks previously submitted with an equal key.
+     * @param key The ordering key, for example a player's UUID.
+     * @param task The task.
+     */
+    public void execute(Object key, Runnable task) {
+        int hash = key.hashCode();
+        lanes[(hash ^ (hash >>> 16)) & mask].execute(task);
+    }
+
+    private static final class Lane implements Runnable {
+        private final Executor delegate;
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Lane(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        private void execute(Runnable task) {
+            queue.add(task);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    delegate.execute(this);
+                } catch (RuntimeException e) {
+                    // Never leave tasks queued without a lane to run them, nor fail a caller whose task would still run later.
+                    drain(Integer.MAX_VALUE);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            drain(BATCH_SIZE);
+        }
+
+        private void drain(int limit) {
+            Runnable task;
+            for (int ran = 0; ran < limit && (task = queue.poll()) != null; ran++) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    LOGGER.log(Level.SEVERE, "A task in a serial lane threw an exception.", t);
+                }
+            }
+            scheduled.set(false);
+            // A task submitted after the last poll saw the lane as scheduled and did not schedule it again.
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
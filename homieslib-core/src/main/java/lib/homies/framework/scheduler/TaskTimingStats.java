@@ -0,0 +1,53 @@
+package lib.homies.framework.scheduler;
+
+import lombok.Value;
+
+/**
+ * An immutable snapshot of the timings recorded for one task name.
+ */
+@Value
+public class TaskTimingStats {
+
+    /**
+     * The task name: the name given to the task builder, or the class that scheduled the task.
+     */
+    String name;
+
+    /**
+     * The group the task was scheduled in, or {@code null}.
+     */
+    String group;
+
+    /**
+     * Whether the task runs on the main server thread and therefore counts against the tick budget.
+     */
+    boolean sync;
+
+    /**
+     * The number of executions.
+     */
+    long count;
+
+    /**
+     * The total execution time, in nanoseconds.
+     */
+    long totalNanos;
+
+    /**
+     * The slowest execution, in nanoseconds.
+     */
+    long maxNanos;
+
+    /**
+     * The number of executions that took longer than the overrun threshold.
+     */
+    long overruns;
+
+    /**
+     * Calculates the mean execution time.
+     * @return The mean execution time in milliseconds, or 0 if the task never ran.
+     */
+    public double getMeanMillis() {
+        return count == 0 ? 0 : totalNanos / (double) count / 1_000_000.0;
+    }
+}
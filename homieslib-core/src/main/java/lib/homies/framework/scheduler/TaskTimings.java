@@ -0,0 +1,227 @@
+package lib.homies.framework.scheduler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records how long scheduled tasks take, per task name and group.
+ * When enabled, the scheduler wraps each runnable it schedules with {@link #wrap(String, String, boolean, Runnable)};
+ * the wrapper costs two {@link System#nanoTime()} calls and a few {@link LongAdder} increments per execution.
+ * Tasks scheduled while timings are disabled run unwrapped, so enabling timings applies to tasks scheduled afterwards.
+ */
+public class TaskTimings {
+
+    private static final Logger LOGGER = Logger.getLogger(TaskTimings.class.getName());
+    private static final String EXPORT_PREFIX = "timings-";
+
+    // Map: "S|A name#group" -> Timings of that task
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+    private volatile long overrunThresholdNanos;
+    private volatile long since = System.currentTimeMillis();
+
+    /**
+     * Constructs a new TaskTimings.
+     * @param enabled Whether tasks are timed.
+     * @param overrunThresholdMillis Executions longer than this are counted as overruns.
+     */
+    public TaskTimings(boolean enabled, double overrunThresholdMillis) {
+        this.enabled = enabled;
+        setOverrunThresholdMillis(overrunThresholdMillis);
+    }
+
+    /**
+     * Wraps a task so its executions are timed. Returns the task unchanged while timings are disabled.
+     * @param name The task name, or {@code null} to derive it from the task's class.
+     * @param group The task group, or {@code null}.
+     * @param sync Whether the task runs on the main server thread.
+     * @param task The task.
+     * @return The timed task.
+     */
+    public Runnable wrap(String name, String group, boolean sync, Runnable task) {
+        if (!enabled) {
+            return task;
+        }
+        String taskName = name != null ? name : nameOf(task);
+        Entry entry = entries.computeIfAbsent((sync ? "S " : "A ") + taskName + "#" + group, k -> new Entry(taskName, group, sync));
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                entry.record(System.nanoTime() - start, overrunThresholdNanos);
+            }
+        };
+    }
+
+    /**
+     * Derives a readable task name from the class of a runnable. Lambdas are reported as the class that declared them.
+     * @param task The task.
+     * @return The task name.
+     */
+    public static String nameOf(Runnable task) {
+        String className = task.getClass().getName();
+        int lambda = className.indexOf("$$Lambda");
+        return lambda > 0 ? className.substring(0, lambda) : className;
+    }
+
+    /**
+     * Checks whether newly scheduled tasks are timed.
+     * @return {@code true} if timings are enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables timing of newly scheduled tasks.
+     * @param enabled Whether tasks are timed.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Retrieves the overrun threshold.
+     * @return The threshold in milliseconds.
+     */
+    public double getOverrunThresholdMillis() {
+        return overrunThresholdNanos / 1_000_000.0;
+    }
+
+    /**
+     * Sets the duration above which an execution is counted as an overrun.
+     * @param overrunThresholdMillis The threshold in milliseconds.
+     */
+    public void setOverrunThresholdMillis(double overrunThresholdMillis) {
+        this.overrunThresholdNanos = Math.max(0, (long) (overrunThresholdMillis * 1_000_000L));
+    }
+
+    /**
+     * Retrieves the recorded timings, most expensive first.
+     * @return A snapshot of the timings, sorted by total execution time.
+     */
+    public List<TaskTimingStats> getStats() {
+        List<TaskTimingStats> snapshot = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.count.sum() > 0) {
+                snapshot.add(entry.snapshot());
+            }
+        }
+        snapshot.sort(Comparator.comparingLong(TaskTimingStats::getTotalNanos).reversed());
+        return snapshot;
+    }
+
+    /**
+     * Retrieves when recording started or was last reset.
+     * @return The epoch millisecond timestamp.
+     */
+    public long getSince() {
+        return since;
+    }
+
+    /**
+     * Clears the recorded timings. Entries are zeroed rather than removed, because already scheduled tasks keep recording into them.
+     */
+    public void reset() {
+        entries.values().forEach(Entry::reset);
+        since = System.currentTimeMillis();
+    }
+
+    /**
+     * Writes a plain-text report of the recorded timings.
+     * @param writer The writer to write to. It is flushed but not closed.
+     */
+    public void writeReport(Writer writer) {
+        PrintWriter out = new PrintWriter(writer);
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        long now = System.currentTimeMillis();
+        out.printf(Locale.ROOT, "HomiesLib task timings from %s to %s (%.1f minutes), overrun threshold %.1fms%n",
+                dateFormat.format(new Date(since)), dateFormat.format(new Date(now)), (now - since) / 60_000.0, getOverrunThresholdMillis());
+        out.printf("%-6s %10s %12s %10s %10s %9s  %s%n", "thread", "count", "total ms", "mean ms", "max ms", "overruns", "task [group]");
+        for (TaskTimingStats stats : getStats()) {
+            out.printf(Locale.ROOT, "%-6s %10d %12.1f %10.3f %10.2f %9d  %s%s%n",
+                    stats.isSync() ? "main" : "async", stats.getCount(), stats.getTotalNanos() / 1_000_000.0,
+                    stats.getMeanMillis(), stats.getMaxNanos() / 1_000_000.0, stats.getOverruns(),
+                    stats.getName(), stats.getGroup() != null ? " [" + stats.getGroup() + "]" : "");
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes a report to a new timestamped file and deletes the oldest reports beyond {@code keep}.
+     * @param directory The directory to write to. Created if it does not exist.
+     * @param keep The number of most recent reports to keep.
+     * @return The written file.
+     * @throws IOException If the report cannot be written.
+     */
+    public Path export(Path directory, int keep) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(EXPORT_PREFIX + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writeReport(writer);
+        }
+
+        List<Path> reports = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, EXPORT_PREFIX + "*.txt")) {
+            stream.forEach(reports::add);
+        }
+        Collections.sort(reports); // Timestamped names sort chronologically
+        for (int i = 0; i < reports.size() - Math.max(1, keep); i++) {
+            try {
+                Files.deleteIfExists(reports.get(i));
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not delete old timings report " + reports.get(i), e);
+            }
+        }
+        return file;
+    }
+
+    private static final class Entry {
+        private final String name;
+        private final String group;
+        private final boolean sync;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder overruns = new LongAdder();
+
+        private Entry(String name, String group, boolean sync) {
+            this.name = name;
+            this.group = group;
+            this.sync = sync;
+        }
+
+        private void record(long nanos, long overrunThresholdNanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            if (nanos > overrunThresholdNanos) {
+                overruns.increment();
+            }
+        }
+
+        private void reset() {
+            count.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            overruns.reset();
+        }
+
+        private TaskTimingStats snapshot() {
+            return new TaskTimingStats(name, group, sync, count.sum(), totalNanos.sum(), maxNanos.get(), overruns.sum());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package lib.homies.framework.scheduler;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Default, platform-independent implementation of {@link WorkQueue}.
+ * Submission is lock-free; the platform scheduler calls {@link #drain()} once per tick on the main thread.
+ */
+public class TickBudgetedWorkQueue implements WorkQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(TickBudgetedWorkQueue.class.getName());
+
+    private final String name;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final LongAccumulator peakBacklog = new LongAccumulator(Math::max, 0);
+    private final LongAdder processed = new LongAdder();
+    private final LongAccumulator maxTickNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLong averageTickNanos = new AtomicLong();
+    private volatile long budgetNanos;
+    private volatile long lastTickNanos;
+
+    /**
+     * Constructs a new TickBudgetedWorkQueue.
+     * @param name The queue name.
+     * @param budgetNanos The time the queue may spend per tick, in nanoseconds.
+     */
+    public TickBudgetedWorkQueue(String name, long budgetNanos) {
+        this.name = name;
+        this.budgetNanos = Math.max(1, budgetNanos);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void submit(Runnable work) {
+        if (work == null) {
+            throw new IllegalArgumentException("Work must not be null.");
+        }
+        queue.add(work);
+        peakBacklog.accumulate(backlog.incrementAndGet());
+    }
+
+    @Override
+    public void submitAll(Collection<? extends Runnable> work) {
+        for (Runnable unit : work) {
+            submit(unit);
+        }
+    }
+
+    /**
+     * Runs queued units until the budget is spent or the queue is empty.
+     * At least one unit runs per call, so the queue always makes progress even with a tiny budget.
+     * A unit that throws is logged and skipped. Must be called from the main server thread.
+     * @return The number of units run.
+     */
+    public int drain() {
+        if (backlog.get() == 0) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        int ran = 0;
+        Runnable work;
+        do {
+            work = queue.poll();
+            if (work == null) {
+                break;
+            }
+            backlog.decrementAndGet();
+            try {
+                work.run();
+            } catch (Throwable t) {
+                LOGGER.log(Level.SEVERE, "A unit of work in queue '" + name + "' threw an exception.", t);
+            }
+            ran++;
+        } while (System.nanoTime() < deadline);
+
+        long elapsed = System.nanoTime() - start;
+        processed.add(ran);
+        lastTickNanos = elapsed;
+        maxTickNanos.accumulate(elapsed);
+        // Exponential moving average over roughly the last 20 ticks (one second) of activity.
+        averageTickNanos.updateAndGet(avg -> avg == 0 ? elapsed : avg + (elapsed - avg) / 20);
+        return ran;
+    }
+
+    @Override
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    @Override
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = Math.max(1, budgetNanos);
+    }
+
+    @Override
+    public int getBacklog() {
+        return Math.max(0, backlog.get());
+    }
+
+    @Override
+    public int getPeakBacklog() {
+        return (int) peakBacklog.get();
+    }
+
+    @Override
+    public long getProcessedCount() {
+        return processed.sum();
+    }
+
+    @Override
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    @Override
+    public long getAverageTickNanos() {
+        return averageTickNanos.get();
+    }
+
+    @Override
+    public long getMaxTickNanos() {
+        return maxTickNanos.get();
+    }
+
+    @Override
+    public int clear() {
+        int removed = 0;
+        while (queue.poll() != null) {
+            backlog.decrementAndGet();
+            removed++;
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,191 @@
+package lib.homies.framework.scheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures server load from the time between consecutive ticks and decides whether {@link TaskPriority#LOW} tasks are shed.
+ * The interval is averaged over roughly the last second of ticks. On a server that keeps up it stays close to 50ms;
+ * when ticks take longer than 50ms, the interval grows with them.
+ * <p>
+ * A level is entered when the average reaches its threshold and left once it drops halfway back to 50ms,
+ * so the level does not flap while the load hovers around a threshold.
+ */
+public class TickLoadMonitor {
+
+    /**
+     * The load levels, from no shedding to full shedding.
+     */
+    public enum Level {
+        /**
+         * The server keeps up. Every task runs at its rate.
+         */
+        NORMAL,
+        /**
+         * The server is behind. Low-priority repeating tasks run at a fraction of their rate.
+         */
+        STRETCHED,
+        /**
+         * The server is overloaded. Low-priority repeating tasks are skipped.
+         */
+        SHEDDING
+    }
+
+    private static final double TICK_MILLIS = 50.0;
+    private static final int STRETCH_FACTOR = 2;
+
+    private volatile boolean enabled;
+    private volatile double stretchMspt;
+    private volatile double shedMspt;
+    private volatile double averageMspt = TICK_MILLIS;
+    private volatile Level level = Level.NORMAL;
+    private final LongAdder skipped = new LongAdder();
+    // Only accessed by the thread recording ticks
+    private long lastTickNanos;
+
+    /**
+     * Constructs a new TickLoadMonitor.
+     * @param enabled Whether low-priority tasks are shed at all.
+     * @param stretchMspt The average tick interval in milliseconds at which low-priority tasks are stretched.
+     * @param shedMspt The average tick interval in milliseconds at which low-priority tasks are skipped.
+     */
+    public TickLoadMonitor(boolean enabled, double stretchMspt, double shedMspt) {
+        this.enabled = enabled;
+        setThresholds(stretchMspt, shedMspt);
+    }
+
+    /**
+     * Records the start of a tick. Must be called once per tick from the same thread.
+     * @param nowNanos The current {@link System#nanoTime()}.
+     */
+    public void recordTick(long nowNanos) {
+        if (lastTickNanos != 0) {
+            double interval = (nowNanos - lastTickNanos) / 1_000_000.0;
+            double average = averageMspt + (interval - averageMspt) / 20;
+            averageMspt = average;
+            level = enabled ? nextLevel(level, average) : Level.NORMAL;
+        }
+        lastTickNanos = nowNanos;
+    }
+
+    private Level nextLevel(Level current, double average) {
+        if (average >= shedMspt || (current == Level.SHEDDING && average >= recoveryOf(shedMspt))) {
+            return Level.SHEDDING;
+        }
+        if (average >= stretchMspt || (current != Level.NORMAL && average >= recoveryOf(stretchMspt))) {
+            return Level.STRETCHED;
+        }
+        return Level.NORMAL;
+    }
+
+    private static double recoveryOf(double threshold) {
+        return TICK_MILLIS + (threshold - TICK_MILLIS) / 2;
+    }
+
+    /**
+     * Wraps a repeating task so that it is stretched or skipped according to the load level.
+     * @param task The task.
+     * @param priority The priority of the task. Only {@link TaskPriority#LOW} tasks are wrapped.
+     * @return The wrapped task, or {@code task} itself if it is never shed.
+     */
+    public Runnable gate(Runnable task, TaskPriority priority) {
+        if (priority != TaskPriority.LOW) {
+            return task;
+        }
+        AtomicLong runs = new AtomicLong();
+        return () -> {
+            Level current = level;
+            if (current == Level.SHEDDING || (current == Level.STRETCHED && runs.getAndIncrement() % STRETCH_FACTOR != 0)) {
+                skipped.increment();
+                return;
+            }
+            task.run();
+        };
+    }
+
+    /**
+     * Checks whether tasks of a priority are currently stretched or skipped.
+     * @param priority The priority.
+     * @return {@code true} if the priority is {@link TaskPriority#LOW} and the server is behind.
+     */
+    public boolean isShedding(TaskPriority priority) {
+        return priority == TaskPriority.LOW && level != Level.NORMAL;
+    }
+
+    /**
+     * Retrieves the current load level.
+     * @return The load level.
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Retrieves the average time between ticks.
+     * @return The average in milliseconds.
+     */
+    public double getMspt() {
+        return averageMspt;
+    }
+
+    /**
+     * Retrieves the average ticks per second, derived from the average time between ticks.
+     * @return The TPS, at most 20.
+     */
+    public double getTps() {
+        return Math.min(20.0, 1000.0 / averageMspt);
+    }
+
+    /**
+     * Retrieves the number of low-priority task runs that were skipped.
+     * @return The skipped run count.
+     */
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    /**
+     * Checks whether low-priority tasks are shed at all.
+     * @return {@code true} if load shedding is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables load shedding. While disabled, the level stays {@link Level#NORMAL}.
+     * @param enabled Whether low-priority tasks are shed.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            level = Level.NORMAL;
+        }
+    }
+
+    /**
+     * Changes the thresholds of the load levels.
+     * @param stretchMspt The average tick interval in milliseconds at which low-priority tasks are stretched.
+     * @param shedMspt The average tick interval in milliseconds at which low-priority tasks are skipped. Raised to {@code stretchMspt} if lower.
+     */
+    public void setThresholds(double stretchMspt, double shedMspt) {
+        this.stretchMspt = stretchMspt;
+        this.shedMspt = Math.max(stretchMspt, shedMspt);
+    }
+
+    /**
+     * Retrieves the average tick interval at which low-priority tasks are stretched.
+     * @return The threshold in milliseconds.
+     */
+    public double getStretchMspt() {
+        return stretchMspt;
+    }
+
+    /**
+     * Retrieves the average tick interval at which low-priority tasks are skipped.
+     * @return The threshold in milliseconds.
+     */
+    public double getShedMspt() {
+        return shedMspt;
+    }
+}
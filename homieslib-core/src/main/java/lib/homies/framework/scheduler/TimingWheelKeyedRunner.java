@@ -0,0 +1,145 @@
+package lib.homies.framework.scheduler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link KeyedRunner} backed by a {@link HashedTimingWheel}.
+ * Each key holds at most one timer, however often it is triggered: a debounce that is triggered again moves its deadline
+ * instead of rescheduling, and the timer reschedules itself for the new deadline when it fires.
+ * Per-key state is updated atomically through {@link ConcurrentHashMap#compute}; actions run outside of it.
+ *
+ * @param <K> The key type.
+ */
+public class TimingWheelKeyedRunner<K> implements KeyedRunner<K> {
+
+    /**
+     * The policy of a runner.
+     */
+    public enum Mode {
+        /**
+         * Run the latest action once the key has been quiet for the interval.
+         */
+        DEBOUNCE,
+        /**
+         * Run the first action immediately, then at most one action per interval.
+         */
+        THROTTLE,
+        /**
+         * Run the latest action one interval after the first trigger.
+         */
+        COALESCE
+    }
+
+    private final HashedTimingWheel wheel;
+    private final Executor mainThreadExecutor;
+    private final Mode mode;
+    private final long intervalTicks;
+    private final Map<K, Slot> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new TimingWheelKeyedRunner.
+     * @param wheel The timing wheel that runs the actions. It must be advanced on the main server thread.
+     * @param mainThreadExecutor Runs the immediate actions of a throttle on the main server thread.
+     * @param mode The policy.
+     * @param intervalTicks The debounce delay, throttle period or coalescing window in ticks.
+     */
+    public TimingWheelKeyedRunner(HashedTimingWheel wheel, Executor mainThreadExecutor, Mode mode, long intervalTicks) {
+        this.wheel = wheel;
+        this.mainThreadExecutor = mainThreadExecutor;
+        this.mode = mode;
+        this.intervalTicks = Math.max(1, intervalTicks);
+    }
+
+    @Override
+    public void trigger(K key, Runnable action) {
+        Runnable[] runNow = new Runnable[1];
+        slots.compute(key, (k, slot) -> {
+            long now = wheel.getTick();
+            Slot target = slot != null ? slot : new Slot();
+            if (target.timer != null && target.timer.isCancelled()) {
+                target.timer = null; // Cleared by SchedulerService#cancelAll
+            }
+            switch (mode) {
+                case DEBOUNCE:
+                    target.action = action;
+                    target.deadline = now + intervalTicks - 1;
+                    break;
+                case COALESCE:
+                    target.action = action;
+                    if (target.timer == null) {
+                        target.deadline = now + intervalTicks - 1;
+                    }
+                    break;
+                case THROTTLE:
+                    if (target.timer == null) {
+                        // Leading edge: run now and keep the window open for one period.
+                        runNow[0] = action;
+                        target.deadline = now + intervalTicks;
+                    } else {
+                        target.action = action;
+                    }
+                    break;
+            }
+            if (target.timer == null) {
+                target.timer = wheel.scheduleAt(() -> fire(k), target.deadline);
+            }
+            return target;
+        });
+        if (runNow[0] != null) {
+            mainThreadExecutor.execute(runNow[0]);
+        }
+    }
+
+    private void fire(K key) {
+        Runnable[] runNow = new Runnable[1];
+        slots.computeIfPresent(key, (k, slot) -> {
+            long now = wheel.getTick();
+            if (slot.deadline > now) {
+                // Debounced again since this timer was scheduled.
+                slot.timer = wheel.scheduleAt(() -> fire(k), slot.deadline);
+                return slot;
+            }
+            runNow[0] = slot.action;
+            slot.action = null;
+            if (mode == Mode.THROTTLE && runNow[0] != null) {
+                // The trailing run starts a new window in which further triggers are collapsed again.
+                slot.deadline = now + intervalTicks;
+                slot.timer = wheel.scheduleAt(() -> fire(k), slot.deadline);
+                return slot;
+            }
+            return null;
+        });
+        if (runNow[0] != null) {
+            runNow[0].run();
+        }
+    }
+
+    @Override
+    public void cancel(K key) {
+        Slot slot = slots.remove(key);
+        if (slot != null && slot.timer != null) {
+            slot.timer.cancel();
+        }
+    }
+
+    @Override
+    public void cancelAll() {
+        for (K key : slots.keySet()) {
+            cancel(key);
+        }
+    }
+
+    @Override
+    public int getPendingCount() {
+        return slots.size();
+    }
+
+    private static final class Slot {
+        // Guarded by the slots map entry
+        private Runnable action;
+        private long deadline;
+        private HomiesTask timer;
+    }
+}
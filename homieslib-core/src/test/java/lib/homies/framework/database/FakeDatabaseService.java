@@ -0,0 +1,84 @@
+package lib.homies.framework.database;
+
+import lib.homies.framework.database.exceptions.DatabaseException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory {@link DatabaseService} for tests, keyed by entity type and ID, that can be told to fail its lookups.
+ */
+public class FakeDatabaseService implements DatabaseService {
+
+    private final Map<Class<?>, Map<String, Object>> stored = new ConcurrentHashMap<>();
+    private final List<Object> saved = new ArrayList<>();
+    private volatile boolean failing;
+
+    public void store(Class<?> type, String id, Object entity) {
+        stored.computeIfAbsent(type, key -> new ConcurrentHashMap<>()).put(id, entity);
+    }
+
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    public synchronized List<Object> getSaved() {
+        return new ArrayList<>(saved);
+    }
+
+    @Override
+    public <T extends IRepository<?>> Optional<T> getRepository(Class<T> repoClass) {
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized <T> void saveEntity(T entity) {
+        saved.add(entity);
+    }
+
+    @Override
+    public <T> Optional<T> findById(Class<T> entityType, String id) {
+        if (failing) {
+            throw new DatabaseException("Lookup of " + entityType.getSimpleName() + " failed");
+        }
+        return Optional.ofNullable(entityType.cast(stored.getOrDefault(entityType, Map.of()).get(id)));
+    }
+
+    @Override
+    public Map<Class<?>, Object> findAllById(Collection<Class<?>> entityTypes, String id) {
+        if (failing) {
+            throw new DatabaseException("Batch lookup of " + id + " failed");
+        }
+        Map<Class<?>, Object> found = new HashMap<>();
+        for (Class<?> entityType : entityTypes) {
+            Object entity = stored.getOrDefault(entityType, Map.of()).get(id);
+            if (entity != null) {
+                found.put(entityType, entity);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public <T> List<T> findAll(Class<T> entityType) {
+        return List.of();
+    }
+
+    @Override
+    public <T> List<T> findByField(Class<T> entityType, String fieldName, Object value) {
+        return List.of();
+    }
+
+    @Override
+    public <T> void deleteEntity(T entity) {
+    }
+
+    @Override
+    public <T> void deleteByField(Class<T> entityType, String fieldName, Object value) {
+    }
+}
@@ -0,0 +1,69 @@
+package lib.homies.framework.database.metrics;
+
+import lib.homies.framework.database.FakeDatabaseService;
+import lib.homies.framework.playerdata.PlayerData;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedDatabaseServiceTest {
+
+    private final DefaultDatabaseMetrics metrics = new DefaultDatabaseMetrics(0, 10);
+
+    @Test
+    void handledSqlErrorIsRecordedAsFailure() {
+        FakeDatabaseService backend = new FakeDatabaseService() {
+            @Override
+            public <T> Optional<T> findById(Class<T> entityType, String id) {
+                // Like the SQL backends: log the error and report the entity as missing
+                DatabaseTrace.error(new SQLException("Table 'player_data' doesn't exist"));
+                return Optional.empty();
+            }
+        };
+        InstrumentedDatabaseService service = new InstrumentedDatabaseService(backend, metrics);
+
+        assertTrue(service.findById(PlayerData.class, "id").isEmpty());
+
+        OperationStats stats = metrics.getOperationStats(PlayerData.class, "findById").orElseThrow();
+        assertEquals(1, stats.getCount());
+        assertEquals(1, stats.getErrors());
+    }
+
+    @Test
+    void successfulCallIsNotAFailure() {
+        InstrumentedDatabaseService service = new InstrumentedDatabaseService(new FakeDatabaseService(), metrics);
+
+        service.findById(PlayerData.class, "id");
+
+        assertEquals(0, metrics.getOperationStats(PlayerData.class, "findById").orElseThrow().getErrors());
+    }
+
+    @Test
+    void errorsOutsideATraceAreIgnored() {
+        DatabaseTrace.error(new SQLException("Not traced"));
+        InstrumentedDatabaseService service = new InstrumentedDatabaseService(new FakeDatabaseService(), metrics);
+
+        service.findById(PlayerData.class, "id");
+
+        assertEquals(0, metrics.getOperationStats(PlayerData.class, "findById").orElseThrow().getErrors());
+    }
+
+    @Test
+    void batchedLookupIsRecordedUnderBatch() {
+        FakeDatabaseService backend = new FakeDatabaseService();
+        backend.setFailing(true);
+        InstrumentedDatabaseService service = new InstrumentedDatabaseService(backend, metrics);
+
+        assertThrows(RuntimeException.class, () -> service.findAllById(List.of(PlayerData.class), "id"));
+
+        List<OperationStats> all = metrics.getOperationStats();
+        assertEquals(1, all.size());
+        assertEquals(InstrumentedDatabaseService.BATCH, all.get(0).getEntityType());
+        assertEquals("findAllById", all.get(0).getOperation());
+        assertEquals(1, all.get(0).getErrors());
+    }
+}
@@ -0,0 +1,152 @@
+package lib.homies.framework.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCoalescerTest {
+
+    private static final EventKey<Move, String> PLAYER = EventKey.of("player", Move.class, Move::getPlayer);
+
+    private final List<Runnable> scheduled = new ArrayList<>();
+
+    @Test
+    void latestModeDeliversTheLastEventOfEachKeyOnce() {
+        List<Move> delivered = new ArrayList<>();
+        EventCoalescer coalescer = coalescer(false, (Consumer<Move>) delivered::add);
+
+        coalescer.accept(new Move("alice", 1));
+        coalescer.accept(new Move("alice", 2));
+        coalescer.accept(new Move("bob", 3));
+        assertEquals(1, scheduled.size(), "Only the first event schedules a flush");
+        assertEquals(2, coalescer.getPendingCount());
+        assertTrue(delivered.isEmpty(), "Nothing is delivered before the flush");
+
+        runScheduled();
+        assertEquals(2, delivered.size());
+        assertTrue(delivered.stream().anyMatch(move -> move.getPlayer().equals("alice") && move.getX() == 2));
+        assertTrue(delivered.stream().anyMatch(move -> move.getPlayer().equals("bob") && move.getX() == 3));
+        assertEquals(0, coalescer.getPendingCount());
+    }
+
+    @Test
+    void batchModeDeliversEveryEventOfAKeyInOrder() {
+        List<List<Move>> delivered = new ArrayList<>();
+        EventCoalescer coalescer = coalescer(true, (Consumer<List<Move>>) delivered::add);
+
+        coalescer.accept(new Move("alice", 1));
+        coalescer.accept(new Move("alice", 2));
+        coalescer.accept(new Move("alice", 3));
+        runScheduled();
+
+        assertEquals(1, delivered.size());
+        assertEquals(List.of(1, 2, 3), delivered.get(0).stream().map(Move::getX).toList());
+    }
+
+    @Test
+    void nextEventAfterAFlushSchedulesAnotherFlush() {
+        List<Move> delivered = new ArrayList<>();
+        EventCoalescer coalescer = coalescer(false, (Consumer<Move>) delivered::add);
+
+        coalescer.accept(new Move("alice", 1));
+        runScheduled();
+        assertTrue(scheduled.isEmpty(), "An idle coalescer schedules nothing");
+
+        coalescer.accept(new Move("alice", 2));
+        assertEquals(1, scheduled.size());
+        runScheduled();
+        assertEquals(List.of(1, 2), delivered.stream().map(Move::getX).toList());
+    }
+
+    @Test
+    void eventsCollectedDuringDeliveryWaitForTheNextFlush() {
+        List<Move> delivered = new ArrayList<>();
+        EventCoalescer[] coalescer = new EventCoalescer[1];
+        coalescer[0] = coalescer(false, (Consumer<Move>) move -> {
+            delivered.add(move);
+            if (move.getX() == 1) {
+                coalescer[0].accept(new Move("alice", 2));
+            }
+        });
+
+        coalescer[0].accept(new Move("alice", 1));
+        Runnable flush = scheduled.remove(0);
+        flush.run();
+        assertEquals(List.of(1), delivered.stream().map(Move::getX).toList());
+        assertEquals(1, scheduled.size());
+
+        runScheduled();
+        assertEquals(List.of(1, 2), delivered.stream().map(Move::getX).toList());
+    }
+
+    @Test
+    void eventsWithoutAKeyAreDropped() {
+        EventCoalescer coalescer = coalescer(false, (Consumer<Move>) move -> fail("An event without a key must not be delivered"));
+
+        coalescer.accept(new Move(null, 1));
+
+        assertTrue(scheduled.isEmpty());
+        assertEquals(0, coalescer.getPendingCount());
+    }
+
+    @Test
+    void throwingHandlerDoesNotStopOtherKeys() {
+        List<String> delivered = new ArrayList<>();
+        EventCoalescer coalescer = coalescer(false, (Consumer<Move>) move -> {
+            if (move.getPlayer().equals("alice")) {
+                throw new IllegalStateException("Expected by the test");
+            }
+            delivered.add(move.getPlayer());
+        });
+
+        coalescer.accept(new Move("alice", 1));
+        coalescer.accept(new Move("bob", 1));
+        runScheduled();
+
+        assertEquals(List.of("bob"), delivered);
+    }
+
+    @Test
+    void closeDiscardsUndeliveredEvents() {
+        EventCoalescer coalescer = coalescer(false, (Consumer<Move>) move -> fail("A closed coalescer must not deliver"));
+
+        coalescer.accept(new Move("alice", 1));
+        coalescer.close();
+        coalescer.accept(new Move("alice", 2));
+        runScheduled();
+
+        assertEquals(0, coalescer.getPendingCount());
+    }
+
+    private EventCoalescer coalescer(boolean batch, Consumer<?> handler) {
+        return new EventCoalescer(PLAYER, batch, handler, scheduled::add);
+    }
+
+    private void runScheduled() {
+        while (!scheduled.isEmpty()) {
+            scheduled.remove(0).run();
+        }
+    }
+
+    private static final class Move {
+        private final String player;
+        private final int x;
+
+        private Move(String player, int x) {
+            this.player = player;
+            this.x = x;
+        }
+
+        String getPlayer() {
+            return player;
+        }
+
+        int getX() {
+            return x;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package lib.homies.framework.playerdata;
+
+import lib.homies.framework.HomiesLib;
+import lib.homies.framework.database.FakeDatabaseService;
+import lib.homies.framework.database.exceptions.DatabaseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultPlayerDataServiceTest {
+
+    private final UUID uuid = UUID.randomUUID();
+    private FakeDatabaseService database;
+    private DefaultPlayerDataService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new FakeDatabaseService();
+        HomiesLib.setDatabaseService(database);
+        HomiesLib.setSchedulerService(null); // Async player data tasks run on the calling thread
+        service = new DefaultPlayerDataService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        HomiesLib.setDatabaseService(null);
+    }
+
+    @Test
+    void failedLoadDoesNotCreateDefaults() {
+        PlayerData stored = new PlayerData();
+        stored.setUuid(uuid.toString());
+        stored.setLastLogin(1234L);
+        database.store(PlayerData.class, uuid.toString(), stored);
+        database.setFailing(true);
+
+        assertThrows(DatabaseException.class, () -> service.loadSession(uuid));
+        assertTrue(service.getCachedPlayerData(uuid).isEmpty());
+
+        service.markDirty(uuid);
+        service.flushAll();
+        assertTrue(database.getSaved().isEmpty(), "Nothing may be written over the stored data");
+    }
+
+    @Test
+    void loadAfterFailureReadsStoredData() {
+        PlayerData stored = new PlayerData();
+        stored.setUuid(uuid.toString());
+        stored.setLastLogin(1234L);
+        database.store(PlayerData.class, uuid.toString(), stored);
+
+        database.setFailing(true);
+        assertThrows(DatabaseException.class, () -> service.loadSession(uuid));
+        database.setFailing(false);
+
+        long claim = service.loadSession(uuid);
+        assertEquals(1234L, service.getCachedPlayerData(uuid).orElseThrow().getLastLogin());
+        service.unloadSession(uuid, claim);
+    }
+
+    @Test
+    void missingDataIsCreatedFresh() {
+        long claim = service.loadSession(uuid);
+        PlayerData data = service.getCachedPlayerData(uuid).orElseThrow();
+        assertEquals(uuid.toString(), data.getUuid());
+        assertEquals(0L, data.getLastLogin());
+        service.unloadSession(uuid, claim);
+    }
+
+    @Test
+    void rejoinWaitsForAnInFlightFlushOfACleanSession() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FakeDatabaseService slowDatabase = new FakeDatabaseService() {
+            @Override
+            public synchronized <T> void saveEntity(T entity) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                PlayerData data = (PlayerData) entity;
+                store(PlayerData.class, data.getUuid(), copyOf(data));
+            }
+        };
+        HomiesLib.setDatabaseService(slowDatabase);
+
+        long claim = service.loadSession(uuid);
+        service.getCachedPlayerData(uuid).orElseThrow().setLastLogin(42L);
+        service.markDirty(uuid);
+
+        CompletableFuture<Void> autosave = CompletableFuture.runAsync(service::flushDirty);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        service.unloadSession(uuid, claim); // Clean now, as the autosave already took its changes
+
+        CompletableFuture<Long> rejoin = CompletableFuture.supplyAsync(() -> service.loadSession(uuid));
+        assertThrows(TimeoutException.class, () -> rejoin.get(200, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        autosave.get(5, TimeUnit.SECONDS);
+        rejoin.get(5, TimeUnit.SECONDS);
+        assertEquals(42L, service.getCachedPlayerData(uuid).orElseThrow().getLastLogin());
+    }
+
+    private static PlayerData copyOf(PlayerData data) {
+        PlayerData copy = new PlayerData();
+        copy.setUuid(data.getUuid());
+        copy.setLastLogin(data.getLastLogin());
+        return copy;
+    }
+}
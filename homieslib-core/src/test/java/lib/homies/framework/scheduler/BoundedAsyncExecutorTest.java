@@ -0,0 +1,95 @@
+package lib.homies.framework.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedAsyncExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedAsyncExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void saturatedQueueRunsOffMainTasksOnTheCaller() throws Exception {
+        executor = new BoundedAsyncExecutor(1, 1, "test-", () -> false);
+        saturate();
+
+        List<Thread> ranOn = new CopyOnWriteArrayList<>();
+        executor.execute(() -> ranOn.add(Thread.currentThread()));
+
+        assertEquals(List.of(Thread.currentThread()), ranOn);
+        assertEquals(1, executor.getCallerRunCount());
+        assertEquals(0, executor.getDeferredCount());
+        assertEquals(1, executor.getLargestPoolSize());
+    }
+
+    @Test
+    void saturatedQueueDefersMainThreadTasksWithoutExtraThreads() throws Exception {
+        executor = new BoundedAsyncExecutor(1, 1, "test-", () -> true);
+        saturate();
+
+        CountDownLatch done = new CountDownLatch(3);
+        List<Thread> ranOn = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            executor.execute(() -> {
+                ranOn.add(Thread.currentThread());
+                done.countDown();
+            });
+        }
+
+        assertTrue(ranOn.isEmpty(), "The main thread must not run async tasks itself");
+        assertEquals(3, executor.getDeferredCount());
+        assertEquals(3, executor.getOverflowSize());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(ranOn.contains(Thread.currentThread()));
+        assertEquals(0, executor.getOverflowSize());
+        assertEquals(1, executor.getLargestPoolSize());
+    }
+
+    @Test
+    void tasksSubmittedAfterShutdownRunOnTheCaller() {
+        executor = new BoundedAsyncExecutor(1, 1, "test-", () -> true);
+        executor.shutdown();
+
+        List<Thread> ranOn = new CopyOnWriteArrayList<>();
+        executor.execute(() -> ranOn.add(Thread.currentThread()));
+
+        assertEquals(List.of(Thread.currentThread()), ranOn);
+    }
+
+    /**
+     * Blocks the only thread and fills the queue.
+     */
+    private void saturate() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            awaitRelease();
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        executor.execute(this::awaitRelease);
+        assertEquals(1, executor.getQueue().size());
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
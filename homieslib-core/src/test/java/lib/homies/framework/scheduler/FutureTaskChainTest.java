@@ -0,0 +1,140 @@
+package lib.homies.framework.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FutureTaskChainTest {
+
+    private final ManualExecutor sync = new ManualExecutor();
+    private final ManualExecutor async = new ManualExecutor();
+
+    @Test
+    void stagesRunOnTheirExecutors() {
+        List<String> ran = new ArrayList<>();
+        TaskChain<Void> chain = FutureTaskChain.start(() -> {
+                    ran.add("load");
+                    return 20;
+                }, async, sync, async)
+                .thenSync(value -> {
+                    ran.add("apply");
+                    return value + 1;
+                })
+                .thenAcceptAsync(value -> ran.add("save " + value));
+
+        async.runAll();
+        assertEquals(List.of("load"), ran);
+        sync.runAll();
+        assertEquals(List.of("load", "apply"), ran);
+        async.runAll();
+        assertEquals(List.of("load", "apply", "save 21"), ran);
+        assertTrue(chain.isDone());
+        assertFalse(chain.isCancelled());
+    }
+
+    @Test
+    void errorSkipsLaterStagesAndReachesTheHandlerUnwrapped() {
+        IllegalStateException failure = new IllegalStateException("Expected by the test");
+        AtomicReference<Throwable> handled = new AtomicReference<>();
+        TaskChain<Integer> chain = FutureTaskChain.<Integer>start(() -> {
+                    throw failure;
+                }, async, sync, async)
+                .thenSync(value -> {
+                    fail("A stage after a failure must not run");
+                    return value;
+                })
+                .exceptionally(t -> {
+                    handled.set(t);
+                    return -1;
+                });
+
+        async.runAll();
+        sync.runAll();
+
+        assertSame(failure, handled.get());
+        assertEquals(-1, chain.toFuture().join());
+    }
+
+    @Test
+    void whenCompleteSyncSeesTheUnwrappedError() {
+        IllegalStateException failure = new IllegalStateException("Expected by the test");
+        AtomicReference<Throwable> seen = new AtomicReference<>();
+        FutureTaskChain.<Integer>start(() -> 1, async, sync, async)
+                .thenAsync(value -> {
+                    throw failure;
+                })
+                .whenCompleteSync((value, t) -> seen.set(t));
+
+        async.runAll();
+        async.runAll();
+        sync.runAll();
+
+        assertSame(failure, seen.get());
+    }
+
+    @Test
+    void cancelBeforeStartSkipsTheWholeChain() {
+        TaskChain<Integer> first = FutureTaskChain.start(() -> {
+            fail("A cancelled chain must not start");
+            return 1;
+        }, async, sync, async);
+        TaskChain<Void> last = first.thenAcceptSync(value -> fail("A cancelled chain must not continue"));
+
+        last.cancel();
+        async.runAll();
+        sync.runAll();
+
+        assertTrue(first.isCancelled());
+        assertTrue(last.isCancelled());
+    }
+
+    @Test
+    void cancelMidChainStopsTheRemainingStages() {
+        List<String> ran = new ArrayList<>();
+        TaskChain<Integer> first = FutureTaskChain.start(() -> {
+            ran.add("load");
+            return 1;
+        }, async, sync, async);
+        TaskChain<Integer> second = first.thenSync(value -> {
+            ran.add("apply");
+            return value;
+        });
+        TaskChain<Void> third = second.thenAcceptAsync(value -> fail("A cancelled stage must not run"));
+
+        async.runAll();
+        sync.runAll();
+        first.cancel(); // Cancelling any stage cancels the rest of the chain
+        async.runAll();
+
+        assertEquals(List.of("load", "apply"), ran);
+        assertFalse(first.isCancelled(), "Completed stages keep their result");
+        assertFalse(second.isCancelled());
+        assertTrue(third.isCancelled());
+    }
+
+    /**
+     * An executor that queues tasks until the test runs them.
+     */
+    private static final class ManualExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package lib.homies.framework.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    @Test
+    void timerRunsOnTheAdvanceOfItsDelay() {
+        HashedTimingWheel wheel = new HashedTimingWheel(8);
+        List<Long> ranAt = new ArrayList<>();
+        wheel.schedule(() -> ranAt.add(wheel.getTick()), 3);
+
+        advance(wheel, 2);
+        assertTrue(ranAt.isEmpty());
+        advance(wheel, 1);
+        assertEquals(List.of(2L), ranAt);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void timerBeyondOneRevolutionWaitsForItsRound() {
+        HashedTimingWheel wheel = new HashedTimingWheel(4);
+        List<Long> ranAt = new ArrayList<>();
+        // Shares a bucket with ticks 1 and 5, which pass while its round counter is still running
+        wheel.schedule(() -> ranAt.add(wheel.getTick()), 10);
+
+        advance(wheel, 9);
+        assertTrue(ranAt.isEmpty());
+        assertEquals(1, wheel.size());
+        advance(wheel, 1);
+        assertEquals(List.of(9L), ranAt);
+    }
+
+    @Test
+    void timersInTheSameBucketRunInTheirOwnRound() {
+        HashedTimingWheel wheel = new HashedTimingWheel(4);
+        List<String> ran = new ArrayList<>();
+        wheel.schedule(() -> ran.add("far"), 9);
+        wheel.schedule(() -> ran.add("near"), 1);
+        wheel.schedule(() -> ran.add("middle"), 5);
+
+        advance(wheel, 1);
+        assertEquals(List.of("near"), ran);
+        advance(wheel, 4);
+        assertEquals(List.of("near", "middle"), ran);
+        advance(wheel, 4);
+        assertEquals(List.of("near", "middle", "far"), ran);
+    }
+
+    @Test
+    void timerCancelledBeforeReachingABucketNeverRuns() {
+        HashedTimingWheel wheel = new HashedTimingWheel(8);
+        HomiesTask task = wheel.schedule(() -> fail("A cancelled timer must not run"), 1);
+
+        task.cancel();
+        assertTrue(task.isCancelled());
+        assertTrue(task.isDone());
+        assertEquals(0, wheel.size());
+
+        advance(wheel, 2);
+    }
+
+    @Test
+    void timerCancelledInItsBucketNeverRuns() {
+        HashedTimingWheel wheel = new HashedTimingWheel(8);
+        List<String> ran = new ArrayList<>();
+        HomiesTask cancelled = wheel.schedule(() -> fail("A cancelled timer must not run"), 3);
+        wheel.schedule(() -> ran.add("kept"), 3);
+
+        advance(wheel, 1); // Both timers are in their bucket now
+        cancelled.cancel();
+        advance(wheel, 2);
+
+        assertEquals(List.of("kept"), ran);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelAfterRunningHasNoEffect() {
+        HashedTimingWheel wheel = new HashedTimingWheel(8);
+        HomiesTask task = wheel.schedule(() -> {}, 1);
+
+        advance(wheel, 1);
+        task.cancel();
+
+        assertTrue(task.isDone());
+        assertFalse(task.isCancelled());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlineRunsOnTheNextAdvance() {
+        HashedTimingWheel wheel = new HashedTimingWheel(8);
+        advance(wheel, 5);
+        List<String> ran = new ArrayList<>();
+        wheel.scheduleAt(() -> ran.add("late"), 1);
+
+        advance(wheel, 1);
+        assertEquals(List.of("late"), ran);
+    }
+
+    @Test
+    void throwingTimerDoesNotStopTheOthers() {
+        HashedTimingWheel wheel = new HashedTimingWheel(8);
+        List<String> ran = new ArrayList<>();
+        wheel.schedule(() -> {
+            throw new IllegalStateException("Expected by the test");
+        }, 1);
+        wheel.schedule(() -> ran.add("other"), 1);
+
+        advance(wheel, 1);
+        assertEquals(List.of("other"), ran);
+    }
+
+    @Test
+    void clearCancelsEveryTimer() {
+        HashedTimingWheel wheel = new HashedTimingWheel(8);
+        HomiesTask inBucket = wheel.schedule(() -> fail("Cleared timers must not run"), 2);
+        advance(wheel, 1);
+        HomiesTask pending = wheel.schedule(() -> fail("Cleared timers must not run"), 1);
+
+        wheel.clear();
+        advance(wheel, 3);
+
+        assertTrue(inBucket.isCancelled());
+        assertTrue(pending.isCancelled());
+        assertEquals(0, wheel.size());
+    }
+
+    private static void advance(HashedTimingWheel wheel, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            wheel.advance();
+        }
+    }
+}
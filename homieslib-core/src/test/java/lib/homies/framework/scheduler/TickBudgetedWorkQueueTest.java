@@ -0,0 +1,81 @@
+package lib.homies.framework.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickBudgetedWorkQueueTest {
+
+    @Test
+    void drainRunsEverythingWithinBudgetInOrder() {
+        TickBudgetedWorkQueue queue = new TickBudgetedWorkQueue("test", TimeUnit.SECONDS.toNanos(1));
+        List<Integer> ran = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int unit = i;
+            queue.submit(() -> ran.add(unit));
+        }
+
+        assertEquals(5, queue.getBacklog());
+        assertEquals(5, queue.drain());
+        assertEquals(List.of(0, 1, 2, 3, 4), ran);
+        assertEquals(0, queue.getBacklog());
+        assertEquals(5, queue.getPeakBacklog());
+        assertEquals(5, queue.getProcessedCount());
+    }
+
+    @Test
+    void drainStopsAtTheBudgetButAlwaysRunsOneUnit() {
+        TickBudgetedWorkQueue queue = new TickBudgetedWorkQueue("test", 1);
+        for (int i = 0; i < 3; i++) {
+            queue.submit(() -> sleep(2));
+        }
+
+        assertEquals(1, queue.drain());
+        assertEquals(2, queue.getBacklog());
+        assertEquals(1, queue.drain());
+        assertEquals(1, queue.drain());
+        assertEquals(0, queue.drain());
+        assertTrue(queue.getMaxTickNanos() >= TimeUnit.MILLISECONDS.toNanos(2));
+    }
+
+    @Test
+    void throwingUnitIsSkipped() {
+        TickBudgetedWorkQueue queue = new TickBudgetedWorkQueue("test", TimeUnit.SECONDS.toNanos(1));
+        List<String> ran = new ArrayList<>();
+        queue.submit(() -> {
+            throw new IllegalStateException("Expected by the test");
+        });
+        queue.submit(() -> ran.add("after"));
+
+        assertEquals(2, queue.drain());
+        assertEquals(List.of("after"), ran);
+    }
+
+    @Test
+    void clearDropsTheBacklog() {
+        TickBudgetedWorkQueue queue = new TickBudgetedWorkQueue("test", TimeUnit.SECONDS.toNanos(1));
+        queue.submitAll(List.of(() -> fail("Cleared work must not run"), () -> fail("Cleared work must not run")));
+
+        assertEquals(2, queue.clear());
+        assertEquals(0, queue.getBacklog());
+        assertEquals(0, queue.drain());
+    }
+
+    @Test
+    void nullWorkIsRejected() {
+        TickBudgetedWorkQueue queue = new TickBudgetedWorkQueue("test", 1);
+        assertThrows(IllegalArgumentException.class, () -> queue.submit(null));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
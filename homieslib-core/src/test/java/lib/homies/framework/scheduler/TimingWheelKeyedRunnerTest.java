@@ -0,0 +1,110 @@
+package lib.homies.framework.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelKeyedRunnerTest {
+
+    private final HashedTimingWheel wheel = new HashedTimingWheel(16);
+    private final List<String> ran = new ArrayList<>();
+
+    @Test
+    void debounceRunsTheLatestActionOnceTheKeyIsQuiet() {
+        KeyedRunner<String> runner = runner(TimingWheelKeyedRunner.Mode.DEBOUNCE, 3);
+        runner.trigger("key", () -> ran.add("first"));
+        advance(2);
+        runner.trigger("key", () -> ran.add("second")); // Moves the deadline to three ticks from now
+
+        advance(2);
+        assertTrue(ran.isEmpty());
+        advance(1);
+        assertEquals(List.of("second"), ran);
+        assertEquals(0, runner.getPendingCount());
+    }
+
+    @Test
+    void throttleRunsTheFirstActionNowAndTheLatestOnePerInterval() {
+        KeyedRunner<String> runner = runner(TimingWheelKeyedRunner.Mode.THROTTLE, 3);
+        runner.trigger("key", () -> ran.add("1"));
+        runner.trigger("key", () -> ran.add("2"));
+        runner.trigger("key", () -> ran.add("3"));
+        assertEquals(List.of("1"), ran);
+
+        advance(3);
+        assertEquals(List.of("1"), ran);
+        advance(1);
+        assertEquals(List.of("1", "3"), ran);
+
+        advance(3); // A quiet window closes the key
+        assertEquals(List.of("1", "3"), ran);
+        assertEquals(0, runner.getPendingCount());
+    }
+
+    @Test
+    void coalesceRunsTheLatestActionOneIntervalAfterTheFirstTrigger() {
+        KeyedRunner<String> runner = runner(TimingWheelKeyedRunner.Mode.COALESCE, 3);
+        runner.trigger("key", () -> ran.add("first"));
+        advance(1);
+        runner.trigger("key", () -> ran.add("second")); // Does not move the deadline
+
+        advance(1);
+        assertTrue(ran.isEmpty());
+        advance(1);
+        assertEquals(List.of("second"), ran);
+        assertEquals(0, runner.getPendingCount());
+    }
+
+    @Test
+    void keysAreIndependent() {
+        KeyedRunner<String> runner = runner(TimingWheelKeyedRunner.Mode.DEBOUNCE, 2);
+        runner.trigger("a", () -> ran.add("a"));
+        runner.trigger("b", () -> ran.add("b"));
+        assertEquals(2, runner.getPendingCount());
+
+        advance(2);
+        assertEquals(2, ran.size());
+        assertTrue(ran.containsAll(List.of("a", "b")));
+    }
+
+    @Test
+    void cancelledKeyDoesNotRun() {
+        KeyedRunner<String> runner = runner(TimingWheelKeyedRunner.Mode.DEBOUNCE, 2);
+        runner.trigger("a", () -> ran.add("a"));
+        runner.trigger("b", () -> ran.add("b"));
+
+        runner.cancel("a");
+        advance(4);
+        assertEquals(List.of("b"), ran);
+
+        runner.trigger("c", () -> ran.add("c"));
+        runner.cancelAll();
+        advance(4);
+        assertEquals(List.of("b"), ran);
+        assertEquals(0, runner.getPendingCount());
+    }
+
+    @Test
+    void keyCanBeTriggeredAgainAfterTheWheelWasCleared() {
+        KeyedRunner<String> runner = runner(TimingWheelKeyedRunner.Mode.COALESCE, 2);
+        runner.trigger("key", () -> ran.add("lost"));
+        wheel.clear(); // As done by SchedulerService#cancelAll
+
+        runner.trigger("key", () -> ran.add("kept"));
+        advance(2);
+        assertEquals(List.of("kept"), ran);
+    }
+
+    private KeyedRunner<String> runner(TimingWheelKeyedRunner.Mode mode, long intervalTicks) {
+        return new TimingWheelKeyedRunner<>(wheel, Runnable::run, mode, intervalTicks);
+    }
+
+    private void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            wheel.advance();
+        }
+    }
+}
@@ -32,9 +32,10 @@ public class CommandProcessor extends AbstractProcessor {
     public synchronized void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
         if (processingEnv.getElementUtils().getTypeElement("io.papermc.paper.threadedregions.RegionizedServer") != null) {
+            // Folia runs the Spigot module, which switches to its Folia scheduler backend at runtime.
             this.detectedPlatform = Platform.FOLIA;
-            this.HOMIES_PLAYER_WRAPPER_TYPE = ClassName.get("lib.homies.framework.folia.player", "FoliaPlayer");
-            this.HOMIES_LIB_PLATFORM_CLASS = ClassName.get("lib.homies.framework.folia", "HomiesLibFolia");
+            this.HOMIES_PLAYER_WRAPPER_TYPE = ClassName.get("lib.homies.framework.spigot.player", "SpigotPlayer");
+            this.HOMIES_LIB_PLATFORM_CLASS = ClassName.get("lib.homies.framework.spigot", "HomiesLibSpigot");
         } else if (processingEnv.getElementUtils().getTypeElement("org.bukkit.Bukkit") != null) {
             this.detectedPlatform = Platform.SPIGOT;
             this.HOMIES_PLAYER_WRAPPER_TYPE = ClassName.get("lib.homies.framework.spigot.player", "SpigotPlayer");
@@ -48,12 +49,11 @@ public class CommandProcessor extends AbstractProcessor {
     private final TypeName PLAYER_TYPE = ClassName.get("org.bukkit.entity", "Player");
     private final TypeName CHAT_COLOR_TYPE = ClassName.get("org.bukkit", "ChatColor");
     private final TypeName HOMIES_PLAYER_TYPE = ClassName.get("lib.homies.framework.player", "HomiesPlayer");
+    private final TypeName HOMIES_LIB_TYPE = ClassName.get("lib.homies.framework", "HomiesLib");
     private final TypeName SUBCOMMAND_INFO_TYPE = ClassName.get(SubcommandInfo.class);
     private final TypeName TAB_COMPLETER_TYPE = ClassName.get("org.bukkit.command", "TabCompleter");
     private final TypeName LIST_STRING_TYPE = ParameterizedTypeName.get(ClassName.get(List.class), ClassName.get(String.class));
 
-    private final Set<TypeElement> discoveredCommandClasses = new LinkedHashSet<>();
-
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
         for (Element element : roundEnv.getElementsAnnotatedWith(Command.class)) {
@@ -65,8 +65,6 @@ public class CommandProcessor extends AbstractProcessor {
                 continue;
             }
 
-            discoveredCommandClasses.add(typeElement);
-
             try {
                 generateCommandDispatcher(typeElement);
                 generateMetadataClass(typeElement);
@@ -76,35 +74,8 @@ public class CommandProcessor extends AbstractProcessor {
             }
         }
 
-        if (roundEnv.processingOver()) {
-            try {
-                generateCommandRegistry();
-            } catch (IOException e) {
-                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not generate command registry: " + e.getMessage());
-            }
-        }
-
-        return true;
-    }
-
-    private void generateCommandRegistry() throws IOException {
-        if (discoveredCommandClasses.isEmpty() || detectedPlatform == Platform.UNKNOWN) return;
-
-        String packageName = detectedPlatform.getPackageName() + ".command";
-        List<CodeBlock> classNames = discoveredCommandClasses.stream()
-                .map(te -> CodeBlock.of("$S", te.getQualifiedName().toString()))
-                .collect(Collectors.toList());
-
-        FieldSpec commandClassesField = FieldSpec.builder(LIST_STRING_TYPE, "COMMAND_CLASS_NAMES", Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
-                .initializer(CodeBlock.builder().add("$T.of(\n    ", List.class).add(CodeBlock.join(classNames, ",\n    ")).add("\n)").build())
-                .build();
-
-        TypeSpec registryClass = TypeSpec.classBuilder("HomiesCommandRegistry")
-                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
-                .addField(commandClassesField)
-                .build();
-
-        JavaFile.builder(packageName, registryClass).build().writeTo(processingEnv.getFiler());
+        // Not claimed, so that the IndexProcessor lists the command classes in the plugin index.
+        return false;
     }
 
     private void generateCommandDispatcher(TypeElement commandClass) throws IOException {
@@ -486,11 +457,7 @@ public class CommandProcessor extends AbstractProcessor {
         CodeBlock methodCall = CodeBlock.builder().add("$L.$L($L)", instanceName, method.getSimpleName(), CodeBlock.join(parameterInvocations, ", ")).build();
 
         if (method.getAnnotation(Async.class) != null) {
-            if (detectedPlatform == Platform.FOLIA) {
-                builder.addStatement("$T.getGlobalRegionScheduler().run(plugin, () -> $L)", Bukkit.class, methodCall);
-            } else {
-                builder.addStatement("$T.getScheduler().runTaskAsynchronously(plugin, () -> $L)", Bukkit.class, methodCall);
-            }
+            builder.addStatement("$T.getSchedulerService().runAsync(() -> $L)", HOMIES_LIB_TYPE, methodCall);
         } else {
             builder.addStatement(methodCall);
         }
@@ -581,7 +548,7 @@ public class CommandProcessor extends AbstractProcessor {
         SPIGOT, FOLIA, UNKNOWN;
 
         public String getPackageName() {
-            return this == SPIGOT ? "lib.homies.framework.spigot" : "lib.homies.framework.folia";
+            return "lib.homies.framework.spigot";
         }
     }
 }
@@ -0,0 +1,100 @@
+package processor;
+
+import com.google.auto.service.AutoService;
+import com.squareup.javapoet.*;
+import lib.homies.framework.command.annotations.Command;
+import lib.homies.framework.database.annotations.DbEntity;
+import lib.homies.framework.events.annotations.EventListener;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generates the plugin index: a single class listing the plugin's {@link EventListener}, {@link DbEntity} and {@link Command} classes.
+ * HomiesLib finds the index with one class lookup per plugin when it enables, instead of scanning every plugin's resources.
+ * The index lists class names rather than class literals, so that the classes can be loaded in parallel.
+ * <p>
+ * This processor does not claim the annotations, so the other processors still see {@link Command} and {@link DbEntity}.
+ */
+@AutoService(Processor.class)
+@SupportedAnnotationTypes({
+        "lib.homies.framework.events.annotations.EventListener",
+        "lib.homies.framework.database.annotations.DbEntity",
+        "lib.homies.framework.command.annotations.Command"
+})
+@SupportedSourceVersion(SourceVersion.RELEASE_17)
+public class IndexProcessor extends AbstractProcessor {
+
+    // Must match lib.homies.framework.index.PluginIndex#CLASS_NAME
+    private static final String INDEX_PACKAGE = "lib.homies.framework.generated";
+    private static final String INDEX_CLASS = "HomiesLibIndex";
+    private static final TypeName LIST_STRING_TYPE = ParameterizedTypeName.get(ClassName.get(List.class), ClassName.get(String.class));
+
+    private final Set<TypeElement> listenerClasses = new LinkedHashSet<>();
+    private final Set<TypeElement> entityClasses = new LinkedHashSet<>();
+    private final Set<TypeElement> commandClasses = new LinkedHashSet<>();
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        collect(roundEnv, EventListener.class, listenerClasses);
+        collect(roundEnv, DbEntity.class, entityClasses);
+        collect(roundEnv, Command.class, commandClasses);
+
+        if (roundEnv.processingOver() && !(listenerClasses.isEmpty() && entityClasses.isEmpty() && commandClasses.isEmpty())) {
+            try {
+                generateIndex();
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not generate the HomiesLib index: " + e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private void collect(RoundEnvironment roundEnv, Class<? extends Annotation> annotation, Set<TypeElement> classes) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@" + annotation.getSimpleName() + " can only be applied to classes.", element);
+                continue;
+            }
+            classes.add((TypeElement) element);
+        }
+    }
+
+    private void generateIndex() throws IOException {
+        TypeSpec indexClass = TypeSpec.classBuilder(INDEX_CLASS)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addJavadoc("The classes of this plugin that HomiesLib sets up when the plugin enables. Generated by the HomiesLib annotation processor.\n")
+                .addField(classNamesField("LISTENERS", listenerClasses))
+                .addField(classNamesField("ENTITIES", entityClasses))
+                .addField(classNamesField("COMMANDS", commandClasses))
+                .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+                .build();
+
+        JavaFile.builder(INDEX_PACKAGE, indexClass).build().writeTo(processingEnv.getFiler());
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Generated " + INDEX_PACKAGE + "." + INDEX_CLASS + " with "
+                + listenerClasses.size() + " listeners, " + entityClasses.size() + " entities and " + commandClasses.size() + " commands.");
+    }
+
+    private FieldSpec classNamesField(String name, Set<TypeElement> classes) {
+        List<CodeBlock> classNames = classes.stream()
+                .map(te -> CodeBlock.of("$S", processingEnv.getElementUtils().getBinaryName(te).toString()))
+                .collect(Collectors.toList());
+        CodeBlock initializer = classNames.isEmpty()
+                ? CodeBlock.of("$T.of()", List.class)
+                : CodeBlock.builder().add("$T.of(\n    ", List.class).add(CodeBlock.join(classNames, ",\n    ")).add("\n)").build();
+        return FieldSpec.builder(LIST_STRING_TYPE, name, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer(initializer)
+                .build();
+    }
+}
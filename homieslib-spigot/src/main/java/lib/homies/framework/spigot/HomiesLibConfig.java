@@ -41,4 +41,70 @@ public class HomiesLibConfig {
 
     @ConfigKey(path = "database.mysql.password")
     public String mysqlPassword = "";
+
+    @ConfigKey(path = "database.metrics.enabled", comment = "Record latency, error and cache statistics for every database call. View them with /homieslib db. Default: true")
+    public boolean databaseMetricsEnabled = true;
+
+    @ConfigKey(path = "database.metrics.slow-operation-threshold-ms", comment = "Database calls slower than this are logged with their SQL/Redis command. Set to 0 to disable. Default: 50")
+    public int databaseSlowOperationThresholdMs = 50;
+
+    @ConfigKey(path = "database.metrics.slow-operation-log-size", comment = "How many of the most recent slow database calls /homieslib db slow shows. Default: 50")
+    public int databaseSlowOperationLogSize = 50;
+
+    @ConfigKey(path = "database.warmup.enabled", comment = "Preload entity types marked @DbEntity(preload = true) from MySQL into Redis on startup. Only used when Redis is enabled. Default: false")
+    public boolean databaseWarmupEnabled = false;
+
+    @ConfigKey(path = "database.warmup.batch-size", comment = "How many rows are read from MySQL and written to Redis at a time during warm-up. Default: 500")
+    public int databaseWarmupBatchSize = 500;
+
+    @ConfigKey(path = "database.warmup.rows-per-second", comment = "Upper limit on rows loaded per second during warm-up, so it does not starve live queries. Set to 0 for no limit. Default: 5000")
+    public int databaseWarmupRowsPerSecond = 5000;
+
+    @ConfigKey(path = "database.warmup.parallelism", comment = "How many entity types are warmed up at the same time. Default: 2")
+    public int databaseWarmupParallelism = 2;
+
+    @ConfigKey(path = "scheduler.async-executor", comment = "Where async tasks run: BUKKIT (Bukkit's scheduler), VIRTUAL (virtual threads, Java 21+) or BOUNDED (a fixed thread pool). Default: BUKKIT")
+    public String schedulerAsyncExecutor = "BUKKIT";
+
+    @ConfigKey(path = "scheduler.bounded-pool-size", comment = "Number of threads of the BOUNDED async executor. Default: 16")
+    public int schedulerBoundedPoolSize = 16;
+
+    @ConfigKey(path = "scheduler.bounded-queue-capacity", comment = "Maximum number of async tasks waiting for a thread of the BOUNDED executor. Default: 10000")
+    public int schedulerBoundedQueueCapacity = 10000;
+
+    @ConfigKey(path = "scheduler.work-queue-budget-ms", comment = "Time each work queue may spend per tick, in milliseconds, unless the queue sets its own budget. Default: 5.0")
+    public double schedulerWorkQueueBudgetMs = 5.0;
+
+    @ConfigKey(path = "scheduler.timings.enabled", comment = "Whether to record the execution time of every scheduled task. Can also be toggled with /homieslib timings on|off. Default: false")
+    public boolean schedulerTimingsEnabled = false;
+
+    @ConfigKey(path = "scheduler.timings.overrun-threshold-ms", comment = "Task executions longer than this many milliseconds are counted as overruns. Default: 5.0")
+    public double schedulerTimingsOverrunThresholdMs = 5.0;
+
+    @ConfigKey(path = "scheduler.timings.export-interval-minutes", comment = "How often to write a timings report to plugins/HomiesLib/timings. Set to 0 to disable. Default: 0")
+    public int schedulerTimingsExportIntervalMinutes = 0;
+
+    @ConfigKey(path = "scheduler.timings.export-keep", comment = "Number of most recent timings reports to keep. Default: 12")
+    public int schedulerTimingsExportKeep = 12;
+
+    @ConfigKey(path = "scheduler.load-shedding.enabled", comment = "Whether low-priority repeating tasks (animations, particle loops) are slowed down or skipped while the server is behind. Default: true")
+    public boolean schedulerLoadSheddingEnabled = true;
+
+    @ConfigKey(path = "scheduler.load-shedding.stretch-mspt", comment = "Average milliseconds between ticks at which low-priority tasks run at half their rate. 50 is a healthy server. Default: 55.0")
+    public double schedulerLoadSheddingStretchMspt = 55.0;
+
+    @ConfigKey(path = "scheduler.load-shedding.skip-mspt", comment = "Average milliseconds between ticks at which low-priority tasks are skipped until the server recovers. Default: 70.0")
+    public double schedulerLoadSheddingSkipMspt = 70.0;
+
+    @ConfigKey(path = "events.timings.enabled", comment = "Whether to record the execution time and exceptions of every event handler. Can also be toggled with /homieslib events on|off. Default: false")
+    public boolean eventsTimingsEnabled = false;
+
+    @ConfigKey(path = "events.network.enabled", comment = "Whether events marked @Networked are shared with the other servers through Redis. Requires Redis. Default: false")
+    public boolean eventsNetworkEnabled = false;
+
+    @ConfigKey(path = "events.network.channel", comment = "The Redis pub/sub channel the servers exchange networked events on. Default: homieslib:events")
+    public String eventsNetworkChannel = "homieslib:events";
+
+    @ConfigKey(path = "player-data.autosave-interval-seconds", comment = "How often changed player data of online players is saved to the database. Set to 0 to only save on quit. Default: 300")
+    public int playerDataAutosaveSeconds = 300;
 }
@@ -3,8 +3,13 @@ package lib.homies.framework.spigot;
 import lib.homies.framework.HomiesLib;
 import lib.homies.framework.cooldown.DefaultCooldownService;
 import lib.homies.framework.database.DatabaseService;
+import lib.homies.framework.database.annotations.DbEntity;
+import lib.homies.framework.database.metrics.DefaultDatabaseMetrics;
+import lib.homies.framework.database.metrics.InstrumentedDatabaseService;
+import lib.homies.framework.index.PluginIndex;
 import lib.homies.framework.party.DefaultPartyService;
 import lib.homies.framework.playerdata.DefaultPlayerDataService;
+import lib.homies.framework.scheduler.TaskTimings;
 import lib.homies.framework.spigot.command.SpigotCommandManager;
 import lib.homies.framework.spigot.config.SpigotConfigManager;
 import lib.homies.framework.spigot.database.SpigotCachingDatabaseService;
@@ -15,24 +20,24 @@ import lib.homies.framework.spigot.events.SpigotEventBus;
 import lib.homies.framework.spigot.events.SpigotEventManager;
 import lib.homies.framework.spigot.menu.SpigotMenuManager;
 import lib.homies.framework.spigot.minigame.DefaultMiniGameManager;
+import lib.homies.framework.spigot.playerdata.SpigotPlayerDataListener;
+import lib.homies.framework.spigot.scheduler.FoliaSchedulerService;
 import lib.homies.framework.spigot.scheduler.SpigotSchedulerService;
 import lib.homies.framework.spigot.utils.*;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.URL;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Enumeration;
 import java.util.List;
 import java.util.logging.Level;
 
 public final class HomiesLibSpigot extends JavaPlugin {
 
     private DatabaseService databaseService;
+    private SpigotRedisDatabaseService redisService;
     private HomiesLibConfig homiesLibConfig;
 
     @Override
@@ -46,21 +51,43 @@ public final class HomiesLibSpigot extends JavaPlugin {
         // These services must be initialized first as other components depend on them.
         HomiesLib.setEventBus(new SpigotEventBus(this));
         HomiesLib.setConfigManager(new SpigotConfigManager());
-        HomiesLib.setSchedulerService(new SpigotSchedulerService(this));
+        HomiesLib.setSchedulerService(FoliaSchedulerService.isFolia() ? new FoliaSchedulerService(this) : new SpigotSchedulerService(this));
 
         // --- CONFIGURATION LOADING ---
         SpigotPluginContext homiesLibPluginContext = new SpigotPluginContext(this);
         this.homiesLibConfig = HomiesLib.getConfigManager().loadConfig(homiesLibPluginContext, HomiesLibConfig.class).join();
+        SpigotSchedulerService schedulerService = (SpigotSchedulerService) HomiesLib.getSchedulerService();
+        schedulerService.configureAsyncExecutor(homiesLibConfig.schedulerAsyncExecutor,
+                homiesLibConfig.schedulerBoundedPoolSize, homiesLibConfig.schedulerBoundedQueueCapacity);
+        schedulerService.setDefaultWorkQueueBudget(homiesLibConfig.schedulerWorkQueueBudgetMs);
+        schedulerService.getTaskTimings().setEnabled(homiesLibConfig.schedulerTimingsEnabled);
+        schedulerService.getTaskTimings().setOverrunThresholdMillis(homiesLibConfig.schedulerTimingsOverrunThresholdMs);
+        scheduleTimingsExport(schedulerService.getTaskTimings());
+        schedulerService.getLoadMonitor().setEnabled(homiesLibConfig.schedulerLoadSheddingEnabled);
+        schedulerService.getLoadMonitor().setThresholds(homiesLibConfig.schedulerLoadSheddingStretchMspt,
+                homiesLibConfig.schedulerLoadSheddingSkipMspt);
+        ((SpigotEventBus) HomiesLib.getEventBus()).getEventTimings().setEnabled(homiesLibConfig.eventsTimingsEnabled);
 
         // --- DATABASE INITIALIZATION ---
-        List<Class<?>> entityClasses = discoverEntityClasses();
+        List<PluginIndex> pluginIndexes = discoverPluginIndexes();
+        List<Class<?>> entityClasses = discoverEntityClasses(pluginIndexes);
         initializeDatabase(homiesLibPluginContext, entityClasses);
-        HomiesLib.setDatabaseService(this.databaseService);
+        warmUpCache(entityClasses);
+        enableNetworkEvents();
+        if (this.databaseService != null && homiesLibConfig.databaseMetricsEnabled) {
+            DefaultDatabaseMetrics databaseMetrics = new DefaultDatabaseMetrics(
+                    homiesLibConfig.databaseSlowOperationThresholdMs, homiesLibConfig.databaseSlowOperationLogSize);
+            HomiesLib.setDatabaseMetrics(databaseMetrics);
+            HomiesLib.setDatabaseService(new InstrumentedDatabaseService(this.databaseService, databaseMetrics));
+        } else {
+            HomiesLib.setDatabaseService(this.databaseService);
+        }
 
         // --- FEATURE MANAGERS & UTILITIES INITIALIZATION ---
         HomiesLib.setMiniGameManager(new DefaultMiniGameManager());
         HomiesLib.setMenuManager(new SpigotMenuManager(this));
         HomiesLib.setPlayerDataService(new DefaultPlayerDataService());
+        initializePlayerDataSessions();
         HomiesLib.setCooldownService(new DefaultCooldownService());
         HomiesLib.setPartyService(new DefaultPartyService());
         HomiesLib.setTextUtils(new SpigotTextUtils());
@@ -73,11 +100,22 @@ public final class HomiesLibSpigot extends JavaPlugin {
         // --- COMMAND AND EVENT REGISTRATION ---
         // These should be last, as they may depend on all other services.
         new SpigotCommandManager(this).registerAllCommands();
-        new SpigotEventManager(this).registerAllListeners();
+        new SpigotEventManager(this).registerAllListeners(pluginIndexes);
 
         getLogger().info("HomiesLibSpigot enabled!");
     }
 
+    private void enableNetworkEvents() {
+        if (!homiesLibConfig.eventsNetworkEnabled) {
+            return;
+        }
+        if (redisService == null || redisService.getJedisPool() == null) {
+            getLogger().warning("The network event bus is enabled but Redis is not connected. Networked events stay on this server.");
+            return;
+        }
+        ((SpigotEventBus) HomiesLib.getEventBus()).enableNetwork(redisService.getJedisPool(), homiesLibConfig.eventsNetworkChannel);
+    }
+
     private void initializeDatabase(SpigotPluginContext context, List<Class<?>> entityClasses) {
         boolean connected = false;
 
@@ -93,6 +131,7 @@ public final class HomiesLibSpigot extends JavaPlugin {
             SpigotCachingDatabaseService cachingService = new SpigotCachingDatabaseService(redisService, mysqlService);
             if (cachingService.init()) {
                 this.databaseService = cachingService;
+                this.redisService = redisService;
                 connected = true;
             }
         }
@@ -123,8 +162,89 @@ public final class HomiesLibSpigot extends JavaPlugin {
         }
     }
 
+    private void warmUpCache(List<Class<?>> entityClasses) {
+        if (!homiesLibConfig.databaseWarmupEnabled || !(databaseService instanceof SpigotCachingDatabaseService)) {
+            return;
+        }
+        List<Class<?>> preloadClasses = new ArrayList<>();
+        for (Class<?> entityClass : entityClasses) {
+            DbEntity dbEntity = entityClass.getAnnotation(DbEntity.class);
+            if (dbEntity != null && dbEntity.preload()) {
+                preloadClasses.add(entityClass);
+            }
+        }
+        // Runs in the background; reads fall through to MySQL until their rows are cached.
+        ((SpigotCachingDatabaseService) databaseService).warmUp(preloadClasses, homiesLibConfig.databaseWarmupBatchSize,
+                homiesLibConfig.databaseWarmupRowsPerSecond, homiesLibConfig.databaseWarmupParallelism);
+    }
+
+    /**
+     * Retrieves the framework's own configuration.
+     * @return The loaded {@link HomiesLibConfig}.
+     */
+    public HomiesLibConfig getHomiesLibConfig() {
+        return homiesLibConfig;
+    }
+
+    private void scheduleTimingsExport(TaskTimings taskTimings) {
+        long intervalTicks = homiesLibConfig.schedulerTimingsExportIntervalMinutes * 60L * 20L;
+        if (intervalTicks <= 0) {
+            return;
+        }
+        Path directory = getDataFolder().toPath().resolve("timings");
+        HomiesLib.getSchedulerService().task()
+                .run(() -> {
+                    try {
+                        taskTimings.export(directory, homiesLibConfig.schedulerTimingsExportKeep);
+                    } catch (IOException e) {
+                        getLogger().log(Level.WARNING, "Could not write the task timings report.", e);
+                    }
+                })
+                .name("HomiesLib timings export")
+                .async()
+                .delay(intervalTicks)
+                .repeat(intervalTicks)
+                .start();
+    }
+
+    private void initializePlayerDataSessions() {
+        SpigotPlayerDataListener playerDataListener = new SpigotPlayerDataListener(this, HomiesLib.getPlayerDataService());
+        getServer().getPluginManager().registerEvents(playerDataListener, this);
+        playerDataListener.loadOnlinePlayers();
+        HomiesLib.getSchedulerService().task()
+                .run(playerDataListener::expirePreloads)
+                .name("HomiesLib player data preload expiry")
+                .async()
+                .delay(20L * 30)
+                .repeat(20L * 30)
+                .start();
+
+        long autosaveTicks = homiesLibConfig.playerDataAutosaveSeconds * 20L;
+        if (autosaveTicks > 0) {
+            HomiesLib.getSchedulerService().task()
+                    .run(HomiesLib.getPlayerDataService()::flushDirty)
+                    .name("HomiesLib player data autosave")
+                    .async()
+                    .delay(autosaveTicks)
+                    .repeat(autosaveTicks)
+                    .start();
+        }
+    }
+
     @Override
     public void onDisable() {
+        if (HomiesLib.getPlayerDataService() != null) {
+            // Must run before the database service is shut down.
+            HomiesLib.getPlayerDataService().flushAll();
+        }
+        if (HomiesLib.getSchedulerService() instanceof SpigotSchedulerService) {
+            // Let in-flight async tasks finish while the database is still available.
+            ((SpigotSchedulerService) HomiesLib.getSchedulerService()).shutdown();
+        }
+        if (HomiesLib.getEventBus() instanceof SpigotEventBus) {
+            // Publishes the last batch while Redis is still connected.
+            ((SpigotEventBus) HomiesLib.getEventBus()).disableNetwork();
+        }
         if (databaseService != null) {
             getLogger().info("Disabling Database Service...");
             if (databaseService instanceof SpigotCachingDatabaseService) {
@@ -139,35 +259,25 @@ public final class HomiesLibSpigot extends JavaPlugin {
         getLogger().info("HomiesLibSpigot disabled!");
     }
 
-    private List<Class<?>> discoverEntityClasses() {
-        List<Class<?>> discoveredClasses = new ArrayList<>();
-        String resourceName = "META-INF/homieslib/entities.list";
-
+    /**
+     * Finds the generated index of every plugin that has one. Plugins without HomiesLib annotations have no index
+     * and cost a single failed class lookup.
+     */
+    private List<PluginIndex> discoverPluginIndexes() {
+        List<PluginIndex> indexes = new ArrayList<>();
         for (Plugin plugin : Bukkit.getPluginManager().getPlugins()) {
             if (plugin.getClass().getClassLoader() == null) continue;
-            try {
-                Enumeration<URL> urls = plugin.getClass().getClassLoader().getResources(resourceName);
-                while (urls.hasMoreElements()) {
-                    URL url = urls.nextElement();
-                    try (InputStream is = url.openStream();
-                         BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            line = line.trim();
-                            if (!line.isEmpty()) {
-                                try {
-                                    discoveredClasses.add(Class.forName(line, true, plugin.getClass().getClassLoader()));
-                                } catch (ClassNotFoundException e) {
-                                    getLogger().log(Level.WARNING, "Could not load entity class '" + line + "' from plugin '" + plugin.getName() + "'. It might have been removed or renamed.");
-                                }
-                            }
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                // This is often noisy and not a true error, so we log at a lower level.
+            PluginIndex index = PluginIndex.find(plugin.getName(), plugin.getClass().getClassLoader());
+            if (index != null) {
+                indexes.add(index);
             }
         }
+        return indexes;
+    }
+
+    private List<Class<?>> discoverEntityClasses(List<PluginIndex> pluginIndexes) {
+        List<Class<?>> discoveredClasses = new ArrayList<>();
+        PluginIndex.loadClasses(pluginIndexes, PluginIndex::getEntities).values().forEach(discoveredClasses::addAll);
         if (!discoveredClasses.isEmpty()) {
             getLogger().info("Discovered " + discoveredClasses.size() + " @DbEntity classes across all plugins.");
         }
@@ -0,0 +1,298 @@
+package lib.homies.framework.spigot.command;
+
+import lib.homies.framework.HomiesLib;
+import lib.homies.framework.command.annotations.Command;
+import lib.homies.framework.command.annotations.SubCommand;
+import lib.homies.framework.database.metrics.DatabaseMetrics;
+import lib.homies.framework.database.metrics.OperationStats;
+import lib.homies.framework.database.metrics.SlowOperation;
+import lib.homies.framework.events.EventTimingStats;
+import lib.homies.framework.events.EventTimings;
+import lib.homies.framework.scheduler.BoundedAsyncExecutor;
+import lib.homies.framework.scheduler.TaskTimingStats;
+import lib.homies.framework.scheduler.TaskTimings;
+import lib.homies.framework.scheduler.TickBudgetedWorkQueue;
+import lib.homies.framework.scheduler.TickLoadMonitor;
+import lib.homies.framework.spigot.HomiesLibSpigot;
+import lib.homies.framework.spigot.events.SpigotEventBus;
+import lib.homies.framework.spigot.scheduler.SpigotSchedulerService;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The administrative {@code /homieslib} command, used to inspect the framework's runtime state.
+ */
+@Command(name = "homieslib", aliases = {"hlib"}, description = "HomiesLib administration.", permission = "homieslib.admin")
+public class HomiesLibCommand {
+
+    private static final int MAX_LINES = 10;
+
+    @Command
+    public void help(CommandSender sender) {
+        send(sender, "&6HomiesLib &7commands:");
+        send(sender, "&e/homieslib db &7- Database latency, errors and cache hit ratio per operation");
+        send(sender, "&e/homieslib db slow &7- The most recent slow database operations");
+        send(sender, "&e/homieslib db reset &7- Clear the recorded database statistics");
+        send(sender, "&e/homieslib scheduler &7- Async executor and main-thread work queue statistics");
+        send(sender, "&e/homieslib timings [on|off|reset|export] &7- Execution time of scheduled tasks");
+    }
+
+    @SubCommand(value = "db", description = "Shows database statistics per entity type and operation.")
+    public void database(CommandSender sender) {
+        DatabaseMetrics metrics = getDatabaseMetrics(sender);
+        if (metrics == null) {
+            return;
+        }
+        List<OperationStats> stats = metrics.getOperationStats();
+        if (stats.isEmpty()) {
+            send(sender, "&7No database operations recorded yet.");
+            return;
+        }
+        send(sender, "&6Database operations &7(by total time, top " + Math.min(MAX_LINES, stats.size()) + " of " + stats.size() + "):");
+        for (OperationStats op : stats.subList(0, Math.min(MAX_LINES, stats.size()))) {
+            StringBuilder line = new StringBuilder(String.format("&e%s.%s &f%d&7x mean &f%.2fms &7p95 &f%.1fms &7max &f%.1fms &7rows &f%d",
+                    op.getEntityType(), op.getOperation(), op.getCount(), op.getMeanMillis(), op.getP95Millis(),
+                    op.getMaxNanos() / 1_000_000.0, op.getRowsReturned()));
+            if (op.getErrors() > 0) {
+                line.append(" &cerrors ").append(op.getErrors());
+            }
+            if (op.getCacheHitRatio() >= 0) {
+                line.append(String.format(" &7cache &f%.0f%%", op.getCacheHitRatio() * 100));
+            }
+            send(sender, line.toString());
+        }
+    }
+
+    @SubCommand(value = "db slow", description = "Shows the most recent slow database operations.")
+    public void slowOperations(CommandSender sender) {
+        DatabaseMetrics metrics = getDatabaseMetrics(sender);
+        if (metrics == null) {
+            return;
+        }
+        List<SlowOperation> slow = metrics.getSlowOperations();
+        if (slow.isEmpty()) {
+            send(sender, "&7No database operations slower than " + metrics.getSlowThresholdMillis() + "ms recorded.");
+            return;
+        }
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+        send(sender, "&6Slow database operations &7(over " + metrics.getSlowThresholdMillis() + "ms, newest first):");
+        for (SlowOperation op : slow.subList(0, Math.min(MAX_LINES, slow.size()))) {
+            send(sender, String.format("&7%s &e%s.%s &f%.1fms%s",
+                    timeFormat.format(new Date(op.getTimestamp())), op.getEntityType(), op.getOperation(),
+                    op.getDurationMillis(), op.isFailed() ? " &c(failed)" : ""));
+            if (!op.getCommand().isEmpty()) {
+                sender.sendMessage(ChatColor.DARK_GRAY + "  " + op.getCommand());
+            }
+        }
+    }
+
+    @SubCommand(value = "db reset", description = "Clears the recorded database statistics.")
+    public void resetDatabaseMetrics(CommandSender sender) {
+        DatabaseMetrics metrics = getDatabaseMetrics(sender);
+        if (metrics == null) {
+            return;
+        }
+        metrics.reset();
+        send(sender, "&aDatabase statistics cleared.");
+    }
+
+    @SubCommand(value = "scheduler", description = "Shows async executor and main-thread work queue statistics.")
+    public void scheduler(CommandSender sender) {
+        if (!(HomiesLib.getSchedulerService() instanceof SpigotSchedulerService)) {
+            send(sender, "&cThe scheduler service does not report statistics.");
+            return;
+        }
+        SpigotSchedulerService schedulerService = (SpigotSchedulerService) HomiesLib.getSchedulerService();
+        send(sender, "&6Async executor: &f" + schedulerService.getAsyncExecutorMode());
+        if (schedulerService.getAsyncExecutor() instanceof BoundedAsyncExecutor) {
+            BoundedAsyncExecutor executor = (BoundedAsyncExecutor) schedulerService.getAsyncExecutor();
+            send(sender, String.format("&7Threads &f%d&7/&f%d &7active &f%d &7| queue &f%d&7/&f%d &7peak &f%d &7| completed &f%d%s%s",
+                    executor.getPoolSize(), executor.getMaximumPoolSize(), executor.getActiveCount(),
+                    executor.getQueue().size(), executor.getQueueCapacity(), executor.getPeakQueueSize(),
+                    executor.getCompletedTaskCount(),
+                    executor.getCallerRunCount() > 0 ? " &cran on caller " + executor.getCallerRunCount() : "",
+                    executor.getDeferredCount() > 0 ? " &cdeferred " + executor.getDeferredCount() + " (" + executor.getOverflowSize() + " waiting)" : ""));
+        }
+        TickLoadMonitor loadMonitor = schedulerService.getLoadMonitor();
+        send(sender, String.format("&6Load: &f%.1f TPS &7(%.1fms between ticks) &7| level &f%s &7| low-priority runs skipped &f%d",
+                loadMonitor.getTps(), loadMonitor.getMspt(), loadMonitor.getLevel(), loadMonitor.getSkippedCount()));
+        send(sender, "&6Lightweight timers pending: &f" + schedulerService.getPendingLightweightTimers());
+        Set<String> groups = schedulerService.getGroupNames();
+        if (!groups.isEmpty()) {
+            StringBuilder line = new StringBuilder("&6Task groups:");
+            for (String group : groups) {
+                line.append(" &e").append(group).append(" &f").append(schedulerService.getGroupSize(group));
+            }
+            send(sender, line.toString());
+        }
+        for (TickBudgetedWorkQueue queue : schedulerService.getWorkQueues()) {
+            send(sender, String.format("&eQueue %s &7backlog &f%d &7peak &f%d &7| tick avg &f%.2fms &7max &f%.2fms &7budget &f%.1fms &7| processed &f%d",
+                    queue.getName(), queue.getBacklog(), queue.getPeakBacklog(), queue.getAverageTickNanos() / 1_000_000.0,
+                    queue.getMaxTickNanos() / 1_000_000.0, queue.getBudgetNanos() / 1_000_000.0, queue.getProcessedCount()));
+        }
+    }
+
+    @SubCommand(value = "timings", description = "Shows the scheduled tasks that take the most time.")
+    public void timings(CommandSender sender) {
+        TaskTimings timings = getTaskTimings(sender);
+        if (timings == null) {
+            return;
+        }
+        List<TaskTimingStats> stats = timings.getStats();
+        if (stats.isEmpty()) {
+            send(sender, timings.isEnabled()
+                    ? "&7No task executions recorded yet."
+                    : "&7Task timings are disabled. Enable them with &e/homieslib timings on&7.");
+            return;
+        }
+        double minutes = (System.currentTimeMillis() - timings.getSince()) / 60_000.0;
+        send(sender, String.format("&6Scheduled tasks &7(by total time over %.1f minutes, top %d of %d):",
+                minutes, Math.min(MAX_LINES, stats.size()), stats.size()));
+        for (TaskTimingStats task : stats.subList(0, Math.min(MAX_LINES, stats.size()))) {
+            send(sender, String.format("&e%s%s &7[%s] &f%d&7x total &f%.1fms &7mean &f%.2fms &7max &f%.1fms%s",
+                    task.getName(), task.getGroup() != null ? " &7(" + task.getGroup() + ")" : "", task.isSync() ? "main" : "async",
+                    task.getCount(), task.getTotalNanos() / 1_000_000.0, task.getMeanMillis(), task.getMaxNanos() / 1_000_000.0,
+                    task.getOverruns() > 0 ? " &coverruns " + task.getOverruns() : ""));
+        }
+    }
+
+    @SubCommand(value = "timings on", description = "Starts timing newly scheduled tasks.")
+    public void enableTimings(CommandSender sender) {
+        TaskTimings timings = getTaskTimings(sender);
+        if (timings != null) {
+            timings.setEnabled(true);
+            send(sender, "&aTask timings enabled. Tasks scheduled from now on are timed.");
+        }
+    }
+
+    @SubCommand(value = "timings off", description = "Stops timing newly scheduled tasks.")
+    public void disableTimings(CommandSender sender) {
+        TaskTimings timings = getTaskTimings(sender);
+        if (timings != null) {
+            timings.setEnabled(false);
+            send(sender, "&aTask timings disabled. Tasks scheduled from now on are not timed.");
+        }
+    }
+
+    @SubCommand(value = "timings reset", description = "Clears the recorded task timings.")
+    public void resetTimings(CommandSender sender) {
+        TaskTimings timings = getTaskTimings(sender);
+        if (timings != null) {
+            timings.reset();
+            send(sender, "&aTask timings cleared.");
+        }
+    }
+
+    @SubCommand(value = "timings export", description = "Writes the recorded task timings to a file.")
+    public void exportTimings(CommandSender sender) {
+        TaskTimings timings = getTaskTimings(sender);
+        if (timings == null) {
+            return;
+        }
+        HomiesLibSpigot plugin = HomiesLibSpigot.getPlugin(HomiesLibSpigot.class);
+        Path directory = plugin.getDataFolder().toPath().resolve("timings");
+        HomiesLib.getSchedulerService()
+                .supplyAsync(() -> {
+                    try {
+                        return timings.export(directory, plugin.getHomiesLibConfig().schedulerTimingsExportKeep);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .whenCompleteSync((file, error) -> {
+                    if (error != null) {
+                        send(sender, "&cCould not write the timings report: " + error.getMessage());
+                    } else {
+                        send(sender, "&aTimings report written to &f" + plugin.getDataFolder().toPath().relativize(file));
+                    }
+                });
+    }
+
+    @SubCommand(value = "events", description = "Shows the event handlers that take the most time.")
+    public void events(CommandSender sender) {
+        EventTimings timings = getEventTimings(sender);
+        if (timings == null) {
+            return;
+        }
+        List<EventTimingStats> stats = timings.getStats();
+        if (stats.isEmpty()) {
+            send(sender, timings.isEnabled()
+                    ? "&7No event handler calls recorded yet."
+                    : "&7Event timings are disabled. Enable them with &e/homieslib events on&7.");
+            return;
+        }
+        double minutes = (System.currentTimeMillis() - timings.getSince()) / 60_000.0;
+        send(sender, String.format("&6Event handlers &7(by total time over %.1f minutes, top %d of %d):",
+                minutes, Math.min(MAX_LINES, stats.size()), stats.size()));
+        for (EventTimingStats handler : stats.subList(0, Math.min(MAX_LINES, stats.size()))) {
+            send(sender, String.format("&e%s &7(%s) &7on &f%s &7[%s] &f%d&7x total &f%.1fms &7mean &f%.3fms &7max &f%.1fms%s",
+                    handler.getHandler(), handler.getOwner() != null ? handler.getOwner() : "unknown plugin",
+                    handler.getEventClass().getSimpleName(), handler.isPlatform() ? "platform" : "lib",
+                    handler.getCount(), handler.getTotalNanos() / 1_000_000.0, handler.getMeanMillis(), handler.getMaxNanos() / 1_000_000.0,
+                    handler.getExceptions() > 0 ? String.format(" &cerrors %d (%.1f%%)", handler.getExceptions(), handler.getErrorRate() * 100) : ""));
+        }
+    }
+
+    @SubCommand(value = "events on", description = "Starts timing event handlers.")
+    public void enableEventTimings(CommandSender sender) {
+        EventTimings timings = getEventTimings(sender);
+        if (timings != null) {
+            timings.setEnabled(true);
+            send(sender, "&aEvent timings enabled.");
+        }
+    }
+
+    @SubCommand(value = "events off", description = "Stops timing event handlers.")
+    public void disableEventTimings(CommandSender sender) {
+        EventTimings timings = getEventTimings(sender);
+        if (timings != null) {
+            timings.setEnabled(false);
+            send(sender, "&aEvent timings disabled.");
+        }
+    }
+
+    @SubCommand(value = "events reset", description = "Clears the recorded event handler timings.")
+    public void resetEventTimings(CommandSender sender) {
+        EventTimings timings = getEventTimings(sender);
+        if (timings != null) {
+            timings.reset();
+            send(sender, "&aEvent timings cleared.");
+        }
+    }
+
+    private EventTimings getEventTimings(CommandSender sender) {
+        if (!(HomiesLib.getEventBus() instanceof SpigotEventBus)) {
+            send(sender, "&cThe event bus does not record event timings.");
+            return null;
+        }
+        return ((SpigotEventBus) HomiesLib.getEventBus()).getEventTimings();
+    }
+
+    private TaskTimings getTaskTimings(CommandSender sender) {
+        if (!(HomiesLib.getSchedulerService() instanceof SpigotSchedulerService)) {
+            send(sender, "&cThe scheduler service does not record task timings.");
+            return null;
+        }
+        return ((SpigotSchedulerService) HomiesLib.getSchedulerService()).getTaskTimings();
+    }
+
+    private DatabaseMetrics getDatabaseMetrics(CommandSender sender) {
+        DatabaseMetrics metrics = HomiesLib.getDatabaseMetrics();
+        if (metrics == null) {
+            send(sender, "&cDatabase metrics are disabled or no database is connected.");
+        }
+        return metrics;
+    }
+
+    private void send(CommandSender sender, String message) {
+        sender.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
+    }
+}
@@ -1,6 +1,7 @@
 package lib.homies.framework.spigot.command;
 
 import lib.homies.framework.command.annotations.Command;
+import lib.homies.framework.index.PluginIndex;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandExecutor;
@@ -17,7 +18,7 @@ import java.util.logging.Level;
 
 /**
  * Handles the automatic registration of all annotation-driven commands at runtime.
- * This manager discovers commands via the annotation processor-generated registry,
+ * This manager discovers commands via the annotation processor-generated plugin index,
  * removing the need for manual registration in plugin.yml.
  */
 public class SpigotCommandManager {
@@ -47,20 +48,14 @@ public class SpigotCommandManager {
     }
 
     /**
-     * Discovers and registers all commands annotated with @Command.
+     * Discovers and registers all commands annotated with @Command, as listed in the plugin's generated index.
      * This method should be called once during the plugin's onEnable phase.
      */
     public void registerAllCommands() {
         plugin.getLogger().info("Starting automatic command registration...");
         try {
-            // Use the plugin's classloader to find the generated registry
-            Class<?> registryClass = Class.forName("lib.homies.framework.spigot.command.HomiesCommandRegistry", true, plugin.getClass().getClassLoader());
-            java.net.URL location = registryClass.getProtectionDomain().getCodeSource().getLocation();
-            plugin.getLogger().info("Loaded HomiesCommandRegistry from: " + location.getFile());
-            Field commandClassesField = registryClass.getField("COMMAND_CLASS_NAMES");
-            @SuppressWarnings("unchecked")
-            List<String> commandClassNames = (List<String>) commandClassesField.get(null);
-
+            PluginIndex index = PluginIndex.find(plugin.getName(), plugin.getClass().getClassLoader());
+            List<String> commandClassNames = index != null ? index.getCommands() : List.of();
             plugin.getLogger().info("Discovered command classes: " + commandClassNames);
 
             if (commandClassNames.isEmpty()) {
@@ -73,8 +68,6 @@ public class SpigotCommandManager {
             }
             plugin.getLogger().info("Successfully registered " + commandClassNames.size() + " command(s).");
 
-        } catch (ClassNotFoundException e) {
-            plugin.getLogger().info("No HomiesCommandRegistry found. Skipping automatic command registration. This is normal if no commands are defined.");
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "An error occurred during automatic command registration.", e);
         }
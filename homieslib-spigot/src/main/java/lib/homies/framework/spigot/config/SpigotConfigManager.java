@@ -6,6 +6,7 @@ import lib.homies.framework.config.ConfigManager;
 import lib.homies.framework.config.annotations.ConfigFile;
 import lib.homies.framework.config.annotations.ConfigKey;
 import lib.homies.framework.events.MenuReloadEvent;
+import lib.homies.framework.scheduler.KeyedRunner;
 import org.bukkit.ChatColor;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -18,6 +19,8 @@ import java.util.concurrent.CompletableFuture;
 
 public class SpigotConfigManager implements ConfigManager {
 
+    private volatile KeyedRunner<Class<MenuReloadEvent>> menuReloads;
+
     @Override
     public <T> CompletableFuture<T> loadConfig(PluginContext callingPluginContext, Class<T> configClass) {
         return CompletableFuture.supplyAsync(() -> {
@@ -109,8 +112,8 @@ public class SpigotConfigManager implements ConfigManager {
 
                 fileConfig.save(file);
 
-                // Dispatch the event back to the main thread
-                HomiesLib.getSchedulerService().runLater(() -> HomiesLib.getEventBus().call(new MenuReloadEvent()), 1L);
+                // Dispatch the event back to the main thread, once for all configs loaded in the same tick
+                getMenuReloads().trigger(MenuReloadEvent.class, () -> HomiesLib.getEventBus().call(new MenuReloadEvent()));
 
                 return configInstance;
             } catch (Exception e) {
@@ -119,6 +122,20 @@ public class SpigotConfigManager implements ConfigManager {
         });
     }
 
+    // Created lazily because the config manager is set up before the scheduler service.
+    private KeyedRunner<Class<MenuReloadEvent>> getMenuReloads() {
+        KeyedRunner<Class<MenuReloadEvent>> runner = menuReloads;
+        if (runner == null) {
+            synchronized (this) {
+                if (menuReloads == null) {
+                    menuReloads = HomiesLib.getSchedulerService().coalesce(1L);
+                }
+                runner = menuReloads;
+            }
+        }
+        return runner;
+    }
+
     @Override
     public CompletableFuture<Void> saveConfig(PluginContext callingPluginContext, Object configInstance) {
         return CompletableFuture.runAsync(() -> {
@@ -1,41 +1,141 @@
 package lib.homies.framework.spigot.database;
 
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lib.homies.framework.database.DatabaseService;
 import lib.homies.framework.database.IRepository;
+import lib.homies.framework.database.annotations.DbField;
+import lib.homies.framework.database.metrics.DatabaseTrace;
 import lib.homies.framework.spigot.HomiesLibSpigot;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class SpigotCachingDatabaseService implements DatabaseService {
 
+    // A progress line is logged every this many batches of one entity type
+    private static final int WARM_UP_PROGRESS_BATCHES = 20;
+
     private final SpigotRedisDatabaseService redisService;
     private final SpigotMySQLDatabaseService mysqlService;
+    private final Logger logger;
+    private volatile ExecutorService warmUpExecutor;
+    // Map: Entity type being warmed up -> Rows deleted since its warm-up started, which the warm-up must not put back
+    private final Map<Class<?>, WarmUpDeletes> warmUpDeletes = new ConcurrentHashMap<>();
 
     public SpigotCachingDatabaseService(SpigotRedisDatabaseService redisService, SpigotMySQLDatabaseService mysqlService) {
+        this(redisService, mysqlService, HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger());
+    }
+
+    /**
+     * Constructs a caching service that reports to the given logger instead of the plugin's.
+     * This allows the service to run outside a server, e.g. in benchmarks.
+     */
+    public SpigotCachingDatabaseService(SpigotRedisDatabaseService redisService, SpigotMySQLDatabaseService mysqlService, Logger logger) {
         this.redisService = redisService;
         this.mysqlService = mysqlService;
+        this.logger = logger;
     }
 
     public boolean init() {
-        HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().info("Initializing Caching Database Service...");
+        logger.info("Initializing Caching Database Service...");
         boolean redisSuccess = redisService.init();
         if (!redisSuccess) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().severe("Redis service failed to initialize. Caching service will be disabled.");
+            logger.severe("Redis service failed to initialize. Caching service will be disabled.");
             return false;
         }
         mysqlService.init(); // Initialize MySQL, but its success is not critical for the cache to function
-        HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().info("Caching Database Service initialized successfully.");
+        logger.info("Caching Database Service initialized successfully.");
         return true;
     }
 
+    /**
+     * Preloads every stored entity of the given types from MySQL into Redis in the background, so the cache does not
+     * start cold after a restart. Types are warmed up in parallel; rows are read in keyset-paginated batches and written
+     * to Redis in one pipeline per batch. Only keys missing from Redis are filled, so entities saved while the warm-up runs
+     * are not overwritten with the older rows, and rows deleted through this service while the warm-up runs are skipped,
+     * so a batch read before the delete does not bring them back. A shared rate limit keeps the warm-up from starving the live workload.
+     *
+     * @param entityTypes   The entity types to preload.
+     * @param batchSize     The number of rows read and written per batch.
+     * @param rowsPerSecond The maximum number of rows loaded per second across all types. Set to 0 or less for no limit.
+     * @param parallelism   The number of entity types warmed up at the same time.
+     * @return A {@link CompletableFuture} that completes when every type has been warmed up or the warm-up was cancelled.
+     */
+    public CompletableFuture<Void> warmUp(List<Class<?>> entityTypes, int batchSize, int rowsPerSecond, int parallelism) {
+        if (entityTypes.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, entityTypes.size())),
+                new ThreadFactoryBuilder().setNameFormat("HomiesLib-Warmup-%d").setDaemon(true).build());
+        this.warmUpExecutor = executor;
+        RateLimiter rateLimiter = rowsPerSecond > 0 ? RateLimiter.create(rowsPerSecond) : null;
+        int size = Math.max(1, batchSize);
+        long started = System.currentTimeMillis();
+        logger.info("Warming up the cache for " + entityTypes.size() + " entity type(s)...");
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[entityTypes.size()];
+        for (int i = 0; i < entityTypes.size(); i++) {
+            Class<?> entityType = entityTypes.get(i);
+            futures[i] = CompletableFuture.runAsync(() -> warmUp(entityType, size, rateLimiter), executor);
+        }
+        return CompletableFuture.allOf(futures).whenComplete((ignored, throwable) -> {
+            boolean cancelled = executor.isShutdown();
+            executor.shutdown();
+            if (!cancelled) {
+                logger.info("Cache warm-up finished in " + (System.currentTimeMillis() - started) / 1000.0 + "s.");
+            }
+        });
+    }
+
+    private <T> void warmUp(Class<T> entityType, int batchSize, RateLimiter rateLimiter) {
+        long started = System.currentTimeMillis();
+        long[] loaded = {0};
+        WarmUpDeletes deletes = new WarmUpDeletes();
+        warmUpDeletes.put(entityType, deletes); // Before the first read, so every later delete is seen
+        try {
+            mysqlService.forEachBatch(entityType, batchSize, batch -> {
+                if (Thread.currentThread().isInterrupted()) {
+                    return false; // Cancelled by onDisable
+                }
+                if (rateLimiter != null) {
+                    rateLimiter.acquire(batch.size());
+                }
+                // Filtered and written under the lock, so a concurrent delete either filters the row out here
+                // or removes it from Redis after it was written
+                synchronized (deletes) {
+                    redisService.saveAllIfAbsent(deletes.filter(batch)); // Rows saved since they were read are already newer in Redis
+                }
+                loaded[0] += batch.size();
+                if ((loaded[0] / batchSize) % WARM_UP_PROGRESS_BATCHES == 0) {
+                    logger.info("Cache warm-up: loaded " + loaded[0] + " " + entityType.getSimpleName() + " so far...");
+                }
+                return true;
+            });
+            logger.info("Cache warm-up: loaded " + loaded[0] + " " + entityType.getSimpleName() + " in "
+                    + (System.currentTimeMillis() - started) / 1000.0 + "s.");
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Cache warm-up of " + entityType.getSimpleName() + " failed after " + loaded[0] + " entities.", e);
+        } finally {
+            warmUpDeletes.remove(entityType, deletes);
+        }
+    }
+
     public void onDisable() {
-        HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().info("Disabling Caching Database Service...");
+        logger.info("Disabling Caching Database Service...");
+        if (warmUpExecutor != null) {
+            warmUpExecutor.shutdownNow();
+        }
         redisService.onDisable();
         mysqlService.onDisable();
-        HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().info("Caching Database Service disabled.");
+        logger.info("Caching Database Service disabled.");
     }
 
     @Override
@@ -49,7 +149,8 @@ public class SpigotCachingDatabaseService implements DatabaseService {
             mysqlService.saveEntity(entity);
             redisService.saveEntity(entity);
         } catch (Exception e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to save entity to caching service.", e);
+            logger.log(Level.SEVERE, "Failed to save entity to caching service.", e);
+            DatabaseTrace.error(e);
         }
     }
 
@@ -58,22 +159,55 @@ public class SpigotCachingDatabaseService implements DatabaseService {
         try {
             Optional<T> entity = redisService.findById(entityType, id);
             if (entity.isPresent()) {
+                DatabaseTrace.cacheHit(1);
                 return entity;
             }
         } catch (Exception e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.WARNING, "Failed to retrieve from Redis. Falling back to MySQL.", e);
+            logger.log(Level.WARNING, "Failed to retrieve from Redis. Falling back to MySQL.", e);
+            DatabaseTrace.error(e);
         }
 
+        DatabaseTrace.cacheMiss(1);
         try {
             Optional<T> entity = mysqlService.findById(entityType, id);
             entity.ifPresent(redisService::saveEntity);
             return entity;
         } catch (Exception e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to retrieve entity from MySQL.", e);
+            logger.log(Level.SEVERE, "Failed to retrieve entity from MySQL.", e);
+            DatabaseTrace.error(e);
         }
         return Optional.empty();
     }
 
+    @Override
+    public Map<Class<?>, Object> findAllById(Collection<Class<?>> entityTypes, String id) {
+        Map<Class<?>, Object> found = new HashMap<>();
+        try {
+            found.putAll(redisService.findAllById(entityTypes, id));
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Failed to retrieve from Redis. Falling back to MySQL.", e);
+            DatabaseTrace.error(e);
+        }
+
+        List<Class<?>> misses = new ArrayList<>();
+        for (Class<?> entityType : entityTypes) {
+            if (!found.containsKey(entityType)) {
+                misses.add(entityType);
+            }
+        }
+        DatabaseTrace.cacheHit(found.size());
+        DatabaseTrace.cacheMiss(misses.size());
+        if (misses.isEmpty()) {
+            return found;
+        }
+
+        // A MySQL failure propagates: the misses may well be stored, so they must not be reported as absent.
+        Map<Class<?>, Object> loaded = mysqlService.findAllById(misses, id);
+        loaded.values().forEach(redisService::saveEntity);
+        found.putAll(loaded);
+        return found;
+    }
+
     @Override
     public <T> List<T> findByField(Class<T> entityType, String fieldName, Object value) {
         // For caching, complex queries like this usually bypass the cache and go to the source of truth.
@@ -81,7 +215,8 @@ public class SpigotCachingDatabaseService implements DatabaseService {
         try {
             return mysqlService.findByField(entityType, fieldName, value);
         } catch (Exception e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to find entities by field from MySQL.", e);
+            logger.log(Level.SEVERE, "Failed to find entities by field from MySQL.", e);
+            DatabaseTrace.error(e);
             return Collections.emptyList();
         }
     }
@@ -91,7 +226,8 @@ public class SpigotCachingDatabaseService implements DatabaseService {
         try {
             return mysqlService.findAll(entityType);
         } catch (Exception e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to find all entities from MySQL.", e);
+            logger.log(Level.SEVERE, "Failed to find all entities from MySQL.", e);
+            DatabaseTrace.error(e);
             return List.of();
         }
     }
@@ -100,9 +236,12 @@ public class SpigotCachingDatabaseService implements DatabaseService {
     public <T> void deleteEntity(T entity) {
         try {
             mysqlService.deleteEntity(entity);
+            String idColumnName = getIdColumnName(entity.getClass());
+            recordWarmUpDelete(entity.getClass(), idColumnName, getColumnValue(entity, idColumnName));
             redisService.deleteEntity(entity);
         } catch (Exception e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to delete entity from caching service.", e);
+            logger.log(Level.SEVERE, "Failed to delete entity from caching service.", e);
+            DatabaseTrace.error(e);
         }
     }
 
@@ -110,12 +249,84 @@ public class SpigotCachingDatabaseService implements DatabaseService {
     public <T> void deleteByField(Class<T> entityType, String fieldName, Object value) {
         try {
             mysqlService.deleteByField(entityType, fieldName, value);
+            recordWarmUpDelete(entityType, fieldName, value);
             // Invalidate relevant cache entries if possible, or clear all for this entity type
             // For simplicity, we'll just delete from Redis based on the field, which might not be precise.
             // A more robust solution would involve fetching IDs from MySQL first, then deleting from Redis by ID.
             redisService.deleteByField(entityType, fieldName, value);
         } catch (Exception e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to delete entities by field from caching service.", e);
+            logger.log(Level.SEVERE, "Failed to delete entities by field from caching service.", e);
+            DatabaseTrace.error(e);
+        }
+    }
+
+    /**
+     * Records a delete for a running warm-up of the type. Called after the rows are deleted from MySQL and before they
+     * are deleted from Redis: a warm-up that starts later can no longer read them, and one that is running either skips them
+     * or has written them before Redis is cleared.
+     */
+    private void recordWarmUpDelete(Class<?> entityType, String columnName, Object value) {
+        WarmUpDeletes deletes = warmUpDeletes.get(entityType);
+        if (deletes != null) {
+            deletes.add(columnName, value);
+        }
+    }
+
+    private static String getIdColumnName(Class<?> entityType) {
+        for (Field field : entityType.getDeclaredFields()) {
+            DbField dbField = field.getAnnotation(DbField.class);
+            if (dbField != null && dbField.id()) {
+                return dbField.columnName().isEmpty() ? field.getName() : dbField.columnName();
+            }
+        }
+        throw new IllegalStateException("Entity " + entityType.getName() + " does not have an ID field annotated with @DbField(id=true).");
+    }
+
+    private static Object getColumnValue(Object entity, String columnName) {
+        for (Field field : entity.getClass().getDeclaredFields()) {
+            DbField dbField = field.getAnnotation(DbField.class);
+            if (dbField != null && columnName.equals(dbField.columnName().isEmpty() ? field.getName() : dbField.columnName())) {
+                try {
+                    field.setAccessible(true);
+                    return field.get(entity);
+                } catch (IllegalAccessException e) {
+                    throw new RuntimeException("Failed to access field " + field.getName() + " in entity " + entity.getClass().getName(), e);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The column values deleted from one entity type during its warm-up. Guarded by itself.
+     */
+    private static final class WarmUpDeletes {
+        // Map: Column name -> Deleted values, compared as strings so a UUID matches its stored form
+        private final Map<String, Set<String>> deleted = new HashMap<>();
+
+        private synchronized void add(String columnName, Object value) {
+            deleted.computeIfAbsent(columnName, k -> new HashSet<>()).add(String.valueOf(value));
+        }
+
+        // Called while holding the lock, together with the write of the filtered batch
+        private <T> List<T> filter(List<T> batch) {
+            if (deleted.isEmpty()) {
+                return batch;
+            }
+            List<T> kept = new ArrayList<>(batch.size());
+            for (T entity : batch) {
+                boolean isDeleted = false;
+                for (Map.Entry<String, Set<String>> entry : deleted.entrySet()) {
+                    if (entry.getValue().contains(String.valueOf(getColumnValue(entity, entry.getKey())))) {
+                        isDeleted = true;
+                        break;
+                    }
+                }
+                if (!isDeleted) {
+                    kept.add(entity);
+                }
+            }
+            return kept;
         }
     }
 }
@@ -4,13 +4,17 @@ import lib.homies.framework.database.DatabaseService;
 import lib.homies.framework.database.IRepository;
 import lib.homies.framework.database.annotations.DbEntity;
 import lib.homies.framework.database.annotations.DbField;
+import lib.homies.framework.database.exceptions.DatabaseException;
+import lib.homies.framework.database.metrics.DatabaseTrace;
 import lib.homies.framework.spigot.HomiesLibSpigot;
 
 import java.lang.reflect.Field;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 public class SpigotMySQLDatabaseService implements DatabaseService {
@@ -21,15 +25,25 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
     private final String username;
     private final String password;
     private final List<Class<?>> entityClasses;
+    private final Logger logger;
     private Connection connection;
 
     public SpigotMySQLDatabaseService(String host, int port, String database, String username, String password, List<Class<?>> entityClasses) {
+        this(host, port, database, username, password, entityClasses, HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger());
+    }
+
+    /**
+     * Constructs a MySQL service that reports to the given logger instead of the plugin's.
+     * This allows the service to run outside a server, e.g. in benchmarks.
+     */
+    public SpigotMySQLDatabaseService(String host, int port, String database, String username, String password, List<Class<?>> entityClasses, Logger logger) {
         this.host = host;
         this.port = port;
         this.database = database;
         this.username = username;
         this.password = password;
         this.entityClasses = entityClasses;
+        this.logger = logger;
     }
 
     public boolean init() {
@@ -40,15 +54,15 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
             Class.forName("com.mysql.cj.jdbc.Driver");
             String url = "jdbc:mysql://" + host + ":" + port + "/" + database + "?useSSL=false&allowPublicKeyRetrieval=true";
             this.connection = DriverManager.getConnection(url, username, password);
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().info("Successfully connected to MySQL database.");
+            logger.info("Successfully connected to MySQL database.");
             createTablesIfNotExist();
             return true;
         } catch (ClassNotFoundException e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "MySQL JDBC Driver not found! The MySQL service will be disabled.", e);
+            logger.log(Level.SEVERE, "MySQL JDBC Driver not found! The MySQL service will be disabled.", e);
             this.connection = null;
             return false;
         } catch (SQLException e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().warning(
+            logger.warning(
                     "Failed to connect to MySQL database at '" + host + ":" + port + "'. " +
                             "Please check your configuration and ensure the database is running. The MySQL service will be disabled."
             );
@@ -61,16 +75,16 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
         if (connection != null) {
             try {
                 connection.close();
-                HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().info("Disconnected from MySQL database.");
+                logger.info("Disconnected from MySQL database.");
             } catch (SQLException e) {
-                HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to close MySQL connection!", e);
+                logger.log(Level.SEVERE, "Failed to close MySQL connection!", e);
             }
         }
     }
 
     private void createTablesIfNotExist() {
         if (entityClasses == null || entityClasses.isEmpty()) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().info("No @DbEntity classes found for automatic table creation.");
+            logger.info("No @DbEntity classes found for automatic table creation.");
             return;
         }
 
@@ -92,7 +106,7 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
                     String columnName = dbField.columnName().isEmpty() ? field.getName() : dbField.columnName();
                     String sqlType = getSqlType(field.getType());
                     if (sqlType == null) {
-                        HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().warning(
+                        logger.warning(
                                 "Unsupported SQL type for field '" + field.getName() + "' in entity '" + entityClass.getSimpleName() + "'. Skipping column."
                         );
                         continue;
@@ -107,7 +121,7 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
             }
 
             if (columnDefinitions.isEmpty()) {
-                HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().warning(
+                logger.warning(
                         "No @DbField annotated fields found for entity '" + entityClass.getSimpleName() + "'. Skipping table creation."
                 );
                 continue;
@@ -118,9 +132,9 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
 
             try (Statement statement = connection.createStatement()) {
                 statement.execute(sqlBuilder.toString());
-                HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().info("Ensured table '" + tableName + "' exists for entity '" + entityClass.getSimpleName() + "'.");
+                logger.info("Ensured table '" + tableName + "' exists for entity '" + entityClass.getSimpleName() + "'.");
             } catch (SQLException e) {
-                HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE,
+                logger.log(Level.SEVERE,
                         "Failed to create/verify table '" + tableName + "' for entity '" + entityClass.getSimpleName() + "'.", e);
             }
         }
@@ -207,6 +221,7 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
 
         String insertSql = "INSERT INTO `" + tableName + "` (" + columns + ") VALUES (" + placeholders + ") ON DUPLICATE KEY UPDATE " + updateSet;
 
+        DatabaseTrace.command(insertSql);
         try (PreparedStatement statement = connection.prepareStatement(insertSql)) {
             int i = 1;
             for (Object value : values) {
@@ -217,16 +232,85 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
             }
             statement.executeUpdate();
         } catch (SQLException e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to save entity to MySQL", e);
+            logger.log(Level.SEVERE, "Failed to save entity to MySQL", e);
+            DatabaseTrace.error(e);
         }
     }
 
-    @Override
-    public <T> Optional<T> findById(Class<T> entityType, String id) {
+    private List<String> getColumnNames(Class<?> entityType) {
+        List<String> columnNames = new ArrayList<>();
+        for (Field field : entityType.getDeclaredFields()) {
+            DbField dbField = field.getAnnotation(DbField.class);
+            if (dbField != null) {
+                columnNames.add(dbField.columnName().isEmpty() ? field.getName() : dbField.columnName());
+            }
+        }
+        return columnNames;
+    }
+
+    private String getIdColumnName(Class<?> entityType) {
         Field idField = getIdField(entityType);
         DbField dbField = idField.getAnnotation(DbField.class);
-        String idColumnName = dbField.columnName().isEmpty() ? idField.getName() : dbField.columnName();
-        return findByField(entityType, idColumnName, id).stream().findFirst();
+        return dbField.columnName().isEmpty() ? idField.getName() : dbField.columnName();
+    }
+
+    @Override
+    public <T> Optional<T> findById(Class<T> entityType, String id) {
+        return findByField(entityType, getIdColumnName(entityType), id).stream().findFirst();
+    }
+
+    /**
+     * Finds the entity with the given ID in each of several entity types in a single statement and round trip.
+     * Each type gets its own {@code SELECT ... LIMIT 1}, combined with {@code UNION ALL}. Since the tables have different
+     * columns, every branch selects the columns of all types, aliased as {@code t<index>_<column>} and padded with NULLs,
+     * plus a {@code __type} column holding the index of the type the row belongs to.
+     */
+    @Override
+    public Map<Class<?>, Object> findAllById(Collection<Class<?>> entityTypes, String id) {
+        if (entityTypes.isEmpty() || host == null || host.isEmpty()) {
+            return Collections.emptyMap(); // The dummy service stores nothing
+        }
+        if (connection == null) {
+            throw new DatabaseException("Failed to find entities by ID '" + id + "' from MySQL, the database is not connected.");
+        }
+
+        List<Class<?>> types = new ArrayList<>(entityTypes);
+        List<List<String>> columns = new ArrayList<>();
+        for (Class<?> type : types) {
+            columns.add(getColumnNames(type));
+        }
+
+        // This dynamic SQL is safe because table and column names are derived from annotations, not user input.
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < types.size(); i++) {
+            if (i > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("(SELECT ").append(i).append(" AS `__type`");
+            for (int j = 0; j < types.size(); j++) {
+                for (String column : columns.get(j)) {
+                    sql.append(", ").append(i == j ? "`" + column + "`" : "NULL").append(" AS `t").append(j).append('_').append(column).append('`');
+                }
+            }
+            sql.append(" FROM `").append(getTableName(types.get(i))).append("` WHERE `").append(getIdColumnName(types.get(i))).append("` = ? LIMIT 1)");
+        }
+
+        Map<Class<?>, Object> found = new HashMap<>();
+        DatabaseTrace.command(sql.toString());
+        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < types.size(); i++) {
+                statement.setString(i + 1, id);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    int index = resultSet.getInt("__type");
+                    found.put(types.get(index), mapResultSetToEntity(resultSet, types.get(index), "t" + index + "_"));
+                }
+            }
+        } catch (SQLException | ReflectiveOperationException e) {
+            throw new DatabaseException("Failed to find entities by ID '" + id + "' from MySQL", e);
+        }
+        return found;
     }
 
     private boolean isValidColumn(Class<?> entityType, String columnName) {
@@ -258,7 +342,7 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
 
         if (!isValidColumn(entityType, fieldName)) {
             String errorMessage = "Attempted to query by an invalid or non-DB field: " + fieldName + " for entity " + entityType.getSimpleName();
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, errorMessage);
+            logger.log(Level.SEVERE, errorMessage);
             throw new IllegalArgumentException(errorMessage);
         }
 
@@ -266,6 +350,7 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
         String sql = "SELECT * FROM `" + tableName + "` WHERE `" + fieldName + "` = ?";
         List<T> entities = new ArrayList<>();
 
+        DatabaseTrace.command(sql);
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
             setStatementValue(statement, 1, value);
 
@@ -275,7 +360,8 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
                 }
             }
         } catch (SQLException | ReflectiveOperationException e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to find entities by field '" + fieldName + "' from MySQL", e);
+            logger.log(Level.SEVERE, "Failed to find entities by field '" + fieldName + "' from MySQL", e);
+            DatabaseTrace.error(e);
         }
         return entities;
     }
@@ -290,6 +376,7 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
         String sql = "SELECT * FROM `" + tableName + "`";
         List<T> entities = new ArrayList<>();
 
+        DatabaseTrace.command(sql);
         try (Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(sql)) {
 
@@ -297,11 +384,68 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
                 entities.add(mapResultSetToEntity(resultSet, entityType));
             }
         } catch (SQLException | ReflectiveOperationException e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to find all or instantiate entities from MySQL", e);
+            logger.log(Level.SEVERE, "Failed to find all or instantiate entities from MySQL", e);
+            DatabaseTrace.error(e);
         }
         return entities;
     }
 
+    /**
+     * Streams every stored entity of a type in batches, ordered by ID.
+     * Batches are read with keyset pagination, so each query stays cheap regardless of how far into the table it is,
+     * and only one batch is held in memory at a time.
+     *
+     * @param entityType The class of the entities to read.
+     * @param batchSize  The maximum number of entities per batch.
+     * @param consumer   Receives each batch; returning false stops the scan.
+     * @param <T>        The entity type.
+     * @return The number of entities read.
+     */
+    public <T> long forEachBatch(Class<T> entityType, int batchSize, Predicate<List<T>> consumer) {
+        if (connection == null) {
+            return 0;
+        }
+
+        String tableName = getTableName(entityType);
+        Field idField = getIdField(entityType);
+        String idColumnName = getIdColumnName(entityType);
+        // This dynamic SQL is safe because table and column names are derived from annotations, not user input.
+        String firstSql = "SELECT * FROM `" + tableName + "` ORDER BY `" + idColumnName + "` LIMIT ?";
+        String nextSql = "SELECT * FROM `" + tableName + "` WHERE `" + idColumnName + "` > ? ORDER BY `" + idColumnName + "` LIMIT ?";
+
+        long total = 0;
+        Object lastId = null;
+        while (true) {
+            List<T> batch = new ArrayList<>(batchSize);
+            String sql = lastId == null ? firstSql : nextSql;
+            DatabaseTrace.command(sql);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int index = 1;
+                if (lastId != null) {
+                    setStatementValue(statement, index++, lastId);
+                }
+                statement.setInt(index, batchSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        batch.add(mapResultSetToEntity(resultSet, entityType));
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    lastId = idField.get(batch.get(batch.size() - 1));
+                }
+            } catch (SQLException | ReflectiveOperationException e) {
+                logger.log(Level.SEVERE, "Failed to read entities of type '" + entityType.getSimpleName() + "' from MySQL", e);
+                DatabaseTrace.error(e);
+                return total;
+            }
+
+            total += batch.size();
+            if (batch.isEmpty() || !consumer.test(batch) || batch.size() < batchSize) {
+                return total;
+            }
+        }
+    }
+
     @Override
     public <T> void deleteEntity(T entity) {
         if (connection == null) {
@@ -319,12 +463,14 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
 
             // This dynamic SQL is safe because idColumnName is derived from the annotation, not user input.
             String sql = "DELETE FROM `" + tableName + "` WHERE `" + idColumnName + "` = ?";
+            DatabaseTrace.command(sql);
             try (PreparedStatement statement = connection.prepareStatement(sql)) {
                 statement.setObject(1, idValue.toString());
                 statement.executeUpdate();
             }
         } catch (SQLException | IllegalAccessException e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to delete entity from MySQL", e);
+            logger.log(Level.SEVERE, "Failed to delete entity from MySQL", e);
+            DatabaseTrace.error(e);
         }
     }
 
@@ -336,28 +482,37 @@ public class SpigotMySQLDatabaseService implements DatabaseService {
 
         if (!isValidColumn(entityType, fieldName)) {
             String errorMessage = "Attempted to delete by an invalid or non-DB field: " + fieldName + " for entity " + entityType.getSimpleName();
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, errorMessage);
+            logger.log(Level.SEVERE, errorMessage);
             throw new IllegalArgumentException(errorMessage);
         }
 
         String tableName = getTableName(entityType);
         String sql = "DELETE FROM `" + tableName + "` WHERE `" + fieldName + "` = ?";
 
+        DatabaseTrace.command(sql);
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
             setStatementValue(statement, 1, value);
             statement.executeUpdate();
         } catch (SQLException e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to delete entities by field '" + fieldName + "' from MySQL", e);
+            logger.log(Level.SEVERE, "Failed to delete entities by field '" + fieldName + "' from MySQL", e);
+            DatabaseTrace.error(e);
         }
     }
 
     private <T> T mapResultSetToEntity(ResultSet resultSet, Class<T> entityType) throws SQLException, ReflectiveOperationException {
+        return mapResultSetToEntity(resultSet, entityType, "");
+    }
+
+    /**
+     * Maps the current row to an entity, reading each column under the given label prefix.
+     */
+    private <T> T mapResultSetToEntity(ResultSet resultSet, Class<T> entityType, String labelPrefix) throws SQLException, ReflectiveOperationException {
         T entity = entityType.getDeclaredConstructor().newInstance();
         for (Field field : entityType.getDeclaredFields()) {
             if (field.isAnnotationPresent(DbField.class)) {
                 DbField dbField = field.getAnnotation(DbField.class);
                 field.setAccessible(true);
-                String columnName = dbField.columnName().isEmpty() ? field.getName() : dbField.columnName();
+                String columnName = labelPrefix + (dbField.columnName().isEmpty() ? field.getName() : dbField.columnName());
                 Object value = resultSet.getObject(columnName);
 
                 if (value != null) {
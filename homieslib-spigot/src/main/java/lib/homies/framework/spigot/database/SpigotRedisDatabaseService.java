@@ -11,12 +11,24 @@ import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Objects;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 public class SpigotRedisDatabaseService extends RedisDatabaseService {
 
+    private final Logger logger;
+
     public SpigotRedisDatabaseService(String host, int port, String password, int database) {
+        this(host, port, password, database, Bukkit.getLogger());
+    }
+
+    /**
+     * Constructs a Redis service that reports to the given logger instead of the server's.
+     * This allows the service to run outside a server, e.g. in benchmarks.
+     */
+    public SpigotRedisDatabaseService(String host, int port, String password, int database, Logger logger) {
         super(host, port, password, database);
+        this.logger = logger;
     }
 
     @Override
@@ -36,17 +48,17 @@ public class SpigotRedisDatabaseService extends RedisDatabaseService {
             try (Jedis jedis = getResource()) {
                 jedis.ping();
             }
-            Bukkit.getLogger().info("Successfully connected to Redis server.");
+            logger.info("Successfully connected to Redis server.");
             return true;
         } catch (JedisConnectionException e) {
-            Bukkit.getLogger().warning(
+            logger.warning(
                     "Failed to connect to Redis at '" + host + ":" + port + "'. " +
                             "Please check your configuration and ensure the server is running. Redis service will be disabled."
             );
             this.jedisPool = null;
             return false;
         } catch (Exception e) {
-            Bukkit.getLogger().log(Level.SEVERE, "An unexpected error occurred while initializing the Redis connection pool.", e);
+            logger.log(Level.SEVERE, "An unexpected error occurred while initializing the Redis connection pool.", e);
             this.jedisPool = null;
             return false;
         }
@@ -56,7 +68,7 @@ public class SpigotRedisDatabaseService extends RedisDatabaseService {
     public void onDisable() {
         if (jedisPool != null && !jedisPool.isClosed()) {
             jedisPool.close();
-            Bukkit.getLogger().info("Redis connection pool closed.");
+            logger.info("Redis connection pool closed.");
         }
     }
 
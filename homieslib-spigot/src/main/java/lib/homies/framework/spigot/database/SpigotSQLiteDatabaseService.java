@@ -5,6 +5,8 @@ import lib.homies.framework.database.DatabaseService;
 import lib.homies.framework.database.IRepository;
 import lib.homies.framework.database.annotations.DbEntity;
 import lib.homies.framework.database.annotations.DbField;
+import lib.homies.framework.database.exceptions.DatabaseException;
+import lib.homies.framework.database.metrics.DatabaseTrace;
 import lib.homies.framework.spigot.HomiesLibSpigot;
 
 import java.io.File;
@@ -13,33 +15,43 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class SpigotSQLiteDatabaseService implements DatabaseService {
 
     private final List<Class<?>> entityClasses;
-    private final PluginContext pluginContext;
+    private final String url;
+    private final Logger logger;
     private Connection connection;
 
     public SpigotSQLiteDatabaseService(PluginContext pluginContext, List<Class<?>> entityClasses) {
-        this.pluginContext = pluginContext;
+        this("jdbc:sqlite:" + new File(pluginContext.getDataFolder(), "database.db").getAbsolutePath(), entityClasses,
+                HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger());
+    }
+
+    /**
+     * Constructs a SQLite service for an arbitrary JDBC URL (e.g. {@code jdbc:sqlite::memory:}) that reports to the
+     * given logger instead of the plugin's. This allows the service to run outside a server, e.g. in benchmarks.
+     */
+    public SpigotSQLiteDatabaseService(String url, List<Class<?>> entityClasses, Logger logger) {
+        this.url = url;
         this.entityClasses = entityClasses;
+        this.logger = logger;
     }
 
     public boolean init() {
-        File dbFile = new File(pluginContext.getDataFolder(), "database.db");
         try {
             Class.forName("org.sqlite.JDBC");
-            String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
             this.connection = DriverManager.getConnection(url);
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().info("Successfully connected to SQLite database.");
+            logger.info("Successfully connected to SQLite database.");
             createTablesIfNotExist();
             return true;
         } catch (ClassNotFoundException e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "SQLite JDBC Driver not found! The SQLite service will be disabled.", e);
+            logger.log(Level.SEVERE, "SQLite JDBC Driver not found! The SQLite service will be disabled.", e);
             this.connection = null;
             return false;
         } catch (SQLException e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to connect to SQLite database!", e);
+            logger.log(Level.SEVERE, "Failed to connect to SQLite database!", e);
             this.connection = null;
             return false;
         }
@@ -49,9 +61,9 @@ public class SpigotSQLiteDatabaseService implements DatabaseService {
         if (connection != null) {
             try {
                 connection.close();
-                HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().info("Disconnected from SQLite database.");
+                logger.info("Disconnected from SQLite database.");
             } catch (SQLException e) {
-                HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to close SQLite connection!", e);
+                logger.log(Level.SEVERE, "Failed to close SQLite connection!", e);
             }
         }
     }
@@ -78,7 +90,7 @@ public class SpigotSQLiteDatabaseService implements DatabaseService {
             try (Statement statement = connection.createStatement()) {
                 statement.execute(sqlBuilder.toString());
             } catch (SQLException e) {
-                HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to create table for entity '" + entityClass.getSimpleName() + "'.", e);
+                logger.log(Level.SEVERE, "Failed to create table for entity '" + entityClass.getSimpleName() + "'.", e);
             }
         }
     }
@@ -120,13 +132,15 @@ public class SpigotSQLiteDatabaseService implements DatabaseService {
         }
         String placeholders = String.join(",", Collections.nCopies(columns.size(), "?"));
         String sql = "INSERT OR REPLACE INTO `" + tableName + "` (`" + String.join("`, `", columns) + "`) VALUES (" + placeholders + ");";
+        DatabaseTrace.command(sql);
         try (PreparedStatement ps = connection.prepareStatement(sql)) {
             for (int i = 0; i < values.size(); i++) {
                 ps.setObject(i + 1, values.get(i));
             }
             ps.executeUpdate();
         } catch (SQLException e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to save entity to SQLite", e);
+            logger.log(Level.SEVERE, "Failed to save entity to SQLite", e);
+            DatabaseTrace.error(e);
         }
     }
 
@@ -139,12 +153,43 @@ public class SpigotSQLiteDatabaseService implements DatabaseService {
         return findByField(entityType, idColumnName, id).stream().findFirst();
     }
 
+    @Override
+    public Map<Class<?>, Object> findAllById(Collection<Class<?>> entityTypes, String id) {
+        if (entityTypes.isEmpty()) return Collections.emptyMap();
+        if (connection == null) {
+            throw new DatabaseException("Failed to find entities by ID '" + id + "' from SQLite, the database is not connected.");
+        }
+        // SQLite is embedded, so one query per type costs no round trips.
+        Map<Class<?>, Object> found = new HashMap<>();
+        for (Class<?> entityType : entityTypes) {
+            Field idField = getIdField(entityType);
+            String idColumnName = idField.getAnnotation(DbField.class).columnName();
+            if (idColumnName.isEmpty()) {
+                idColumnName = idField.getName();
+            }
+            String sql = "SELECT * FROM `" + getTableName(entityType) + "` WHERE `" + idColumnName + "` = ? LIMIT 1";
+            DatabaseTrace.command(sql);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, id);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next()) {
+                        found.put(entityType, mapResultSetToEntity(rs, entityType));
+                    }
+                }
+            } catch (Exception e) {
+                throw new DatabaseException("Failed to find entities by ID '" + id + "' from SQLite", e);
+            }
+        }
+        return found;
+    }
+
     @Override
     public <T> List<T> findByField(Class<T> entityType, String fieldName, Object value) {
         if (connection == null) return Collections.emptyList();
         String tableName = getTableName(entityType);
         String sql = "SELECT * FROM `" + tableName + "` WHERE `" + fieldName + "` = ?";
         List<T> entities = new ArrayList<>();
+        DatabaseTrace.command(sql);
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
             if (value instanceof UUID) statement.setString(1, value.toString());
             else statement.setObject(1, value);
@@ -154,7 +199,8 @@ public class SpigotSQLiteDatabaseService implements DatabaseService {
                 }
             }
         } catch (Exception e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to find entities by field from SQLite", e);
+            logger.log(Level.SEVERE, "Failed to find entities by field from SQLite", e);
+            DatabaseTrace.error(e);
         }
         return entities;
     }
@@ -165,12 +211,14 @@ public class SpigotSQLiteDatabaseService implements DatabaseService {
         String tableName = getTableName(entityType);
         String sql = "SELECT * FROM `" + tableName + "`";
         List<T> entities = new ArrayList<>();
+        DatabaseTrace.command(sql);
         try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
             while (rs.next()) {
                 entities.add(mapResultSetToEntity(rs, entityType));
             }
         } catch (Exception e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to find all entities from SQLite", e);
+            logger.log(Level.SEVERE, "Failed to find all entities from SQLite", e);
+            DatabaseTrace.error(e);
         }
         return entities;
     }
@@ -188,12 +236,14 @@ public class SpigotSQLiteDatabaseService implements DatabaseService {
                 idColumnName = idField.getName();
             }
             String sql = "DELETE FROM `" + tableName + "` WHERE `" + idColumnName + "` = ?";
+            DatabaseTrace.command(sql);
             try (PreparedStatement ps = connection.prepareStatement(sql)) {
                 ps.setObject(1, idValue.toString());
                 ps.executeUpdate();
             }
         } catch (Exception e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to delete entity from SQLite", e);
+            logger.log(Level.SEVERE, "Failed to delete entity from SQLite", e);
+            DatabaseTrace.error(e);
         }
     }
 
@@ -202,12 +252,14 @@ public class SpigotSQLiteDatabaseService implements DatabaseService {
         if (connection == null) return;
         String tableName = getTableName(entityType);
         String sql = "DELETE FROM `" + tableName + "` WHERE `" + fieldName + "` = ?";
+        DatabaseTrace.command(sql);
         try (PreparedStatement ps = connection.prepareStatement(sql)) {
             if (value instanceof UUID) ps.setString(1, value.toString());
             else ps.setObject(1, value);
             ps.executeUpdate();
         } catch (SQLException e) {
-            HomiesLibSpigot.getPlugin(HomiesLibSpigot.class).getLogger().log(Level.SEVERE, "Failed to delete entities by field from SQLite", e);
+            logger.log(Level.SEVERE, "Failed to delete entities by field from SQLite", e);
+            DatabaseTrace.error(e);
         }
     }
 
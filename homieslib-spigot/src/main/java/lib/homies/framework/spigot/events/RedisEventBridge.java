@@ -0,0 +1,208 @@
+package lib.homies.framework.spigot.events;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lib.homies.framework.HomiesLib;
+import lib.homies.framework.events.LibEvent;
+import org.bukkit.plugin.Plugin;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Carries {@link lib.homies.framework.events.annotations.Networked} events between servers over Redis pub/sub.
+ * <p>
+ * Outgoing events are serialized when they are called and collected for one tick, then published together as a single
+ * message on an async thread, so a burst of events costs one round trip. Each message carries the id of the server that sent it,
+ * and servers ignore their own messages. Incoming events are dispatched on the main thread.
+ * <p>
+ * The subscription holds one connection of the pool on a dedicated thread, and reconnects if the connection drops.
+ * Closing the bridge disconnects that connection, as interrupting the thread does not end a blocking read.
+ */
+public class RedisEventBridge {
+
+    private static final Gson GSON = new Gson();
+    private static final long RECONNECT_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private final Plugin plugin;
+    private final JedisPool pool;
+    private final String channel;
+    private final Function<String, Class<? extends LibEvent>> typeResolver;
+    private final Consumer<LibEvent> localDispatcher;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Queue<JsonObject> outgoing = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile boolean running;
+    private Thread subscriberThread;
+    private final Object connectionLock = new Object();
+    // The connection the subscriber thread is subscribed on, guarded by connectionLock
+    private Jedis connection;
+
+    /**
+     * Constructs a new RedisEventBridge. Nothing is received until {@link #start()} is called.
+     * @param plugin The HomiesLib plugin, used for logging.
+     * @param pool The Redis connection pool.
+     * @param channel The pub/sub channel shared by all servers.
+     * @param typeResolver Resolves the class name of a received event to a known event class, or {@code null} to skip it.
+     * @param localDispatcher Dispatches a received event on this server without publishing it again.
+     */
+    public RedisEventBridge(Plugin plugin, JedisPool pool, String channel,
+                            Function<String, Class<? extends LibEvent>> typeResolver, Consumer<LibEvent> localDispatcher) {
+        this.plugin = plugin;
+        this.pool = pool;
+        this.channel = channel;
+        this.typeResolver = typeResolver;
+        this.localDispatcher = localDispatcher;
+    }
+
+    /**
+     * Starts receiving events from other servers.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        subscriberThread = new Thread(this::listen, "HomiesLib-EventBridge");
+        subscriberThread.setDaemon(true);
+        subscriberThread.start();
+        plugin.getLogger().info("Network event bus listening on Redis channel '" + channel + "'.");
+    }
+
+    /**
+     * Stops receiving events and publishes the events still waiting for the next flush.
+     * Returns once the subscriber thread has ended, or after five seconds if it does not.
+     */
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = subscriberThread;
+            subscriberThread = null;
+        }
+        synchronized (connectionLock) {
+            if (connection != null) {
+                connection.disconnect(); // Ends the blocking read of the subscription
+            }
+        }
+        if (thread != null) {
+            thread.interrupt(); // Ends a reconnect delay
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                plugin.getLogger().warning("The network event bus listener did not stop in time.");
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Queues an event for publishing with the next batch.
+     * @param event The event. It is serialized immediately, so later changes to it are not published.
+     */
+    public void publish(LibEvent event) {
+        JsonObject entry = new JsonObject();
+        entry.addProperty("type", event.getClass().getName());
+        entry.add("data", GSON.toJsonTree(event));
+        outgoing.add(entry);
+        if (flushScheduled.compareAndSet(false, true)) {
+            HomiesLib.getSchedulerService().task()
+                    .run(this::flush)
+                    .async()
+                    .delay(1L)
+                    .name("HomiesLib network events")
+                    .start();
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        JsonArray events = new JsonArray();
+        JsonObject entry;
+        while ((entry = outgoing.poll()) != null) {
+            events.add(entry);
+        }
+        if (events.size() == 0) {
+            return;
+        }
+        JsonObject batch = new JsonObject();
+        batch.addProperty("origin", nodeId);
+        batch.add("events", events);
+        try (Jedis jedis = pool.getResource()) {
+            jedis.publish(channel, batch.toString());
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Could not publish " + events.size() + " network event(s) to Redis.", e);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            JedisPubSub current = new JedisPubSub() {
+                @Override
+                public void onMessage(String messageChannel, String message) {
+                    receive(message);
+                }
+            };
+            try (Jedis jedis = pool.getResource()) {
+                synchronized (connectionLock) {
+                    if (!running) {
+                        break; // Closed while waiting for the connection
+                    }
+                    connection = jedis;
+                }
+                jedis.subscribe(current, channel); // Blocks until unsubscribed or disconnected
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                plugin.getLogger().warning("Lost the network event bus connection to Redis: " + e.getMessage() + ". Reconnecting in 5 seconds.");
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            } finally {
+                synchronized (connectionLock) {
+                    connection = null;
+                }
+            }
+        }
+    }
+
+    private void receive(String message) {
+        try {
+            JsonObject batch = JsonParser.parseString(message).getAsJsonObject();
+            if (nodeId.equals(batch.get("origin").getAsString())) {
+                return; // Sent by this server
+            }
+            for (JsonElement element : batch.getAsJsonArray("events")) {
+                JsonObject entry = element.getAsJsonObject();
+                Class<? extends LibEvent> type = typeResolver.apply(entry.get("type").getAsString());
+                if (type == null) {
+                    continue; // Nothing on this server handles it
+                }
+                LibEvent event = GSON.fromJson(entry.get("data"), type);
+                HomiesLib.getSchedulerService().getMainThreadExecutor().execute(() -> localDispatcher.accept(event));
+            }
+        } catch (RuntimeException e) {
+            // Anything thrown here would end the subscription
+            plugin.getLogger().log(Level.WARNING, "Ignoring a malformed network event message.", e);
+        }
+    }
+}
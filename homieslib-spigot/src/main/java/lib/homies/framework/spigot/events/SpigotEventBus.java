@@ -1,96 +1,500 @@
 package lib.homies.framework.spigot.events;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
+import lib.homies.framework.HomiesLib;
 import lib.homies.framework.events.EventBus;
+import lib.homies.framework.events.EventCoalescer;
+import lib.homies.framework.events.EventHandlerRegistry;
+import lib.homies.framework.events.EventKey;
+import lib.homies.framework.events.EventPriority;
+import lib.homies.framework.events.EventTimings;
+import lib.homies.framework.events.HandlerRegistration;
+import lib.homies.framework.events.KeyedHandlers;
 import lib.homies.framework.events.LibEvent;
+import lib.homies.framework.events.SubscriberMethod;
+import lib.homies.framework.events.Subscription;
+import lib.homies.framework.events.annotations.Networked;
+import lib.homies.framework.events.annotations.Subscribe;
+import lib.homies.framework.scheduler.StripedSerialExecutor;
 import org.bukkit.Bukkit;
+import org.bukkit.event.Cancellable;
 import org.bukkit.event.Event;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
+import redis.clients.jedis.JedisPool;
 
-import java.util.Collection;
-import java.util.HashSet;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 
+/**
+ * Spigot-specific implementation of the {@link EventBus} interface.
+ * Subscribing and dispatching are safe from any thread: handlers are stored in copy-on-write registries,
+ * so dispatch never locks and a handler may subscribe further handlers while an event is being dispatched.
+ * Keyed handlers are looked up by the key of each event, so only the handlers of that key are visited.
+ * While {@link #getEventTimings() event timings} are enabled, every handler call is timed and attributed to the plugin that subscribed it.
+ */
 public class SpigotEventBus implements EventBus {
 
+    /**
+     * Returned when a subscription is rejected, so callers never have to check for {@code null}.
+     */
+    private static final Subscription REJECTED = new Subscription() {
+        @Override
+        public void unsubscribe() {
+        }
+
+        @Override
+        public boolean isActive() {
+            return false;
+        }
+    };
+
+    /**
+     * The number of serial lanes for {@link #callAsync(LibEvent, Object)}. Enough that unrelated keys rarely share a lane.
+     */
+    private static final int ASYNC_LANES = 64;
+
+    private static final ClassValue<Boolean> NETWORKED = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return type.isAnnotationPresent(Networked.class);
+        }
+    };
+
     private final Plugin plugin;
-    private final Multimap<Class<? extends LibEvent>, Consumer<LibEvent>> customEventSubscribers = HashMultimap.create();
+    private final EventHandlerRegistry customEventHandlers = new EventHandlerRegistry();
+    private final EventTimings timings = new EventTimings(false);
+    // The scheduler service is resolved per task, as it is set up after the event bus.
+    private final Executor asyncExecutor = task -> HomiesLib.getSchedulerService().getAsyncExecutor().execute(task);
+    private final StripedSerialExecutor asyncLanes = new StripedSerialExecutor(asyncExecutor, ASYNC_LANES);
+    // Event classes that can be received from other servers, by name
+    private final Map<String, Class<? extends LibEvent>> networkedTypes = new ConcurrentHashMap<>();
+    private volatile RedisEventBridge networkBridge;
 
-    // New implementation for platform events
-    private final Multimap<Class<? extends Event>, Consumer<? extends Event>> platformSubscribers = HashMultimap.create();
-    private final Set<Class<? extends Event>> registeredBukkitListeners = new HashSet<>();
+    // New implementation for platform events. Each priority has its own registry and master listeners,
+    // registered with Bukkit at the matching Bukkit priority.
+    private final Map<EventPriority, EventHandlerRegistry> platformHandlers = new EnumMap<>(EventPriority.class);
+    private final Map<EventPriority, Set<Class<? extends Event>>> registeredHandlerLists = new EnumMap<>(EventPriority.class);
 
     public SpigotEventBus(Plugin plugin) {
         this.plugin = plugin;
+        for (EventPriority priority : EventPriority.values()) {
+            platformHandlers.put(priority, new EventHandlerRegistry());
+            registeredHandlerLists.put(priority, ConcurrentHashMap.newKeySet());
+            timings.track(platformHandlers.get(priority), true);
+        }
+        timings.track(customEventHandlers, false);
+    }
+
+    /**
+     * Retrieves the per-handler timings of this bus, covering both custom and platform event handlers.
+     *
+     * @return The event timings.
+     */
+    public EventTimings getEventTimings() {
+        return timings;
+    }
+
+    /**
+     * Finds the plugin that a handler belongs to, by the class loader of its class.
+     *
+     * @param handler The handler.
+     * @return The plugin name, or {@code null} if the handler was not loaded by a plugin.
+     */
+    private static String ownerOf(Object handler) {
+        try {
+            return JavaPlugin.getProvidingPlugin(handler.getClass()).getName();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return null;
+        }
     }
 
     @Override
-    @SuppressWarnings("unchecked")
-    public <E extends LibEvent> void subscribe(Class<E> eventClass, Consumer<E> handler) {
-        customEventSubscribers.put(eventClass, (Consumer<LibEvent>) handler);
+    public <E extends LibEvent> Subscription subscribe(Class<E> eventClass, Consumer<E> handler) {
+        return subscribe(eventClass, EventPriority.NORMAL, false, handler);
     }
 
+    @Override
+    public <E extends LibEvent> Subscription subscribe(Class<E> eventClass, EventPriority priority, boolean ignoreCancelled, Consumer<E> handler) {
+        return subscribeCustom(eventClass, priority, ignoreCancelled, handler, ownerOf(handler));
+    }
+
+    private Subscription subscribeCustom(Class<? extends LibEvent> eventClass, EventPriority priority, boolean ignoreCancelled, Consumer<?> handler, String owner) {
+        if (NETWORKED.get(eventClass)) {
+            networkedTypes.putIfAbsent(eventClass.getName(), eventClass);
+        }
+        return customEventHandlers.add(eventClass, handler, priority, ignoreCancelled, owner);
+    }
+
+    /**
+     * Calls a custom {@link LibEvent}. Handlers subscribed to the event's class, any of its superclasses
+     * or any interface it implements are called in priority order.
+     * If the event is {@link Networked} and the network event bus is enabled, it is then published to the other servers,
+     * unless a handler cancelled it.
+     *
+     * @param event The {@link LibEvent} object to call.
+     */
     @Override
     public void call(LibEvent event) {
-        customEventSubscribers.get(event.getClass()).forEach(handler -> handler.accept(event));
+        dispatchLocal(event);
+        publishIfNetworked(event);
+    }
+
+    private void dispatchLocal(LibEvent event) {
+        boolean timed = timings.isEnabled();
+        for (HandlerRegistration registration : customEventHandlers.getHandlers(event.getClass())) {
+            KeyedHandlers keyedHandlers = registration.getKeyedHandlers();
+            if (keyedHandlers == null) {
+                if (registration.accepts(event.isCancelled())) {
+                    registration.dispatch(event, timed);
+                }
+                continue;
+            }
+            for (HandlerRegistration keyed : keyedHandlers.getHandlers(event)) {
+                if (keyed.accepts(event.isCancelled())) {
+                    keyed.dispatch(event, timed);
+                }
+            }
+        }
+    }
+
+    private void publishIfNetworked(LibEvent event) {
+        RedisEventBridge bridge = networkBridge;
+        if (bridge == null || event.isCancelled() || !NETWORKED.get(event.getClass())) {
+            return;
+        }
+        networkedTypes.putIfAbsent(event.getClass().getName(), event.getClass());
+        bridge.publish(event);
+    }
+
+    /**
+     * Starts exchanging {@link Networked} events with other servers over Redis pub/sub.
+     *
+     * @param pool The Redis connection pool.
+     * @param channel The pub/sub channel shared by all servers.
+     */
+    public synchronized void enableNetwork(JedisPool pool, String channel) {
+        disableNetwork();
+        RedisEventBridge bridge = new RedisEventBridge(plugin, pool, channel, networkedTypes::get, this::dispatchLocal);
+        bridge.start();
+        networkBridge = bridge;
+    }
+
+    /**
+     * Stops exchanging events with other servers. Events waiting to be published are published first.
+     */
+    public synchronized void disableNetwork() {
+        RedisEventBridge bridge = networkBridge;
+        networkBridge = null;
+        if (bridge != null) {
+            bridge.close();
+        }
+    }
+
+    /**
+     * Checks whether {@link Networked} events are exchanged with other servers.
+     *
+     * @return {@code true} if the network event bus is enabled.
+     */
+    public boolean isNetworkEnabled() {
+        return networkBridge != null;
+    }
+
+    @Override
+    public CompletableFuture<Void> callAsync(LibEvent event) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        asyncExecutor.execute(() -> dispatchIsolated(event, future));
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Void> callAsync(LibEvent event, Object key) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        asyncLanes.execute(key, () -> dispatchIsolated(event, future));
+        return future;
+    }
+
+    /**
+     * Dispatches a custom event so that a failing handler does not prevent the others from running.
+     *
+     * @param event The event.
+     * @param future Completed once every handler has run, exceptionally with the first failure.
+     */
+    private void dispatchIsolated(LibEvent event, CompletableFuture<Void> future) {
+        Throwable failure = null;
+        boolean timed = timings.isEnabled();
+        for (HandlerRegistration registration : customEventHandlers.getHandlers(event.getClass())) {
+            KeyedHandlers keyedHandlers = registration.getKeyedHandlers();
+            if (keyedHandlers == null) {
+                Throwable t = dispatchIsolated(registration, event, timed);
+                failure = failure != null ? failure : t;
+                continue;
+            }
+            for (HandlerRegistration keyed : keyedHandlers.getHandlers(event)) {
+                Throwable t = dispatchIsolated(keyed, event, timed);
+                failure = failure != null ? failure : t;
+            }
+        }
+        if (failure != null) {
+            future.completeExceptionally(failure);
+        } else {
+            publishIfNetworked(event);
+            future.complete(null);
+        }
+    }
+
+    private Throwable dispatchIsolated(HandlerRegistration registration, LibEvent event, boolean timed) {
+        if (!registration.accepts(event.isCancelled())) {
+            return null;
+        }
+        try {
+            registration.dispatch(event, timed);
+            return null;
+        } catch (Throwable t) {
+            plugin.getLogger().log(Level.SEVERE, "Error passing event " + event.getClass().getSimpleName() + " to " + describe(registration), t);
+            return t;
+        }
+    }
+
+    @Override
+    public <T> Subscription subscribePlatform(Class<T> platformEventClass, Consumer<T> handler) {
+        return subscribePlatform(platformEventClass, EventPriority.NORMAL, false, handler);
+    }
+
+    @Override
+    public <T> Subscription subscribePlatform(Class<T> platformEventClass, EventPriority priority, boolean ignoreCancelled, Consumer<T> handler) {
+        return subscribePlatform(platformEventClass, priority, ignoreCancelled, handler, ownerOf(handler));
+    }
+
+    private Subscription subscribePlatform(Class<?> platformEventClass, EventPriority priority, boolean ignoreCancelled, Consumer<?> handler, String owner) {
+        EventHandlerRegistry registry = getPlatformRegistry(platformEventClass, priority);
+        if (registry == null) {
+            return REJECTED;
+        }
+        return registry.add(platformEventClass, handler, priority, ignoreCancelled, owner);
+    }
+
+    @Override
+    public <T, K> Subscription subscribeKeyed(Class<T> eventClass, EventKey<? super T, K> key, K value, Consumer<T> handler) {
+        return subscribeKeyed(eventClass, key, value, EventPriority.NORMAL, false, handler);
+    }
+
+    @Override
+    public <T, K> Subscription subscribeKeyed(Class<T> eventClass, EventKey<? super T, K> key, K value, EventPriority priority, boolean ignoreCancelled, Consumer<T> handler) {
+        if (value == null) {
+            plugin.getLogger().warning("Attempted to subscribe to " + eventClass.getName() + " with a null " + key.getName() + " key.");
+            return REJECTED;
+        }
+        EventHandlerRegistry registry;
+        if (LibEvent.class.isAssignableFrom(eventClass)) {
+            if (NETWORKED.get(eventClass)) {
+                networkedTypes.putIfAbsent(eventClass.getName(), eventClass.asSubclass(LibEvent.class));
+            }
+            registry = customEventHandlers;
+        } else {
+            registry = getPlatformRegistry(eventClass, priority);
+            if (registry == null) {
+                return REJECTED;
+            }
+        }
+        return registry.addKeyed(eventClass, key, value, handler, priority, ignoreCancelled, ownerOf(handler));
+    }
+
+    @Override
+    public <T, K> Subscription subscribeCoalesced(Class<T> eventClass, EventKey<? super T, K> key, Consumer<T> handler) {
+        return subscribeCoalescer(eventClass, new EventCoalescer(key, false, handler, this::scheduleFlush), ownerOf(handler));
     }
 
     @Override
+    public <T, K> Subscription subscribeBatched(Class<T> eventClass, EventKey<? super T, K> key, Consumer<List<T>> handler) {
+        return subscribeCoalescer(eventClass, new EventCoalescer(key, true, handler, this::scheduleFlush), ownerOf(handler));
+    }
+
+    private Subscription subscribeCoalescer(Class<?> eventClass, EventCoalescer coalescer, String owner) {
+        Subscription registration = LibEvent.class.isAssignableFrom(eventClass)
+                ? subscribeCustom(eventClass.asSubclass(LibEvent.class), EventPriority.MONITOR, true, coalescer, owner)
+                : subscribePlatform(eventClass, EventPriority.MONITOR, true, coalescer, owner);
+        if (!registration.isActive()) {
+            return REJECTED;
+        }
+        return new Subscription() {
+            @Override
+            public void unsubscribe() {
+                registration.unsubscribe();
+                coalescer.close();
+            }
+
+            @Override
+            public boolean isActive() {
+                return registration.isActive();
+            }
+        };
+    }
+
+    /**
+     * Flushes coalesced events on the next run of the scheduler's timing wheel, which is advanced at the start of every tick,
+     * after the events of the previous tick have been fired.
+     */
+    private void scheduleFlush(Runnable flush) {
+        HomiesLib.getSchedulerService().runLaterLightweight(flush, 1);
+    }
+
+    /**
+     * Retrieves the registry for platform event handlers of a priority, registering the master listener for the event's
+     * handler list with Bukkit the first time.
+     *
+     * @param platformEventClass The Bukkit event class.
+     * @param priority The priority.
+     * @return The registry, or {@code null} if the class is not a Bukkit event that can be listened to.
+     */
     @SuppressWarnings("unchecked")
-    public <T> void subscribePlatform(Class<T> platformEventClass, Consumer<T> handler) {
+    private EventHandlerRegistry getPlatformRegistry(Class<?> platformEventClass, EventPriority priority) {
         if (!Event.class.isAssignableFrom(platformEventClass)) {
             plugin.getLogger().warning("Attempted to subscribe to a non-Bukkit event via subscribePlatform: " + platformEventClass.getName());
-            return;
+            return null;
         }
 
         Class<? extends Event> eventClass = (Class<? extends Event>) platformEventClass;
-        platformSubscribers.put(eventClass, (Consumer<? extends Event>) handler);
+        Class<? extends Event> handlerListClass = getHandlerListClass(eventClass);
+        if (handlerListClass == null) {
+            plugin.getLogger().warning("Cannot subscribe to " + eventClass.getName() + ": neither it nor a superclass declares getHandlerList().");
+            return null;
+        }
+        EventHandlerRegistry registry = platformHandlers.get(priority);
 
-        // Register a master listener for this event type only if we haven't already.
-        // This is more efficient than registering a listener for every single subscription.
-        if (registeredBukkitListeners.add(eventClass)) {
+        // Register one master listener per Bukkit HandlerList and priority. Event classes without their own list share their parent's,
+        // and a second listener on the same list would dispatch every event twice.
+        if (registeredHandlerLists.get(priority).add(handlerListClass)) {
             Bukkit.getPluginManager().registerEvent(
-                    eventClass,
+                    handlerListClass,
                     new Listener() {},
-                    org.bukkit.event.EventPriority.NORMAL,
-                    this::dispatchEvent,
+                    org.bukkit.event.EventPriority.valueOf(priority.name()),
+                    (listener, event) -> dispatchEvent(registry, event),
                     plugin,
                     false
             );
         }
+        return registry;
     }
 
     /**
-     * Dispatches a received Bukkit event to all registered consumers, respecting event inheritance.
+     * Finds the class whose {@code getHandlerList()} Bukkit uses for an event class, the same way Bukkit does on registration.
      *
-     * @param listener The dummy listener registered with Bukkit.
+     * @param eventClass The event class.
+     * @return The event class or its nearest superclass declaring {@code getHandlerList()}, or {@code null} if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Event> getHandlerListClass(Class<? extends Event> eventClass) {
+        for (Class<?> current = eventClass; current != null && Event.class.isAssignableFrom(current); current = current.getSuperclass()) {
+            try {
+                current.getDeclaredMethod("getHandlerList");
+                return (Class<? extends Event>) current;
+            } catch (NoSuchMethodException ignored) {
+                // Keep looking in the superclass
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Dispatches a received Bukkit event to the consumers of one priority, respecting event inheritance.
+     * The consumers of the event's class, its superclasses and its interfaces are resolved once per event class
+     * into a flat dispatch table, so hot events such as {@code PlayerMoveEvent} cost a single array iteration.
+     * Keyed consumers sit behind one entry per key and only the consumers of the event's key are visited.
+     *
+     * @param registry The consumers of the priority the master listener was registered with.
      * @param event The event that was fired.
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private void dispatchEvent(Listener listener, Event event) {
-        Class<?> eventClass = event.getClass();
-
-        while (eventClass != null && Event.class.isAssignableFrom(eventClass)) {
-            Collection<Consumer<? extends Event>> consumers = platformSubscribers.get((Class<? extends Event>) eventClass);
-
-            for (Consumer consumer : consumers) {
-                try {
-                    consumer.accept(event);
-                } catch (Exception e) {
-                    plugin.getLogger().log(Level.SEVERE, "Error passing event " + event.getEventName() + " to consumer " + consumer.getClass().getName(), e);
-                }
+    private void dispatchEvent(EventHandlerRegistry registry, Event event) {
+        boolean timed = timings.isEnabled();
+        for (HandlerRegistration registration : registry.getHandlers(event.getClass())) {
+            KeyedHandlers keyedHandlers = registration.getKeyedHandlers();
+            if (keyedHandlers == null) {
+                dispatchEvent(registration, event, timed);
+                continue;
+            }
+            for (HandlerRegistration keyed : keyedHandlers.getHandlers(event)) {
+                dispatchEvent(keyed, event, timed);
             }
-            eventClass = eventClass.getSuperclass();
         }
     }
 
+    private void dispatchEvent(HandlerRegistration registration, Event event, boolean timed) {
+        // Checked per consumer, since an earlier consumer of the same priority may cancel the event.
+        if (!registration.accepts(event instanceof Cancellable && ((Cancellable) event).isCancelled())) {
+            return;
+        }
+        try {
+            registration.dispatch(event, timed);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Error passing event " + event.getEventName() + " to " + describe(registration), e);
+        }
+    }
 
+    private static String describe(HandlerRegistration registration) {
+        return "consumer " + registration.getName() + (registration.getOwner() != null ? " of " + registration.getOwner() : "");
+    }
+
+
+    /**
+     * Registers the {@link Subscribe} methods of an object. The methods of a class are resolved once, see {@link SubscriberMethod},
+     * so registering further instances of the class only binds them. Methods of classes from other plugins are called through
+     * method handles; use {@link #register(Object, MethodHandles.Lookup)} to call them directly.
+     * The handlers are attributed to the plugin of the listener's class in event timings.
+     *
+     * @param listener The listener object to register.
+     * @return A {@link Subscription} that removes all handlers of the object.
+     */
+    @Override
+    public Subscription register(Object listener) {
+        return register(listener, SubscriberMethod.of(listener.getClass()));
+    }
+
+    /**
+     * Registers the {@link Subscribe} methods of an object, compiling direct invokers for them with the caller's lookup
+     * the first time the class is registered.
+     *
+     * @param listener The listener object to register.
+     * @param lookup A lookup created with {@link MethodHandles#lookup()} in the plugin that contains the listener class.
+     * @return A {@link Subscription} that removes all handlers of the object.
+     */
     @Override
-    public void register(Object listener) {
-        plugin.getLogger().warning("The register(Object listener) method is deprecated and does nothing. Please register event handlers manually.");
+    public Subscription register(Object listener, MethodHandles.Lookup lookup) {
+        return register(listener, SubscriberMethod.of(listener.getClass(), lookup));
+    }
+
+    private Subscription register(Object listener, List<SubscriberMethod> methods) {
+        if (methods.isEmpty()) {
+            plugin.getLogger().warning("Registered " + listener.getClass().getName() + " as an event listener, but it has no valid @Subscribe methods.");
+            return REJECTED;
+        }
+        String owner = ownerOf(listener);
+        List<Subscription> subscriptions = new ArrayList<>(methods.size());
+        for (SubscriberMethod method : methods) {
+            Consumer<Object> handler = method.bind(listener);
+            subscriptions.add(LibEvent.class.isAssignableFrom(method.getEventClass())
+                    ? subscribeCustom(method.getEventClass().asSubclass(LibEvent.class), method.getPriority(), method.isIgnoreCancelled(), handler, owner)
+                    : subscribePlatform(method.getEventClass(), method.getPriority(), method.isIgnoreCancelled(), handler, owner));
+        }
+        return new Subscription() {
+            @Override
+            public void unsubscribe() {
+                subscriptions.forEach(Subscription::unsubscribe);
+            }
+
+            @Override
+            public boolean isActive() {
+                return subscriptions.stream().anyMatch(Subscription::isActive);
+            }
+        };
     }
 }
@@ -0,0 +1,32 @@
+package lib.homies.framework.spigot.events;
+
+import lib.homies.framework.events.EventKey;
+import org.bukkit.event.entity.EntityEvent;
+import org.bukkit.event.player.PlayerEvent;
+
+import java.util.UUID;
+
+/**
+ * Ready-made {@link EventKey}s for Bukkit events, for use with
+ * {@link lib.homies.framework.events.EventBus#subscribeKeyed(Class, EventKey, Object, java.util.function.Consumer)}.
+ */
+public final class SpigotEventKeys {
+
+    /**
+     * The UUID of the player of a {@link PlayerEvent}, such as {@code PlayerMoveEvent} or {@code PlayerInteractEvent}.
+     */
+    public static final EventKey<PlayerEvent, UUID> PLAYER = EventKey.of("player", PlayerEvent.class, event -> event.getPlayer().getUniqueId());
+
+    /**
+     * The name of the world the player of a {@link PlayerEvent} is in.
+     */
+    public static final EventKey<PlayerEvent, String> PLAYER_WORLD = EventKey.of("player-world", PlayerEvent.class, event -> event.getPlayer().getWorld().getName());
+
+    /**
+     * The UUID of the entity of an {@link EntityEvent}, such as {@code EntityDamageEvent}.
+     */
+    public static final EventKey<EntityEvent, UUID> ENTITY = EventKey.of("entity", EntityEvent.class, event -> event.getEntity().getUniqueId());
+
+    private SpigotEventKeys() {
+    }
+}
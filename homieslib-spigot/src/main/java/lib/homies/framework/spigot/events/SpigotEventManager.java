@@ -1,15 +1,12 @@
 package lib.homies.framework.spigot.events;
 
+import lib.homies.framework.index.PluginIndex;
 import org.bukkit.Bukkit;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
 public class SpigotEventManager {
@@ -20,48 +17,33 @@ public class SpigotEventManager {
         this.mainPlugin = mainPlugin;
     }
 
-    public void registerAllListeners() {
-        String registryPath = "META-INF/homieslib/event-listeners.list";
-        mainPlugin.getLogger().info("Discovering and registering event listeners from all plugins...");
-
+    /**
+     * Registers the {@link lib.homies.framework.events.annotations.EventListener} classes listed in the plugin indexes.
+     * The classes of all plugins are loaded in parallel first; instantiating and registering them happens on the calling thread,
+     * as listener constructors may use the server API.
+     *
+     * @param indexes The indexes of the plugins, see {@link PluginIndex#find(String, ClassLoader)}.
+     */
+    public void registerAllListeners(List<PluginIndex> indexes) {
         int totalRegisteredCount = 0;
 
-        for (Plugin plugin : Bukkit.getPluginManager().getPlugins()) {
-            if (plugin.getClass().getClassLoader() == null) {
+        for (Map.Entry<PluginIndex, List<Class<?>>> entry : PluginIndex.loadClasses(indexes, PluginIndex::getListeners).entrySet()) {
+            Plugin plugin = Bukkit.getPluginManager().getPlugin(entry.getKey().getPluginName());
+            if (plugin == null) {
                 continue;
             }
-
-            try {
-                Enumeration<URL> urls = plugin.getClass().getClassLoader().getResources(registryPath);
-                while (urls.hasMoreElements()) {
-                    URL url = urls.nextElement();
-                    try (InputStream is = url.openStream();
-                         BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            String className = line.trim();
-                            if (className.isEmpty()) {
-                                continue;
-                            }
-
-                            try {
-                                Class<?> listenerClass = Class.forName(className, true, plugin.getClass().getClassLoader());
-                                if (Listener.class.isAssignableFrom(listenerClass)) {
-                                    Listener listener = (Listener) listenerClass.getDeclaredConstructor().newInstance();
-                                    Bukkit.getPluginManager().registerEvents(listener, plugin);
-                                    totalRegisteredCount++;
-                                } else {
-                                    mainPlugin.getLogger().warning("Class " + className + " from plugin " + plugin.getName() + " is annotated with @EventListener but does not implement org.bukkit.event.Listener.");
-                                }
-                            } catch (Exception e) {
-                                mainPlugin.getLogger().log(Level.SEVERE, "Failed to register event listener " + className + " from plugin " + plugin.getName(), e);
-                            }
-                        }
+            for (Class<?> listenerClass : entry.getValue()) {
+                try {
+                    if (Listener.class.isAssignableFrom(listenerClass)) {
+                        Listener listener = (Listener) listenerClass.getDeclaredConstructor().newInstance();
+                        Bukkit.getPluginManager().registerEvents(listener, plugin);
+                        totalRegisteredCount++;
+                    } else {
+                        mainPlugin.getLogger().warning("Class " + listenerClass.getName() + " from plugin " + plugin.getName() + " is annotated with @EventListener but does not implement org.bukkit.event.Listener.");
                     }
+                } catch (Exception e) {
+                    mainPlugin.getLogger().log(Level.SEVERE, "Failed to register event listener " + listenerClass.getName() + " from plugin " + plugin.getName(), e);
                 }
-            } catch (IOException e) {
-                mainPlugin.getLogger().log(Level.WARNING, "Could not read listener registry for plugin " + plugin.getName(), e);
             }
         }
 
@@ -6,6 +6,7 @@ import lib.homies.framework.menu.HomiesMenu;
 import lib.homies.framework.menu.HomiesMenuItem;
 import lib.homies.framework.menu.MenuManager;
 import lib.homies.framework.player.HomiesPlayer;
+import lib.homies.framework.scheduler.TaskPriority;
 import lib.homies.framework.spigot.player.SpigotPlayer;
 import lib.homies.framework.spigot.utils.SpigotItemStack;
 import lib.homies.framework.spigot.utils.SpigotTextUtils;
@@ -65,30 +66,29 @@ public class SpigotMenuManager implements MenuManager, Listener {
         String animationSound = menu.getAnimationSound();
         Map<Integer, HomiesMenuItem> menuItems = menu.getItems(homiesPlayer);
 
-        if (animationDelay > 0) {
+        // Animations are cosmetic, so menus open instantly while the server is behind.
+        if (animationDelay > 0 && !HomiesLib.getSchedulerService().isShedding(TaskPriority.LOW)) {
             // Open the empty inventory immediately, items will be added by scheduler
             player.openInventory(inventory);
 
             // Staggered item placement for animation
-            final long[] currentDelay = {0L};
-            menuItems.forEach((slot, menuItem) -> {
-                HomiesLib.getSchedulerService().runLater(() -> {
-                    // Ensure menu is still open and player is viewing this specific inventory
-                    if (player.getOpenInventory().getTopInventory().equals(inventory)) {
-                        if (menuItem.getItemStack(homiesPlayer) instanceof SpigotItemStack) {
-                            inventory.setItem(slot, ((SpigotItemStack) menuItem.getItemStack(homiesPlayer)).getItemStack());
-                            if (animationSound != null) {
-                                try {
-                                    player.playSound(player.getLocation(), Sound.valueOf(animationSound.toUpperCase()), 0.5f, 1.0f);
-                                } catch (IllegalArgumentException e) {
-                                    plugin.getLogger().warning("Invalid animation sound: " + animationSound + ": " + e.getMessage());
-                                }
+            List<Runnable> steps = new ArrayList<>();
+            menuItems.forEach((slot, menuItem) -> steps.add(() -> {
+                // Ensure menu is still open and player is viewing this specific inventory
+                if (player.getOpenInventory().getTopInventory().equals(inventory)) {
+                    if (menuItem.getItemStack(homiesPlayer) instanceof SpigotItemStack) {
+                        inventory.setItem(slot, ((SpigotItemStack) menuItem.getItemStack(homiesPlayer)).getItemStack());
+                        if (animationSound != null) {
+                            try {
+                                player.playSound(player.getLocation(), Sound.valueOf(animationSound.toUpperCase()), 0.5f, 1.0f);
+                            } catch (IllegalArgumentException e) {
+                                plugin.getLogger().warning("Invalid animation sound: " + animationSound + ": " + e.getMessage());
                             }
                         }
                     }
-                }, currentDelay[0]);
-                currentDelay[0] += animationDelay;
-            });
+                }
+            }));
+            animate(homiesPlayer, steps.iterator(), 0L, animationDelay);
         } else {
             // Instant item placement
             for (Map.Entry<Integer, HomiesMenuItem> entry : menuItems.entrySet()) {
@@ -121,21 +121,21 @@ public class SpigotMenuManager implements MenuManager, Listener {
 
         if (menu != null) {
             long animationOutDelay = menu.getAnimationOutDelayTicks();
-            if (animationOutDelay > 0) {
+            if (animationOutDelay > 0 && !HomiesLib.getSchedulerService().isShedding(TaskPriority.LOW)) {
                 Inventory currentInventory = player.getOpenInventory().getTopInventory();
                 List<Integer> slots = new ArrayList<>(menu.getItems(homiesPlayer).keySet());
                 Collections.shuffle(slots);
 
-                final long[] currentDelay = {0L};
+                List<Runnable> steps = new ArrayList<>();
                 for (int slot : slots) {
-                    HomiesLib.getSchedulerService().runLater(() -> {
+                    steps.add(() -> {
                         if (player.getOpenInventory().getTopInventory().equals(currentInventory)) {
                             currentInventory.setItem(slot, null);
                         }
-                    }, currentDelay[0]);
-                    currentDelay[0] += animationOutDelay;
+                    });
                 }
-                HomiesLib.getSchedulerService().runLater(player::closeInventory, currentDelay[0]);
+                steps.add(player::closeInventory);
+                animate(homiesPlayer, steps.iterator(), 0L, animationOutDelay);
             } else {
                 player.closeInventory();
             }
@@ -144,6 +144,22 @@ public class SpigotMenuManager implements MenuManager, Listener {
         }
     }
 
+    /**
+     * Runs animation steps one after another on the thread that owns the player, which on Folia is the player's region thread.
+     * Each step schedules the next, so an animation holds one pending task however many slots it has.
+     * Steps stop once the player logs out.
+     */
+    private void animate(HomiesPlayer homiesPlayer, Iterator<Runnable> steps, long delay, long interval) {
+        if (!steps.hasNext()) {
+            return;
+        }
+        Runnable step = steps.next();
+        HomiesLib.getSchedulerService().runFor(homiesPlayer, () -> {
+            step.run();
+            animate(homiesPlayer, steps, interval, interval);
+        }, delay);
+    }
+
     /**
      * Registers a menu with a unique ID, allowing it to be retrieved later.
      * @param id A unique string identifier for the menu.
@@ -220,30 +236,41 @@ public class SpigotMenuManager implements MenuManager, Listener {
             HomiesMenu menu = entry.getValue();
             Player player = Bukkit.getPlayer(playerUUID);
 
-            if (player != null && player.isOnline() && player.getOpenInventory().getTopInventory() != null) {
-                HomiesPlayer homiesPlayer = new SpigotPlayer(player);
-                menu.refresh(); // Call the menu's refresh logic
+            if (player != null && player.isOnline()) {
+                // Inventories may only be touched on the thread that owns the player
+                HomiesLib.getSchedulerService().runFor(new SpigotPlayer(player), () -> refreshOpenMenu(player, menu), 0L);
+            }
+        }
+        plugin.getLogger().info("Scheduled the refresh of all open menus.");
+    }
+
+    /**
+     * Refills a player's open menu with the items of the refreshed menu. Runs on the thread that owns the player.
+     */
+    private void refreshOpenMenu(Player player, HomiesMenu menu) {
+        if (openMenus.get(player.getUniqueId()) != menu || player.getOpenInventory().getTopInventory() == null) {
+            return; // Closed or replaced since the reload was requested
+        }
+        HomiesPlayer homiesPlayer = new SpigotPlayer(player);
+        menu.refresh(); // Call the menu's refresh logic
 
-                // Re-create and update the inventory for the player
-                Inventory currentOpenInventory = player.getOpenInventory().getTopInventory();
-                currentOpenInventory.clear(); // Clear old items
+        // Re-create and update the inventory for the player
+        Inventory currentOpenInventory = player.getOpenInventory().getTopInventory();
+        currentOpenInventory.clear(); // Clear old items
 
-                // Populate with new items from the refreshed menu
-                Map<Integer, HomiesMenuItem> newItems = menu.getItems(homiesPlayer);
-                for (Map.Entry<Integer, HomiesMenuItem> itemEntry : newItems.entrySet()) {
-                    int slot = itemEntry.getKey();
-                    HomiesMenuItem menuItem = itemEntry.getValue();
-                    if (menuItem.getItemStack(homiesPlayer) instanceof SpigotItemStack) {
-                        currentOpenInventory.setItem(slot, ((SpigotItemStack) menuItem.getItemStack(homiesPlayer)).getItemStack());
-                    }
-                }
-                // Update the title if it changed (requires closing and re-opening for Bukkit API)
-                // For now, we'll just update contents. If title changes are critical, a full re-open might be needed.
-                // player.openInventory(Bukkit.createInventory(null, menu.getSize(), textUtils.colorize(menu.getTitle(homiesPlayer))));
-                // player.getOpenInventory().setCursor(null); // Clear cursor if any
-                // player.updateInventory(); // Not always necessary, but can help
+        // Populate with new items from the refreshed menu
+        Map<Integer, HomiesMenuItem> newItems = menu.getItems(homiesPlayer);
+        for (Map.Entry<Integer, HomiesMenuItem> itemEntry : newItems.entrySet()) {
+            int slot = itemEntry.getKey();
+            HomiesMenuItem menuItem = itemEntry.getValue();
+            if (menuItem.getItemStack(homiesPlayer) instanceof SpigotItemStack) {
+                currentOpenInventory.setItem(slot, ((SpigotItemStack) menuItem.getItemStack(homiesPlayer)).getItemStack());
             }
         }
-        plugin.getLogger().info("Finished refreshing open menus.");
+        // Update the title if it changed (requires closing and re-opening for Bukkit API)
+        // For now, we'll just update contents. If title changes are critical, a full re-open might be needed.
+        // player.openInventory(Bukkit.createInventory(null, menu.getSize(), textUtils.colorize(menu.getTitle(homiesPlayer))));
+        // player.getOpenInventory().setCursor(null); // Clear cursor if any
+        // player.updateInventory(); // Not always necessary, but can help
     }
 }
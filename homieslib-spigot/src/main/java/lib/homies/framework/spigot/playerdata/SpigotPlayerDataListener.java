@@ -0,0 +1,170 @@
+package lib.homies.framework.spigot.playerdata;
+
+import lib.homies.framework.HomiesLib;
+import lib.homies.framework.playerdata.PlayerDataService;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Drives the {@link PlayerDataService} session lifecycle from Bukkit's login and quit events.
+ * Player data is preloaded on the async pre-login thread, so by the time a player joins,
+ * their data can be read from the main thread without any I/O.
+ * <p>
+ * Each login holds its own claim on the session: the claim taken at pre-login is handed to the {@link Player} when they join
+ * and released when that same {@link Player} quits. A player logging in again while their old connection is still online
+ * therefore keeps the session when the old connection quits, and preloads whose join never arrives are expired.
+ * If the player's data cannot be loaded, the login is denied instead of starting them with fresh data.
+ */
+public class SpigotPlayerDataListener implements Listener {
+
+    /**
+     * How long a preloaded session waits for its player to join before the claim is released.
+     */
+    public static final long PRELOAD_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    private final Plugin plugin;
+    private final PlayerDataService playerDataService;
+    // Map: Player UUID -> Claim taken at pre-login, waiting for the player to join
+    private final Map<UUID, PreloadedClaim> preloaded = new ConcurrentHashMap<>();
+    // Map: Online player -> Their claim, or null while it is still loading. Keyed by identity, as a rejoining player is a new object with the same UUID.
+    private final Map<Player, Long> claims = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * Constructs a new SpigotPlayerDataListener.
+     * @param plugin The {@link Plugin} instance of the framework, used for logging.
+     * @param playerDataService The {@link PlayerDataService} whose sessions this listener manages.
+     */
+    public SpigotPlayerDataListener(Plugin plugin, PlayerDataService playerDataService) {
+        this.plugin = plugin;
+        this.playerDataService = playerDataService;
+    }
+
+    /**
+     * Loads sessions for players that are already online, e.g. after a plugin reload.
+     * A player who quits before their session has loaded releases it as soon as the load completes.
+     */
+    public void loadOnlinePlayers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            claims.put(player, null);
+            UUID uuid = player.getUniqueId();
+            HomiesLib.getSchedulerService().runAsync(() -> {
+                Long claim = loadSession(uuid, player.getName());
+                if (claim == null) {
+                    return;
+                }
+                boolean online;
+                synchronized (claims) {
+                    online = claims.containsKey(player);
+                    if (online) {
+                        claims.put(player, claim);
+                    }
+                }
+                if (!online) {
+                    playerDataService.unloadSession(uuid, claim);
+                }
+            });
+        }
+    }
+
+    /**
+     * Releases the claims of preloaded sessions whose player has not joined within {@link #PRELOAD_TIMEOUT_MILLIS},
+     * for example because they disconnected between pre-login and login.
+     */
+    public void expirePreloads() {
+        long now = System.currentTimeMillis();
+        preloaded.forEach((uuid, preload) -> {
+            if (now - preload.createdAt > PRELOAD_TIMEOUT_MILLIS && preloaded.remove(uuid, preload)) {
+                playerDataService.unloadSession(uuid, preload.claim);
+            }
+        });
+    }
+
+    // HIGHEST rather than MONITOR, as a failed load denies the login
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        UUID uuid = event.getUniqueId();
+        Long claim = loadSession(uuid, event.getName());
+        if (claim == null) {
+            // Joining with fresh defaults would save them over the player's real data
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, "Your player data could not be loaded. Please try again in a moment.");
+            return;
+        }
+        PreloadedClaim replaced = preloaded.put(uuid, new PreloadedClaim(claim, System.currentTimeMillis()));
+        if (replaced != null) {
+            playerDataService.unloadSession(uuid, replaced.claim); // An earlier attempt that never joined
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        // The login was denied after the session was preloaded; nothing has changed yet, so this is I/O free.
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            UUID uuid = event.getPlayer().getUniqueId();
+            PreloadedClaim preload = preloaded.remove(uuid);
+            if (preload != null) {
+                playerDataService.unloadSession(uuid, preload.claim);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        UUID uuid = player.getUniqueId();
+        PreloadedClaim preload = preloaded.remove(uuid);
+        if (preload != null) {
+            claims.put(player, preload.claim);
+        }
+        playerDataService.getCachedPlayerData(uuid).ifPresent(data -> {
+            data.setLastLogin(System.currentTimeMillis());
+            playerDataService.markDirty(uuid);
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        Long claim = claims.remove(player);
+        if (claim != null) {
+            playerDataService.unloadSession(player.getUniqueId(), claim);
+        }
+    }
+
+    private Long loadSession(UUID uuid, String name) {
+        try {
+            return playerDataService.loadSession(uuid);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to preload player data for " + name + " (" + uuid + ")", e);
+            return null;
+        }
+    }
+
+    private static final class PreloadedClaim {
+        private final long claim;
+        private final long createdAt;
+
+        private PreloadedClaim(long claim, long createdAt) {
+            this.claim = claim;
+            this.createdAt = createdAt;
+        }
+    }
+}
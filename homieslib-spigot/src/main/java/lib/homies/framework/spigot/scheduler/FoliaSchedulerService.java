@@ -0,0 +1,140 @@
+package lib.homies.framework.spigot.scheduler;
+
+import io.papermc.paper.threadedregions.scheduler.AsyncScheduler;
+import io.papermc.paper.threadedregions.scheduler.EntityScheduler;
+import io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler;
+import io.papermc.paper.threadedregions.scheduler.RegionScheduler;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import lib.homies.framework.player.HomiesPlayer;
+import lib.homies.framework.scheduler.ExecutorTask;
+import lib.homies.framework.scheduler.HomiesTask;
+import lib.homies.framework.world.HomiesLocation;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Folia-specific implementation of the {@link lib.homies.framework.scheduler.SchedulerService} interface.
+ * Folia has no single main thread: every region of the world ticks on its own thread, and Bukkit's scheduler is unsupported.
+ * This service maps the framework's scheduling onto Folia's schedulers:
+ * <ul>
+ *     <li>Main-thread tasks ({@code runLater}, {@code runRepeating}, lightweight timers, work queues and sync chain stages)
+ *     run on the global region thread, which owns no world state.</li>
+ *     <li>{@link #runAt(HomiesLocation, Runnable, long)} runs on the thread of the region containing the location.</li>
+ *     <li>{@link #runFor(HomiesPlayer, Runnable, long)} runs on the thread of the region the player is in.</li>
+ *     <li>Async tasks run on Folia's async scheduler unless another async executor is configured.</li>
+ * </ul>
+ * Region and entity tasks cannot be cancelled in bulk on Folia, so {@link #cancelAll()} only cancels global and async tasks.
+ */
+public class FoliaSchedulerService extends SpigotSchedulerService {
+
+    private static final long MILLIS_PER_TICK = 50L;
+    private static final HomiesTask RETIRED_TASK = retiredTask();
+
+    /**
+     * Constructs a new FoliaSchedulerService.
+     * @param plugin The {@link Plugin} instance of the framework, used for scheduling tasks.
+     */
+    public FoliaSchedulerService(Plugin plugin) {
+        super(plugin, Bukkit::isGlobalTickThread);
+    }
+
+    /**
+     * Checks whether the server is running Folia.
+     * @return {@code true} if Folia's regionized server is present.
+     */
+    public static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    protected HomiesTask scheduleSync(Runnable task, long delay, long period) {
+        GlobalRegionScheduler scheduler = Bukkit.getGlobalRegionScheduler();
+        Consumer<ScheduledTask> consumer = scheduled -> task.run();
+        if (period > 0) {
+            return new FoliaTask(scheduler.runAtFixedRate(plugin, consumer, Math.max(1, delay), period));
+        } else if (delay > 0) {
+            return new FoliaTask(scheduler.runDelayed(plugin, consumer, delay));
+        }
+        return new FoliaTask(scheduler.run(plugin, consumer));
+    }
+
+    @Override
+    protected HomiesTask scheduleAsync(Runnable task, long delay, long period) {
+        AsyncScheduler scheduler = Bukkit.getAsyncScheduler();
+        Consumer<ScheduledTask> consumer = scheduled -> task.run();
+        if (period > 0) {
+            return new FoliaTask(scheduler.runAtFixedRate(plugin, consumer, Math.max(1, delay * MILLIS_PER_TICK),
+                    period * MILLIS_PER_TICK, TimeUnit.MILLISECONDS));
+        } else if (delay > 0) {
+            return new FoliaTask(scheduler.runDelayed(plugin, consumer, delay * MILLIS_PER_TICK, TimeUnit.MILLISECONDS));
+        }
+        return new FoliaTask(scheduler.runNow(plugin, consumer));
+    }
+
+    @Override
+    protected void cancelPlatformTasks() {
+        Bukkit.getGlobalRegionScheduler().cancelTasks(plugin);
+        Bukkit.getAsyncScheduler().cancelTasks(plugin);
+    }
+
+    /**
+     * Runs a task once after a delay on the thread of the region containing the location.
+     * @param location The location whose region runs the task.
+     * @param task The {@link Runnable} to execute.
+     * @param delay The delay before the task runs, in server ticks.
+     * @return A {@link HomiesTask} representing the scheduled task.
+     * @throws IllegalArgumentException If the location is not backed by a Bukkit {@link Location}.
+     */
+    @Override
+    public HomiesTask runAt(HomiesLocation location, Runnable task, long delay) {
+        Location bukkitLocation = location.getAs(Location.class);
+        if (bukkitLocation == null) {
+            throw new IllegalArgumentException("Expected a location backed by org.bukkit.Location.");
+        }
+        RegionScheduler scheduler = Bukkit.getRegionScheduler();
+        Runnable timed = taskTimings.wrap(null, null, true, task);
+        Consumer<ScheduledTask> consumer = scheduled -> timed.run();
+        if (delay > 0) {
+            return new FoliaTask(scheduler.runDelayed(plugin, bukkitLocation, consumer, delay));
+        }
+        return new FoliaTask(scheduler.run(plugin, bukkitLocation, consumer));
+    }
+
+    /**
+     * Runs a task once after a delay on the thread of the region the player is in, following the player across regions.
+     * @param player The player whose region runs the task.
+     * @param task The {@link Runnable} to execute.
+     * @param delay The delay before the task runs, in server ticks.
+     * @return A {@link HomiesTask} representing the scheduled task. If the player has already left, the task is not scheduled
+     *         and the returned handle is cancelled.
+     */
+    @Override
+    public HomiesTask runFor(HomiesPlayer player, Runnable task, long delay) {
+        Player bukkitPlayer = toBukkitPlayer(player);
+        EntityScheduler scheduler = bukkitPlayer.getScheduler();
+        Runnable timed = taskTimings.wrap(null, null, true, task);
+        Consumer<ScheduledTask> consumer = scheduled -> timed.run();
+        // The retired callback is null: tasks for players who have logged out are skipped, as on Spigot.
+        ScheduledTask scheduled = delay > 0
+                ? scheduler.runDelayed(plugin, consumer, null, delay)
+                : scheduler.run(plugin, consumer, null);
+        return scheduled != null ? new FoliaTask(scheduled) : RETIRED_TASK;
+    }
+
+    private static HomiesTask retiredTask() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.cancel(false);
+        return new ExecutorTask(future);
+    }
+}
@@ -0,0 +1,47 @@
+package lib.homies.framework.spigot.scheduler;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import lib.homies.framework.scheduler.HomiesTask;
+
+/**
+ * Folia-specific implementation of the {@link HomiesTask} interface.
+ * This class wraps a Folia {@link ScheduledTask}, which is returned by the global region, region, entity and async schedulers.
+ */
+public class FoliaTask implements HomiesTask {
+    private final ScheduledTask scheduledTask;
+
+    /**
+     * Constructs a new FoliaTask wrapping a given ScheduledTask.
+     * @param scheduledTask The Folia {@link ScheduledTask} to wrap.
+     */
+    public FoliaTask(ScheduledTask scheduledTask) {
+        this.scheduledTask = scheduledTask;
+    }
+
+    /**
+     * Cancels the underlying Folia {@link ScheduledTask}.
+     */
+    @Override
+    public void cancel() {
+        scheduledTask.cancel();
+    }
+
+    /**
+     * Checks whether the underlying Folia task was cancelled.
+     * @return {@code true} if the task was cancelled.
+     */
+    @Override
+    public boolean isCancelled() {
+        return scheduledTask.isCancelled();
+    }
+
+    /**
+     * Checks whether the underlying Folia task has finished or was cancelled and is not running.
+     * @return {@code true} if the task is done.
+     */
+    @Override
+    public boolean isDone() {
+        ScheduledTask.ExecutionState state = scheduledTask.getExecutionState();
+        return state == ScheduledTask.ExecutionState.FINISHED || state == ScheduledTask.ExecutionState.CANCELLED;
+    }
+}
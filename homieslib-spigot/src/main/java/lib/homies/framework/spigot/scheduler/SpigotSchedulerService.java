@@ -1,15 +1,49 @@
 package lib.homies.framework.spigot.scheduler;
 
+import lib.homies.framework.player.HomiesPlayer;
+import lib.homies.framework.scheduler.AsyncExecutors;
+import lib.homies.framework.scheduler.ChunkedParallelTask;
+import lib.homies.framework.scheduler.ExecutorTask;
+import lib.homies.framework.scheduler.FutureTaskChain;
+import lib.homies.framework.scheduler.HashedTimingWheel;
 import lib.homies.framework.scheduler.HomiesTask;
+import lib.homies.framework.scheduler.KeyedRunner;
+import lib.homies.framework.scheduler.MainThreadExecutor;
+import lib.homies.framework.scheduler.ParallelTask;
 import lib.homies.framework.scheduler.SchedulerService;
+import lib.homies.framework.scheduler.TaskChain;
+import lib.homies.framework.scheduler.TaskPriority;
+import lib.homies.framework.scheduler.TaskTimings;
+import lib.homies.framework.scheduler.TickBudgetedWorkQueue;
+import lib.homies.framework.scheduler.TickLoadMonitor;
+import lib.homies.framework.scheduler.TimingWheelKeyedRunner;
+import lib.homies.framework.scheduler.WorkQueue;
+import lib.homies.framework.spigot.player.SpigotPlayer;
+import lib.homies.framework.world.HomiesLocation;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.IllegalPluginAccessException;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitScheduler;
 
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Spigot-specific implementation of the {@link SchedulerService} interface.
@@ -18,16 +52,83 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class SpigotSchedulerService implements SchedulerService {
 
-    private final Plugin plugin;
+    /**
+     * The name of the work queue that applies the results of {@link #forkJoin(Collection, Function, Consumer)}.
+     */
+    public static final String FORK_JOIN_QUEUE = "fork-join";
+
+    protected final Plugin plugin;
     private final BukkitScheduler scheduler = Bukkit.getScheduler();
-    private final Map<String, List<HomiesTask>> taskGroups = new ConcurrentHashMap<>();
+    private final Map<String, TaskGroup> taskGroups = new ConcurrentHashMap<>();
+    private final Executor platformAsyncExecutor;
+    private final BooleanSupplier isMainThread;
+    private volatile ExecutorService asyncExecutor;
+    private volatile String asyncExecutorMode = "BUKKIT";
+    private final Map<String, TickBudgetedWorkQueue> workQueues = new ConcurrentHashMap<>();
+    private volatile long defaultWorkQueueBudgetNanos = TimeUnit.MILLISECONDS.toNanos(5);
+    private final MainThreadExecutor mainThreadExecutor;
+    protected final TaskTimings taskTimings = new TaskTimings(false, 5.0);
+    private final HashedTimingWheel timingWheel = new HashedTimingWheel(512);
+    private final TickLoadMonitor loadMonitor = new TickLoadMonitor(true, 55.0, 70.0);
+    private HomiesTask tickDriver;
+    private final Set<ParallelTask> parallelTasks = ConcurrentHashMap.newKeySet();
 
     /**
      * Constructs a new SpigotSchedulerService.
      * @param plugin The {@link Plugin} instance of the framework, used for scheduling tasks.
      */
     public SpigotSchedulerService(Plugin plugin) {
+        this(plugin, Bukkit::isPrimaryThread);
+    }
+
+    /**
+     * Constructs a new SpigotSchedulerService for a platform with its own notion of the main thread.
+     * @param plugin The {@link Plugin} instance of the framework, used for scheduling tasks.
+     * @param isMainThread Tells whether the calling thread is the thread that runs {@link #runLater(Runnable, long)} tasks.
+     */
+    protected SpigotSchedulerService(Plugin plugin, BooleanSupplier isMainThread) {
         this.plugin = plugin;
+        this.platformAsyncExecutor = task -> scheduleAsync(task, 0, -1);
+        this.isMainThread = isMainThread;
+        this.mainThreadExecutor = new MainThreadExecutor(isMainThread);
+    }
+
+    /**
+     * Schedules a task on the platform's main-thread scheduler. All main-thread tasks of this service go through this method.
+     * @param task The task.
+     * @param delay The delay in server ticks.
+     * @param period The period in server ticks, or 0 or less to run once.
+     * @return A {@link HomiesTask} representing the scheduled task.
+     */
+    protected HomiesTask scheduleSync(Runnable task, long delay, long period) {
+        if (period > 0) {
+            return new SpigotTask(scheduler.runTaskTimer(plugin, task, delay, period));
+        }
+        return new SpigotTask(scheduler.runTaskLater(plugin, task, delay));
+    }
+
+    /**
+     * Schedules a task on the platform's async scheduler. All async tasks of this service that do not run on the configured
+     * async executor go through this method.
+     * @param task The task.
+     * @param delay The delay in server ticks, or 0 to run immediately.
+     * @param period The period in server ticks, or 0 or less to run once.
+     * @return A {@link HomiesTask} representing the scheduled task.
+     */
+    protected HomiesTask scheduleAsync(Runnable task, long delay, long period) {
+        if (period > 0) {
+            return new SpigotTask(scheduler.runTaskTimerAsynchronously(plugin, task, delay, period));
+        } else if (delay > 0) {
+            return new SpigotTask(scheduler.runTaskLaterAsynchronously(plugin, task, delay));
+        }
+        return new SpigotTask(scheduler.runTaskAsynchronously(plugin, task));
+    }
+
+    /**
+     * Cancels all tasks the framework scheduled on the platform's schedulers.
+     */
+    protected void cancelPlatformTasks() {
+        scheduler.cancelTasks(plugin);
     }
 
     /**
@@ -38,7 +139,28 @@ public class SpigotSchedulerService implements SchedulerService {
      */
     @Override
     public HomiesTask runLater(Runnable task, long delay) {
-        return new SpigotTask(scheduler.runTaskLater(plugin, task, delay));
+        return scheduleSync(taskTimings.wrap(null, null, true, task), delay, -1);
+    }
+
+    /**
+     * Runs a task once after a specified delay on the main server thread, using a lightweight timer
+     * in the timing wheel instead of a {@link org.bukkit.scheduler.BukkitTask}.
+     * @param task The {@link Runnable} to execute.
+     * @param delay The delay before the task runs, in server ticks.
+     * @return A {@link HomiesTask} that cancels the timer.
+     */
+    @Override
+    public HomiesTask runLaterLightweight(Runnable task, long delay) {
+        startTickDriver();
+        return timingWheel.schedule(taskTimings.wrap(null, null, true, task), delay);
+    }
+
+    /**
+     * Retrieves the number of lightweight timers that have neither run nor been cancelled.
+     * @return The pending timer count.
+     */
+    public int getPendingLightweightTimers() {
+        return timingWheel.size();
     }
 
     /**
@@ -50,17 +172,353 @@ public class SpigotSchedulerService implements SchedulerService {
      */
     @Override
     public HomiesTask runRepeating(Runnable task, long delay, long period) {
-        return new SpigotTask(scheduler.runTaskTimer(plugin, task, delay, period));
+        return scheduleSync(taskTimings.wrap(null, null, true, task), delay, period);
+    }
+
+    /**
+     * Runs a task once after a delay on the main server thread, which owns every location on Spigot.
+     * @param location The location the task works with.
+     * @param task The {@link Runnable} to execute.
+     * @param delay The delay before the task runs, in server ticks.
+     * @return A {@link HomiesTask} representing the scheduled task.
+     */
+    @Override
+    public HomiesTask runAt(HomiesLocation location, Runnable task, long delay) {
+        return runLater(task, delay);
+    }
+
+    /**
+     * Runs a task once after a delay on the main server thread, unless the player has logged out by then.
+     * @param player The player the task works with.
+     * @param task The {@link Runnable} to execute.
+     * @param delay The delay before the task runs, in server ticks.
+     * @return A {@link HomiesTask} representing the scheduled task.
+     */
+    @Override
+    public HomiesTask runFor(HomiesPlayer player, Runnable task, long delay) {
+        Player bukkitPlayer = toBukkitPlayer(player);
+        Runnable timed = taskTimings.wrap(null, null, true, task);
+        return scheduleSync(() -> {
+            if (bukkitPlayer.isOnline()) {
+                timed.run();
+            }
+        }, delay, -1);
+    }
+
+    /**
+     * Converts a {@link HomiesPlayer} to the Bukkit player it wraps.
+     * @param player The player.
+     * @return The Bukkit player.
+     * @throws IllegalArgumentException If the player is not a {@link SpigotPlayer}.
+     */
+    protected static Player toBukkitPlayer(HomiesPlayer player) {
+        if (!(player instanceof SpigotPlayer)) {
+            throw new IllegalArgumentException("Expected a SpigotPlayer but got " + (player == null ? "null" : player.getClass().getName()) + ".");
+        }
+        return ((SpigotPlayer) player).getPlayer();
     }
 
     /**
      * Runs a task asynchronously (off the main server thread) immediately.
+     * If the async executor no longer accepts tasks, e.g. while the server shuts down, the task runs on the calling thread
+     * instead, whichever executor mode is active.
      * @param task The {@link Runnable} to execute.
      * @return A {@link HomiesTask} representing the scheduled task.
      */
     @Override
     public HomiesTask runAsync(Runnable task) {
-        return new SpigotTask(scheduler.runTaskAsynchronously(plugin, task));
+        return submitAsync(taskTimings.wrap(null, null, false, task));
+    }
+
+    private HomiesTask submitAsync(Runnable task) {
+        ExecutorService executor = asyncExecutor;
+        try {
+            if (executor != null) {
+                return new ExecutorTask(executor.submit(task));
+            }
+            return scheduleAsync(task, 0, -1);
+        } catch (RejectedExecutionException | IllegalPluginAccessException e) {
+            // A shut down executor or a disabled plugin's scheduler; the task may hold work that must not be lost
+            FutureTask<Void> inline = new FutureTask<>(task, null);
+            inline.run();
+            return new ExecutorTask(inline);
+        }
+    }
+
+    /**
+     * Retrieves the executor that {@link #runAsync(Runnable)} submits to.
+     * @return The configured async executor, or one that delegates to the platform's async scheduler.
+     */
+    @Override
+    public Executor getAsyncExecutor() {
+        ExecutorService executor = asyncExecutor;
+        return executor != null ? executor : platformAsyncExecutor;
+    }
+
+    /**
+     * Retrieves the task timings recorder. Timings are disabled unless enabled in the configuration or with {@code /homieslib timings on}.
+     * @return The task timings.
+     */
+    public TaskTimings getTaskTimings() {
+        return taskTimings;
+    }
+
+    /**
+     * Retrieves an executor that runs tasks on the main server thread: immediately when called from it,
+     * otherwise at the start of the next tick.
+     * @return The main-thread executor.
+     */
+    @Override
+    public Executor getMainThreadExecutor() {
+        startTickDriver();
+        return mainThreadExecutor;
+    }
+
+    /**
+     * Starts a {@link TaskChain} by computing a value on the async executor.
+     * @param supplier Computes the value.
+     * @param <T> The type of the value.
+     * @return The first stage of the chain.
+     */
+    @Override
+    public <T> TaskChain<T> supplyAsync(Supplier<T> supplier) {
+        Executor async = getAsyncExecutor();
+        return FutureTaskChain.start(supplier, async, getMainThreadExecutor(), async);
+    }
+
+    /**
+     * Starts a {@link TaskChain} by computing a value on the main server thread.
+     * @param supplier Computes the value.
+     * @param <T> The type of the value.
+     * @return The first stage of the chain.
+     */
+    @Override
+    public <T> TaskChain<T> supplySync(Supplier<T> supplier) {
+        Executor sync = getMainThreadExecutor();
+        return FutureTaskChain.start(supplier, sync, sync, getAsyncExecutor());
+    }
+
+    /**
+     * Selects the executor immediate async tasks run on. Delayed and repeating async tasks stay on Bukkit's scheduler.
+     * <ul>
+     *     <li>{@code BUKKIT}: Bukkit's async scheduler, whose cached pool grows with every concurrently blocked task.</li>
+     *     <li>{@code VIRTUAL}: one virtual thread per task (Java 21+). Falls back to {@code BOUNDED} on older JVMs.</li>
+     *     <li>{@code BOUNDED}: a fixed pool of {@code poolSize} platform threads with a queue of {@code queueCapacity} tasks.
+     *     While the queue is full, tasks run on the submitting thread, except on the main thread, where they are deferred until the queue drains.</li>
+     * </ul>
+     * @param mode The executor mode.
+     * @param poolSize The number of threads of the bounded pool.
+     * @param queueCapacity The queue capacity of the bounded pool.
+     */
+    public void configureAsyncExecutor(String mode, int poolSize, int queueCapacity) {
+        ExecutorService executor = null;
+        String selected = mode == null ? "BUKKIT" : mode.trim().toUpperCase(Locale.ROOT);
+        if (selected.equals("VIRTUAL")) {
+            executor = AsyncExecutors.newVirtualThreadExecutor();
+            if (executor == null) {
+                plugin.getLogger().warning("Virtual threads require Java 21 or newer. Falling back to a bounded async pool.");
+                selected = "BOUNDED";
+            }
+        }
+        if (selected.equals("BOUNDED")) {
+            executor = AsyncExecutors.newBoundedExecutor(poolSize, queueCapacity, isMainThread);
+        } else if (!selected.equals("VIRTUAL") && !selected.equals("BUKKIT")) {
+            plugin.getLogger().warning("Unknown async executor mode '" + mode + "'. Using the Bukkit scheduler.");
+            selected = "BUKKIT";
+        }
+
+        ExecutorService previous = this.asyncExecutor;
+        this.asyncExecutor = executor;
+        this.asyncExecutorMode = selected;
+        if (previous != null) {
+            previous.shutdown();
+        }
+        plugin.getLogger().info("Async tasks run on the " + selected + " executor.");
+    }
+
+    /**
+     * Retrieves the name of the active async executor mode.
+     * @return "BUKKIT", "VIRTUAL" or "BOUNDED".
+     */
+    public String getAsyncExecutorMode() {
+        return asyncExecutorMode;
+    }
+
+    /**
+     * Stops accepting async tasks and waits briefly for running ones to finish.
+     * Intended to be called once while the framework shuts down.
+     */
+    public void shutdown() {
+        ExecutorService executor = asyncExecutor;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Async tasks were still running at shutdown and were abandoned.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Retrieves the named {@link WorkQueue}, creating it with the default per-tick budget if it does not exist.
+     * All work queues are drained by the same repeating task that drives the lightweight timers.
+     * @param name The queue name.
+     * @return The work queue.
+     */
+    @Override
+    public WorkQueue workQueue(String name) {
+        TickBudgetedWorkQueue queue = workQueues.computeIfAbsent(name, k -> new TickBudgetedWorkQueue(k, defaultWorkQueueBudgetNanos));
+        startTickDriver();
+        return queue;
+    }
+
+    /**
+     * Retrieves the named {@link WorkQueue}, creating it if it does not exist, and sets its per-tick budget.
+     * @param name The queue name.
+     * @param budget The time the queue may spend per tick.
+     * @param unit The unit of {@code budget}.
+     * @return The work queue.
+     */
+    @Override
+    public WorkQueue workQueue(String name, long budget, TimeUnit unit) {
+        WorkQueue queue = workQueue(name);
+        queue.setBudgetNanos(unit.toNanos(budget));
+        return queue;
+    }
+
+    /**
+     * Sets the per-tick budget given to work queues created without an explicit budget.
+     * Queues that already exist keep their budget.
+     * @param budgetMillis The budget in milliseconds.
+     */
+    public void setDefaultWorkQueueBudget(double budgetMillis) {
+        this.defaultWorkQueueBudgetNanos = Math.max(1, (long) (budgetMillis * 1_000_000L));
+    }
+
+    /**
+     * Retrieves all work queues created so far.
+     * @return An unmodifiable view of the work queues.
+     */
+    public Collection<TickBudgetedWorkQueue> getWorkQueues() {
+        return Collections.unmodifiableCollection(workQueues.values());
+    }
+
+    private synchronized void startTickDriver() {
+        if (tickDriver == null) {
+            tickDriver = scheduleSync(() -> {
+                loadMonitor.recordTick(System.nanoTime());
+                mainThreadExecutor.drain();
+                timingWheel.advance();
+                workQueues.values().forEach(TickBudgetedWorkQueue::drain);
+            }, 1L, 1L);
+        }
+    }
+
+    /**
+     * Creates a runner that runs a key's latest action once it has not been triggered for {@code delayTicks}.
+     * @param delayTicks The quiet period in server ticks.
+     * @param <K> The key type.
+     * @return The debouncing runner, backed by the timing wheel.
+     */
+    @Override
+    public <K> KeyedRunner<K> debounce(long delayTicks) {
+        return keyedRunner(TimingWheelKeyedRunner.Mode.DEBOUNCE, delayTicks);
+    }
+
+    /**
+     * Creates a runner that runs a key's action at most once per {@code periodTicks}.
+     * @param periodTicks The minimum number of server ticks between runs.
+     * @param <K> The key type.
+     * @return The throttling runner, backed by the timing wheel.
+     */
+    @Override
+    public <K> KeyedRunner<K> throttle(long periodTicks) {
+        return keyedRunner(TimingWheelKeyedRunner.Mode.THROTTLE, periodTicks);
+    }
+
+    /**
+     * Creates a runner that runs a key's latest action {@code windowTicks} after its first trigger.
+     * @param windowTicks The number of server ticks to collect triggers for.
+     * @param <K> The key type.
+     * @return The coalescing runner, backed by the timing wheel.
+     */
+    @Override
+    public <K> KeyedRunner<K> coalesce(long windowTicks) {
+        return keyedRunner(TimingWheelKeyedRunner.Mode.COALESCE, windowTicks);
+    }
+
+    private <K> KeyedRunner<K> keyedRunner(TimingWheelKeyedRunner.Mode mode, long intervalTicks) {
+        startTickDriver();
+        return new TimingWheelKeyedRunner<>(timingWheel, mainThreadExecutor, mode, intervalTicks);
+    }
+
+    /**
+     * Processes a collection on the common fork-join pool and applies the results through the {@value #FORK_JOIN_QUEUE} work queue.
+     * @param items The items to process.
+     * @param compute Computes the result of an item.
+     * @param apply Applies a result on the main server thread.
+     * @param <T> The item type.
+     * @param <R> The result type.
+     * @return The parallel task.
+     */
+    @Override
+    public <T, R> ParallelTask forkJoin(Collection<? extends T> items, Function<? super T, ? extends R> compute, Consumer<? super R> apply) {
+        return forkJoin(items, 0, compute, apply);
+    }
+
+    /**
+     * Processes a collection in chunks of a given size on the common fork-join pool and applies the results through the
+     * {@value #FORK_JOIN_QUEUE} work queue. The pool is used instead of the async executor because the computation is
+     * CPU-bound and the pool is sized to the number of processors.
+     * @param items The items to process.
+     * @param chunkSize The number of items per chunk.
+     * @param compute Computes the result of an item.
+     * @param apply Applies a result on the main server thread.
+     * @param <T> The item type.
+     * @param <R> The result type.
+     * @return The parallel task.
+     */
+    @Override
+    public <T, R> ParallelTask forkJoin(Collection<? extends T> items, int chunkSize, Function<? super T, ? extends R> compute, Consumer<? super R> apply) {
+        ChunkedParallelTask<T, R> task = new ChunkedParallelTask<>(items, chunkSize, compute,
+                apply, ForkJoinPool.commonPool(), workQueue(FORK_JOIN_QUEUE));
+        parallelTasks.add(task);
+        task.toFuture().whenComplete((result, error) -> parallelTasks.remove(task));
+        return task.start();
+    }
+
+    /**
+     * Retrieves the parallel tasks that have not completed yet.
+     * @return A snapshot of the running parallel tasks.
+     */
+    public Collection<ParallelTask> getParallelTasks() {
+        return new ArrayList<>(parallelTasks);
+    }
+
+    /**
+     * Checks whether tasks of a priority are currently being stretched or skipped.
+     * Load is measured by the repeating task that drives the lightweight timers, which this call starts if needed.
+     * @param priority The priority.
+     * @return {@code true} if work of this priority is being shed.
+     */
+    @Override
+    public boolean isShedding(TaskPriority priority) {
+        startTickDriver();
+        return loadMonitor.isShedding(priority);
+    }
+
+    /**
+     * Retrieves the monitor that measures server load and decides when low-priority tasks are shed.
+     * @return The load monitor.
+     */
+    public TickLoadMonitor getLoadMonitor() {
+        return loadMonitor;
     }
 
     /**
@@ -70,7 +528,39 @@ public class SpigotSchedulerService implements SchedulerService {
      */
     @Override
     public void addToGroup(String group, HomiesTask task) {
-        taskGroups.computeIfAbsent(group, k -> new ArrayList<>()).add(task);
+        taskGroups.compute(group, (name, taskGroup) -> {
+            TaskGroup target = taskGroup != null ? taskGroup : new TaskGroup();
+            target.add(task);
+            return target;
+        });
+        if (task.isDone()) {
+            removeFromGroup(group, task); // Finished before it was added, so its completion hook found nothing to remove
+        }
+    }
+
+    private void removeFromGroup(String group, HomiesTask task) {
+        taskGroups.computeIfPresent(group, (name, taskGroup) -> {
+            taskGroup.tasks.remove(task);
+            return taskGroup.tasks.isEmpty() ? null : taskGroup;
+        });
+    }
+
+    /**
+     * Retrieves the number of live tasks in a group.
+     * @param group The name of the task group.
+     * @return The number of tasks that are neither finished nor cancelled.
+     */
+    public int getGroupSize(String group) {
+        TaskGroup taskGroup = taskGroups.get(group);
+        return taskGroup == null ? 0 : taskGroup.tasks.size();
+    }
+
+    /**
+     * Retrieves the names of all groups that have live tasks.
+     * @return A snapshot of the group names.
+     */
+    public Set<String> getGroupNames() {
+        return new HashSet<>(taskGroups.keySet());
     }
 
     /**
@@ -79,9 +569,9 @@ public class SpigotSchedulerService implements SchedulerService {
      */
     @Override
     public void cancelGroup(String group) {
-        if (taskGroups.containsKey(group)) {
-            taskGroups.get(group).forEach(HomiesTask::cancel);
-            taskGroups.remove(group);
+        TaskGroup taskGroup = taskGroups.remove(group);
+        if (taskGroup != null) {
+            taskGroup.tasks.forEach(HomiesTask::cancel);
         }
     }
 
@@ -90,8 +580,20 @@ public class SpigotSchedulerService implements SchedulerService {
      */
     @Override
     public void cancelAll() {
-        scheduler.cancelTasks(plugin);
+        cancelPlatformTasks();
         taskGroups.clear(); // Clear internal tracking as well
+        // Lightweight timers and pending work queue units are cancelled too, but both stay usable while the plugin is enabled.
+        timingWheel.clear();
+        workQueues.values().forEach(TickBudgetedWorkQueue::clear);
+        parallelTasks.forEach(HomiesTask::cancel);
+        boolean driverWasRunning;
+        synchronized (this) {
+            driverWasRunning = tickDriver != null;
+            tickDriver = null;
+        }
+        if (plugin.isEnabled() && driverWasRunning) {
+            startTickDriver();
+        }
     }
 
     /**
@@ -103,6 +605,26 @@ public class SpigotSchedulerService implements SchedulerService {
         return new SpigotSchedulerTaskBuilder();
     }
 
+    /**
+     * The live tasks of one group. Tasks scheduled through the builder remove themselves when they finish;
+     * tasks added with {@link #addToGroup(String, HomiesTask)} directly are pruned once the group has doubled in size
+     * since the last prune, which keeps the group's size proportional to its live tasks at O(1) amortized cost.
+     */
+    private static final class TaskGroup {
+        private static final int MIN_PRUNE_SIZE = 16;
+
+        private final Set<HomiesTask> tasks = ConcurrentHashMap.newKeySet();
+        private int pruneAt = MIN_PRUNE_SIZE; // Guarded by the taskGroups map entry
+
+        private void add(HomiesTask task) {
+            tasks.add(task);
+            if (tasks.size() >= pruneAt) {
+                tasks.removeIf(HomiesTask::isDone);
+                pruneAt = Math.max(MIN_PRUNE_SIZE, tasks.size() * 2);
+            }
+        }
+    }
+
     /**
      * Spigot-specific implementation of the {@link SchedulerTaskBuilder} interface.
      * This builder allows for constructing and scheduling tasks with various options
@@ -114,6 +636,8 @@ public class SpigotSchedulerService implements SchedulerService {
         private long delay = 0;
         private long period = -1;
         private String group = null;
+        private String name = null;
+        private TaskPriority priority = TaskPriority.NORMAL;
 
         /**
          * Sets the {@link Runnable} to be executed by the task.
@@ -169,6 +693,28 @@ public class SpigotSchedulerService implements SchedulerService {
             return this;
         }
 
+        /**
+         * Names the task in task timings reports.
+         * @param name The task name.
+         * @return The builder instance.
+         */
+        @Override
+        public SchedulerTaskBuilder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets how important a repeating task is when the server falls behind.
+         * @param priority The task priority.
+         * @return The builder instance.
+         */
+        @Override
+        public SchedulerTaskBuilder priority(TaskPriority priority) {
+            this.priority = priority == null ? TaskPriority.NORMAL : priority;
+            return this;
+        }
+
         /**
          * Builds and starts the scheduled task using the configured options.
          * @return A {@link HomiesTask} representing the newly scheduled task.
@@ -180,24 +726,36 @@ public class SpigotSchedulerService implements SchedulerService {
                 throw new IllegalStateException("Runnable must be provided for the task.");
             }
 
+            Runnable timed = taskTimings.wrap(name, group, !async, runnable);
+            if (period > 0 && priority != TaskPriority.NORMAL) {
+                startTickDriver(); // Measures the load the task is shed by
+                timed = loadMonitor.gate(timed, priority);
+            }
+            HomiesTask[] scheduled = new HomiesTask[1];
+            if (group != null && period <= 0) {
+                // One-shot grouped tasks leave their group as soon as they have run.
+                Runnable groupedTask = timed;
+                String taskGroup = group;
+                timed = () -> {
+                    try {
+                        groupedTask.run();
+                    } finally {
+                        HomiesTask self = scheduled[0];
+                        if (self != null) {
+                            removeFromGroup(taskGroup, self);
+                        }
+                    }
+                };
+            }
             HomiesTask task;
             if (async) {
-                if (period > 0) {
-                    task = new SpigotTask(scheduler.runTaskTimerAsynchronously(plugin, runnable, delay, period));
-                } else if (delay > 0) {
-                    task = new SpigotTask(scheduler.runTaskLaterAsynchronously(plugin, runnable, delay));
-                } else {
-                    task = runAsync(runnable);
-                }
+                task = period > 0 || delay > 0 ? scheduleAsync(timed, delay, period) : submitAsync(timed);
             } else {
-                if (period > 0) {
-                    task = runRepeating(runnable, delay, period);
-                } else {
-                    task = runLater(runnable, delay);
-                }
+                task = scheduleSync(timed, delay, period);
             }
 
             if (group != null) {
+                scheduled[0] = task;
                 addToGroup(group, task);
             }
             return task;
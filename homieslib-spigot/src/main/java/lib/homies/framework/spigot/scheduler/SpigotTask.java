@@ -1,6 +1,8 @@
 package lib.homies.framework.spigot.scheduler;
 
 import lib.homies.framework.scheduler.HomiesTask;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitScheduler;
 import org.bukkit.scheduler.BukkitTask;
 
 /**
@@ -26,4 +28,24 @@ public class SpigotTask implements HomiesTask {
     public void cancel() {
         bukkitTask.cancel();
     }
+
+    /**
+     * Checks whether the underlying Bukkit task was cancelled.
+     * @return {@code true} if the task was cancelled.
+     */
+    @Override
+    public boolean isCancelled() {
+        return bukkitTask.isCancelled();
+    }
+
+    /**
+     * Checks whether the underlying Bukkit task is neither waiting to run nor running.
+     * @return {@code true} if the task is done.
+     */
+    @Override
+    public boolean isDone() {
+        BukkitScheduler scheduler = Bukkit.getScheduler();
+        int taskId = bukkitTask.getTaskId();
+        return !scheduler.isQueued(taskId) && !scheduler.isCurrentlyRunning(taskId);
+    }
 }